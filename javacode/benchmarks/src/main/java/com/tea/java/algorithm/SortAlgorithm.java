@@ -0,0 +1,197 @@
+package com.tea.java.algorithm;
+
+import com.tea.java.algorithm.insertionsort.BinaryInsertionSort;
+import com.tea.java.algorithm.insertionsort.InsertionSort;
+import com.tea.java.algorithm.insertionsort.SentinelInsertionSort;
+import com.tea.java.algorithm.mergesort.MergeSort1;
+import com.tea.java.algorithm.mergesort.MergeSort2;
+import com.tea.java.algorithm.mergesort.NaturalMergeSort;
+import com.tea.java.algorithm.mergesort.ParallelMergeSort;
+import com.tea.java.algorithm.mergesort.TunedMergeSort;
+import com.tea.java.algorithm.quicksort.DualPivotQuickSort;
+import com.tea.java.algorithm.quicksort.IntroSort;
+import com.tea.java.algorithm.radixsort.RadixSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p>com.tea.java.algorithm下的所有排序，统一为sort(int[])和sort(T[])两个入口，供基准和正确性测试遍历
+ *
+ * <p>只接受Comparable[]或只有对象版本的排序不支持int[]，基数排序、双轴快排只有基本类型版本。
+ * 插入排序是O(N^2)，超过{@link #QUADRATIC_MAX_SIZE}的输入不参与。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public enum SortAlgorithm {
+
+    ARRAYS_SORT(true, true, true) {
+        @Override
+        public void sort(int[] a) {
+            Arrays.sort(a);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            Arrays.sort(a);
+        }
+    },
+    INSERTION(true, false, true, SortAlgorithm.QUADRATIC_MAX_SIZE) {
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new InsertionSort().sort(a);
+        }
+    },
+    BINARY_INSERTION(true, true, true, SortAlgorithm.QUADRATIC_MAX_SIZE) {
+        @Override
+        public void sort(int[] a) {
+            new BinaryInsertionSort().sort(a, 0, a.length);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new BinaryInsertionSort().sort(a);
+        }
+    },
+    SENTINEL_INSERTION(true, true, true, SortAlgorithm.QUADRATIC_MAX_SIZE) {
+        @Override
+        public void sort(int[] a) {
+            new SentinelInsertionSort().sort(a, 0, a.length);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new SentinelInsertionSort().sort(a);
+        }
+    },
+    MERGE_SORT_1(true, false, true) {
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new MergeSort1().sort(a);
+        }
+    },
+    MERGE_SORT_2(true, false, true) {
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new MergeSort2().sort(a);
+        }
+    },
+    TUNED_MERGE(true, true, true) {
+        @Override
+        public void sort(int[] a) {
+            new TunedMergeSort().sort(a);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new TunedMergeSort().sort(a, Comparator.naturalOrder());
+        }
+    },
+    NATURAL_MERGE(true, false, true) {
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new NaturalMergeSort().sort(a, Comparator.naturalOrder());
+        }
+    },
+    PARALLEL_MERGE(true, true, true) {
+        @Override
+        public void sort(int[] a) {
+            new ParallelMergeSort().sort(a);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new ParallelMergeSort().sort(a, Comparator.naturalOrder());
+        }
+    },
+    DUAL_PIVOT_QUICK(false, true, false) {
+        @Override
+        public void sort(int[] a) {
+            new DualPivotQuickSort().sort(a);
+        }
+    },
+    INTRO(false, true, true) {
+        @Override
+        public void sort(int[] a) {
+            new IntroSort().sort(a);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new IntroSort().sort(a, Comparator.naturalOrder());
+        }
+    },
+    RADIX(true, true, false) {
+        @Override
+        public void sort(int[] a) {
+            new RadixSort().sort(a);
+        }
+    },
+    PARALLEL_RADIX(true, true, false) {
+        @Override
+        public void sort(int[] a) {
+            new RadixSort(ForkJoinPool.commonPool()).sort(a);
+        }
+    },
+    /**
+     * 要求稳定，对象数组走NaturalMergeSort/ParallelMergeSort
+     */
+    SORT_STRATEGY(true, true, true) {
+        @Override
+        public void sort(int[] a) {
+            new SortStrategy().sort(a);
+        }
+
+        @Override
+        public <T extends Comparable<? super T>> void sort(T[] a) {
+            new SortStrategy().sort(a, Comparator.naturalOrder(), true);
+        }
+    };
+
+    public static final int QUADRATIC_MAX_SIZE = 1 << 16;
+
+    private final boolean stable;
+    private final boolean primitive;
+    private final boolean object;
+    private final int maxSize;
+
+    SortAlgorithm(boolean stable, boolean primitive, boolean object) {
+        this(stable, primitive, object, Integer.MAX_VALUE);
+    }
+
+    SortAlgorithm(boolean stable, boolean primitive, boolean object, int maxSize) {
+        this.stable = stable;
+        this.primitive = primitive;
+        this.object = object;
+        this.maxSize = maxSize;
+    }
+
+    public void sort(int[] a) {
+        throw new UnsupportedOperationException(name() + " does not sort int[]");
+    }
+
+    public <T extends Comparable<? super T>> void sort(T[] a) {
+        throw new UnsupportedOperationException(name() + " does not sort object arrays");
+    }
+
+    /**
+     * 对象数组排序是否稳定
+     */
+    public boolean isStable() {
+        return stable;
+    }
+
+    public boolean supportsPrimitive() {
+        return primitive;
+    }
+
+    public boolean supportsObject() {
+        return object;
+    }
+
+    public boolean supportsSize(int size) {
+        return size <= maxSize;
+    }
+}
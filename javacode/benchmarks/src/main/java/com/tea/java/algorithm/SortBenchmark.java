@@ -0,0 +1,89 @@
+package com.tea.java.algorithm;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>所有排序 x 所有输入分布 x 输入规模
+ *
+ * <p>参数组合很多，一般按需用-p缩小范围，size可取10 ~ 100000000（1e8的int[]约400MB，Integer[]还要再加上装箱对象，需调大-Xmx）：
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar SortBenchmark -p algorithm=TUNED_MERGE,INTRO -p input=RANDOM,QUICKSORT_KILLER -p size=1000,1000000
+ * </pre>
+ * 算法不支持的元素类型或规模（如插入排序的大数组）在Setup中失败并跳过该组合。
+ * 每次调用先把输入复制到工作数组再排序，复制是O(N)的，计入了结果。
+ * 需要和上一次运行对比时使用{@link SortBenchmarkRunner}。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SortBenchmark {
+
+    @Param
+    private SortAlgorithm algorithm;
+
+    @Param
+    private SortInput input;
+
+    @Param({"10", "1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"int", "Integer"})
+    private String elementType;
+
+    private int[] source;
+    private Integer[] boxedSource;
+    private int[] ints;
+    private Integer[] boxed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (!algorithm.supportsSize(size)) {
+            throw new IllegalStateException(algorithm + " skipped, size too large: " + size);
+        }
+        source = input.generate(size);
+        if ("int".equals(elementType)) {
+            if (!algorithm.supportsPrimitive()) {
+                throw new IllegalStateException(algorithm + " skipped, int[] not supported");
+            }
+            ints = new int[size];
+        } else {
+            if (!algorithm.supportsObject()) {
+                throw new IllegalStateException(algorithm + " skipped, object arrays not supported");
+            }
+            boxedSource = Arrays.stream(source).boxed().toArray(Integer[]::new);
+            boxed = new Integer[size];
+        }
+    }
+
+    @Benchmark
+    public Object sort() {
+        if (ints != null) {
+            System.arraycopy(source, 0, ints, 0, size);
+            algorithm.sort(ints);
+            return ints;
+        }
+        System.arraycopy(boxedSource, 0, boxed, 0, size);
+        algorithm.sort(boxed);
+        return boxed;
+    }
+}
@@ -0,0 +1,164 @@
+package com.tea.java.algorithm;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * <p>运行{@link SortBenchmark}，结果写入sort-benchmark-时间.csv，指定了基线时逐项对比
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tea.java.algorithm.SortBenchmarkRunner [--baseline 上一次.csv] [jmh参数...]
+ * java -cp benchmarks/target/benchmarks.jar com.tea.java.algorithm.SortBenchmarkRunner --compare 基线.csv 本次.csv
+ * </pre>
+ * 对比时以参数组合（algorithm、input、size、elementType）为键，输出本次/基线的耗时比；
+ * 慢了{@link #REGRESSION_RATIO}以上且两次的误差范围不重叠时标记为REGRESSION，快了同样幅度标记为IMPROVEMENT。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SortBenchmarkRunner {
+
+    static final double REGRESSION_RATIO = 1.05;
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        if (args.length == 3 && "--compare".equals(args[0])) {
+            compare(Paths.get(args[1]), Paths.get(args[2]));
+            return;
+        }
+        Path baseline = null;
+        String[] jmhArgs = args;
+        if (args.length >= 2 && "--baseline".equals(args[0])) {
+            baseline = Paths.get(args[1]);
+            jmhArgs = new String[args.length - 2];
+            System.arraycopy(args, 2, jmhArgs, 0, jmhArgs.length);
+        }
+        CommandLineOptions cmdOptions = new CommandLineOptions(jmhArgs);
+
+        Path result = Paths.get("sort-benchmark-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".csv");
+        Options options = new OptionsBuilder()
+            .parent(cmdOptions)
+            .include("^" + Pattern.quote(SortBenchmark.class.getName()) + "\\.")
+            .resultFormat(ResultFormatType.CSV)
+            .result(result.toString())
+            .build();
+        new Runner(options).run();
+        if (baseline != null) {
+            compare(baseline, result);
+        }
+    }
+
+    static void compare(Path baseline, Path current) throws IOException {
+        Map<String, double[]> before = read(baseline);
+        Map<String, double[]> after = read(current);
+        System.out.printf("%-70s %14s %14s %8s%n", "benchmark", "baseline", "current", "ratio");
+        for (Map.Entry<String, double[]> entry : after.entrySet()) {
+            double[] b = before.get(entry.getKey());
+            double[] a = entry.getValue();
+            if (b == null) {
+                System.out.printf("%-70s %14s %14.3f %8s%n", entry.getKey(), "-", a[0], "NEW");
+                continue;
+            }
+            double ratio = a[0] / b[0];
+            System.out.printf("%-70s %14.3f %14.3f %8.3f %s%n", entry.getKey(), b[0], a[0], ratio, verdict(b, a));
+        }
+    }
+
+    /**
+     * @param baseline 基线的[score, error]
+     * @param current  本次的[score, error]
+     */
+    static String verdict(double[] baseline, double[] current) {
+        double ratio = current[0] / baseline[0];
+        // 误差为NaN（只有一个样本）时视为0
+        double margin = (Double.isNaN(baseline[1]) ? 0 : baseline[1]) + (Double.isNaN(current[1]) ? 0 : current[1]);
+        if (ratio > REGRESSION_RATIO && current[0] - baseline[0] > margin) {
+            return "REGRESSION";
+        }
+        if (ratio < 1 / REGRESSION_RATIO && baseline[0] - current[0] > margin) {
+            return "IMPROVEMENT";
+        }
+        return "";
+    }
+
+    /**
+     * 读取JMH的csv结果，键为方法名加所有Param，值为[score, error]
+     */
+    static Map<String, double[]> read(Path csv) throws IOException {
+        List<String> lines = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        Map<String, double[]> results = new LinkedHashMap<>();
+        if (lines.isEmpty()) {
+            return results;
+        }
+        List<String> header = parseLine(lines.get(0));
+        int benchmark = header.indexOf("Benchmark");
+        int score = header.indexOf("Score");
+        int error = score + 1;
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> fields = parseLine(line);
+            StringBuilder key = new StringBuilder(fields.get(benchmark));
+            for (int i = 0; i < header.size(); i++) {
+                if (header.get(i).startsWith("Param: ") && !fields.get(i).isEmpty()) {
+                    key.append(' ').append(header.get(i).substring("Param: ".length())).append('=').append(fields.get(i));
+                }
+            }
+            results.put(key.toString(), new double[]{parseDouble(fields.get(score)), parseDouble(fields.get(error))});
+        }
+        return results;
+    }
+
+    private static double parseDouble(String s) {
+        return s.isEmpty() ? Double.NaN : Double.parseDouble(s);
+    }
+
+    /**
+     * JMH写出的csv字段不含换行，字符串用双引号括起
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (ch == '"') {
+                    quoted = false;
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,115 @@
+package com.tea.java.algorithm;
+
+import com.tea.java.algorithm.quicksort.IntroSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * <p>排序基准的输入分布
+ *
+ * <p>所有生成器使用固定的种子，同样的size每次生成完全相同的输入，不同次运行的结果可以直接对比。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public enum SortInput {
+
+    /**
+     * 均匀分布的随机数
+     */
+    RANDOM {
+        @Override
+        public int[] generate(int size) {
+            return new Random(SEED).ints(size).toArray();
+        }
+    },
+    SORTED {
+        @Override
+        public int[] generate(int size) {
+            int[] a = new int[size];
+            Arrays.setAll(a, i -> i);
+            return a;
+        }
+    },
+    REVERSED {
+        @Override
+        public int[] generate(int size) {
+            int[] a = new int[size];
+            Arrays.setAll(a, i -> size - i);
+            return a;
+        }
+    },
+    /**
+     * 约sqrt(N)段升序的run：0, 1, ... m - 1, 0, 1, ...
+     */
+    SAWTOOTH {
+        @Override
+        public int[] generate(int size) {
+            int period = Math.max(2, (int) Math.sqrt(size));
+            int[] a = new int[size];
+            Arrays.setAll(a, i -> i % period);
+            return a;
+        }
+    },
+    /**
+     * 只有16种不同的值，大量重复
+     */
+    FEW_UNIQUE {
+        @Override
+        public int[] generate(int size) {
+            return new Random(SEED).ints(size, 0, 16).toArray();
+        }
+    },
+    /**
+     * 先升后降：0, 1, ... N/2, ... 1, 0
+     */
+    ORGAN_PIPE {
+        @Override
+        public int[] generate(int size) {
+            int[] a = new int[size];
+            Arrays.setAll(a, i -> i < size / 2 ? i : size - 1 - i);
+            return a;
+        }
+    },
+    /**
+     * McIlroy的对抗输入（A Killer Adversary for Quicksort）：以{@link IntroSort}排序，比较时才决定元素的值，
+     * 每次都让候选轴尽量小，最终确定的值即为使其切分最失衡的输入。
+     * IntroSort会因此触发深度限制改用堆排序；对其它快速排序是一份“困难”但不一定最坏的输入。
+     * 生成时需要装箱N个Integer，size很大时注意-Xmx
+     */
+    QUICKSORT_KILLER {
+        @Override
+        public int[] generate(int size) {
+            int gas = size;
+            int[] values = new int[size];
+            Arrays.fill(values, gas);
+            // state[0]为已确定值的个数，state[1]为候选轴
+            int[] state = new int[2];
+            Comparator<Integer> adversary = (x, y) -> {
+                if (values[x] == gas && values[y] == gas) {
+                    if (x == state[1]) {
+                        values[x] = state[0]++;
+                    } else {
+                        values[y] = state[0]++;
+                    }
+                }
+                if (values[x] == gas) {
+                    state[1] = x;
+                } else if (values[y] == gas) {
+                    state[1] = y;
+                }
+                return Integer.compare(values[x], values[y]);
+            };
+            Integer[] indexes = new Integer[size];
+            Arrays.setAll(indexes, i -> i);
+            new IntroSort().sort(indexes, adversary);
+            return values;
+        }
+    };
+
+    private static final long SEED = 2026;
+
+    public abstract int[] generate(int size);
+}
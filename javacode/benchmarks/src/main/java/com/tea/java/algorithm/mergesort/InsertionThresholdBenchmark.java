@@ -0,0 +1,140 @@
+package com.tea.java.algorithm.mergesort;
+
+import com.tea.java.algorithm.insertionsort.BinaryInsertionSort;
+import com.tea.java.algorithm.insertionsort.InsertionSort;
+import com.tea.java.algorithm.insertionsort.SentinelInsertionSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>归并排序插入排序阈值的选取
+ *
+ * <ul>
+ *     <li>mergeSort*：以不同的insertionThreshold排序size个元素，取耗时最低的阈值</li>
+ *     <li>insertion*：直接比较几种插入排序在threshold长度小数组上的耗时（每次排序size / threshold个小数组）</li>
+ * </ul>
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar InsertionThresholdBenchmark -p threshold=8,16,24,32,48,64
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InsertionThresholdBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"2", "8", "16", "24", "32", "48", "64", "96"})
+    private int threshold;
+
+    private int[] source;
+    private Integer[] boxedSource;
+    private int[] arr;
+    private Integer[] boxed;
+    private TunedMergeSort tunedMergeSort;
+    private MergeSort1 mergeSort1;
+
+    private final SentinelInsertionSort sentinel = new SentinelInsertionSort();
+    private final BinaryInsertionSort binary = new BinaryInsertionSort();
+    private final InsertionSort insertion = new InsertionSort();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new Random(2026).ints(size).toArray();
+        boxedSource = Arrays.stream(source).boxed().toArray(Integer[]::new);
+        tunedMergeSort = new TunedMergeSort(threshold);
+        mergeSort1 = new MergeSort1(threshold);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        arr = source.clone();
+        boxed = boxedSource.clone();
+    }
+
+    @Benchmark
+    public int[] mergeSortInt() {
+        tunedMergeSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public Integer[] mergeSortComparator() {
+        tunedMergeSort.sort(boxed, Comparator.naturalOrder());
+        return boxed;
+    }
+
+    @Benchmark
+    public Integer[] mergeSort1Comparable() {
+        mergeSort1.sort(boxed);
+        return boxed;
+    }
+
+    @Benchmark
+    public int[] insertionSentinelInt() {
+        for (int lo = 0; lo < size; lo += threshold) {
+            sentinel.sort(arr, lo, Math.min(lo + threshold, size));
+        }
+        return arr;
+    }
+
+    @Benchmark
+    public int[] insertionBinaryInt() {
+        for (int lo = 0; lo < size; lo += threshold) {
+            binary.sort(arr, lo, Math.min(lo + threshold, size));
+        }
+        return arr;
+    }
+
+    @Benchmark
+    public Integer[] insertionSentinelComparable() {
+        for (int lo = 0; lo < size; lo += threshold) {
+            sentinel.sort(boxed, lo, Math.min(lo + threshold, size));
+        }
+        return boxed;
+    }
+
+    @Benchmark
+    public Integer[] insertionBinaryComparable() {
+        for (int lo = 0; lo < size; lo += threshold) {
+            binary.sort(boxed, lo, Math.min(lo + threshold, size));
+        }
+        return boxed;
+    }
+
+    /**
+     * 原来的InsertionSort没有区间版本，按块复制出来排序，复制开销对所有块大小相同
+     */
+    @Benchmark
+    public Integer[] insertionOriginalComparable() {
+        for (int lo = 0; lo < size; lo += threshold) {
+            Integer[] block = Arrays.copyOfRange(boxed, lo, Math.min(lo + threshold, size));
+            insertion.sort(block);
+            System.arraycopy(block, 0, boxed, lo, block.length);
+        }
+        return boxed;
+    }
+}
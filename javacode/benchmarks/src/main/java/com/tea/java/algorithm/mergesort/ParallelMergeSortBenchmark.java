@@ -0,0 +1,103 @@
+package com.tea.java.algorithm.mergesort;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link ParallelMergeSort}与Arrays.parallelSort对比，串行的{@link TunedMergeSort}和Arrays.sort作为基准
+ *
+ * <p>并行度通过parallelism参数指定（0表示CPU核数），看加速比：
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar ParallelMergeSortBenchmark -p parallelism=1,2,4,8
+ * </pre>
+ * 注意Arrays.parallelSort固定使用common pool，并行度由-Djava.util.concurrent.ForkJoinPool.common.parallelism控制。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelMergeSortBenchmark {
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    @Param({"0"})
+    private int parallelism;
+
+    private int[] source;
+    private int[] arr;
+    private Integer[] boxedSource;
+    private Integer[] boxed;
+    private ForkJoinPool pool;
+    private ParallelMergeSort parallelMergeSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        source = new Random(2026).ints(size).toArray();
+        boxedSource = Arrays.stream(source).boxed().toArray(Integer[]::new);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        parallelMergeSort = new ParallelMergeSort(pool, ParallelMergeSort.DEFAULT_GRANULARITY);
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        arr = source.clone();
+        boxed = boxedSource.clone();
+    }
+
+    @Benchmark
+    public int[] parallelMergeSort() {
+        parallelMergeSort.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysParallelSort() {
+        Arrays.parallelSort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] tunedMergeSort() {
+        new TunedMergeSort().sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public int[] arraysSort() {
+        Arrays.sort(arr);
+        return arr;
+    }
+
+    @Benchmark
+    public Integer[] parallelMergeSortBoxed() {
+        parallelMergeSort.sort(boxed, Integer::compare);
+        return boxed;
+    }
+
+    @Benchmark
+    public Integer[] arraysParallelSortBoxed() {
+        Arrays.parallelSort(boxed, Integer::compare);
+        return boxed;
+    }
+}
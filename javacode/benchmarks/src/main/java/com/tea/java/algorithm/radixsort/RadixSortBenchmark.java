@@ -0,0 +1,126 @@
+package com.tea.java.algorithm.radixsort;
+
+import com.tea.java.algorithm.mergesort.MergeSort1;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>{@link RadixSort}与Arrays.sort、{@link MergeSort1}对比
+ *
+ * <p>keyBits为key的有效位数：32/64为满范围的随机数，16时int和long都只需要2趟，其余趟被跳过。
+ * MergeSort1只接受Comparable[]，排序的是装箱后的Integer[]。
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar RadixSortBenchmark -p keyBits=16,32 -p parallelism=1,4
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RadixSortBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"16", "32"})
+    private int keyBits;
+
+    @Param({"0"})
+    private int parallelism;
+
+    private int[] intSource;
+    private long[] longSource;
+    private Integer[] boxedSource;
+    private int[] ints;
+    private long[] longs;
+    private Integer[] boxed;
+    private ForkJoinPool pool;
+    private RadixSort radixSort;
+    private RadixSort parallelRadixSort;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(2026);
+        intSource = keyBits >= 32 ? random.ints(size).toArray() : random.ints(size, 0, 1 << keyBits).toArray();
+        longSource = keyBits >= 64 ? random.longs(size).toArray() : random.longs(size, 0, 1L << keyBits).toArray();
+        boxedSource = Arrays.stream(intSource).boxed().toArray(Integer[]::new);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        radixSort = new RadixSort();
+        parallelRadixSort = new RadixSort(pool);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        ints = intSource.clone();
+        longs = longSource.clone();
+        boxed = boxedSource.clone();
+    }
+
+    @Benchmark
+    public int[] radixSortInt() {
+        radixSort.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] parallelRadixSortInt() {
+        parallelRadixSort.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public int[] arraysSortInt() {
+        Arrays.sort(ints);
+        return ints;
+    }
+
+    @Benchmark
+    public long[] radixSortLong() {
+        radixSort.sort(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] parallelRadixSortLong() {
+        parallelRadixSort.sort(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] arraysSortLong() {
+        Arrays.sort(longs);
+        return longs;
+    }
+
+    @Benchmark
+    public Integer[] mergeSort1() {
+        new MergeSort1().sort(boxed);
+        return boxed;
+    }
+}
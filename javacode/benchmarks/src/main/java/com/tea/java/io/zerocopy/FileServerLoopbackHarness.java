@@ -0,0 +1,103 @@
+package com.tea.java.io.zerocopy;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>回环地址上对比{@link ZeroCopyFileServer}的几种发送方式：transferTo（sendfile）与HEAP、DIRECT拷贝
+ *
+ * <p>每种方式启动一个服务端，clients个客户端各自请求整个文件rounds次（先预热一轮），输出吞吐量和
+ * 服务端事件循环线程每传输1GB消耗的CPU时间。客户端读到直接内存后丢弃，两种方式的客户端开销相同。
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.tea.java.io.zerocopy.FileServerLoopbackHarness [fileSizeMB] [rounds] [clients]
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class FileServerLoopbackHarness {
+
+    public static void main(String[] args) throws Exception {
+        int fileSizeMb = args.length > 0 ? Integer.parseInt(args[0]) : 256;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+
+        Path root = Files.createTempDirectory("file-server-bench");
+        Path blob = root.resolve("blob");
+        long size = writeRandomFile(blob, (long) fileSizeMb << 20);
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            System.out.printf("file=%dMB rounds=%d clients=%d%n", fileSizeMb, rounds, clients);
+            System.out.printf("%-12s %12s %18s%n", "strategy", "MB/s", "server CPU ms/GB");
+            for (FileTransfer.Strategy strategy : new FileTransfer.Strategy[]{
+                FileTransfer.Strategy.TRANSFER_TO, FileTransfer.Strategy.DIRECT, FileTransfer.Strategy.HEAP}) {
+                try (ZeroCopyFileServer server = new ZeroCopyFileServer(root,
+                    new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), strategy, FileTransfer.DEFAULT_BUFFER_SIZE).start()) {
+                    InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), server.port());
+                    run(executor, address, clients, 1, size);
+
+                    long cpuBefore = server.eventLoopCpuNanos();
+                    long bytesBefore = server.bytesSent();
+                    long start = System.nanoTime();
+                    run(executor, address, clients, rounds, size);
+                    long elapsed = System.nanoTime() - start;
+                    long bytes = server.bytesSent() - bytesBefore;
+                    long cpu = server.eventLoopCpuNanos() - cpuBefore;
+
+                    System.out.printf("%-12s %12.1f %18.1f%n", strategy,
+                        bytes / 1048576.0 / (elapsed / 1e9), cpu / 1e6 / (bytes / 1073741824.0));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+            Files.deleteIfExists(blob);
+            Files.deleteIfExists(root);
+        }
+    }
+
+    private static void run(ExecutorService executor, InetSocketAddress address, int clients, int rounds, long size)
+        throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            futures.add(executor.submit(() -> {
+                try (FileRangeClient client = new FileRangeClient(address, 256 * 1024)) {
+                    for (int r = 0; r < rounds; r++) {
+                        client.fetch("blob", 0, size, null);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static long writeRandomFile(Path path, long size) throws IOException {
+        Random random = new Random(2026);
+        byte[] chunk = new byte[1 << 20];
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            for (long written = 0; written < size; written += chunk.length) {
+                random.nextBytes(chunk);
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, (int) Math.min(chunk.length, size - written));
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        }
+        return size;
+    }
+}
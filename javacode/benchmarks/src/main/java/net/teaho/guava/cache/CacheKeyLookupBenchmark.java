@@ -0,0 +1,112 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>CacheKey命中路径的分配对比
+ *
+ * <ul>
+ *     <li>legacyKey：原来的写法，每次new key、Objects.hash</li>
+ *     <li>newKey：new CacheKey，hash缓存在key里</li>
+ *     <li>probeKey：{@link CacheKeyProbe}复用线程内的探测key</li>
+ * </ul>
+ *
+ * <p>三者使用同一组预先生成的key字符串，差别只在key的hash计算和分配上。
+ *
+ * <p>看分配率需要带上gc profiler：
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar CacheKeyLookupBenchmark -prof gc
+ * </pre>
+ * 对比gc.alloc.rate.norm（每次调用分配的字节数）。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheKeyLookupBenchmark {
+
+    private static final int SIZE = 10_000;
+    private static final int MASK = 8191;
+
+    private final CacheValue<InMemoryItem> value = new CacheValue<>(new InMemoryItem("id", null), 1L);
+    private Cache<CacheKey, CacheValue<InMemoryItem>> cache;
+    private Cache<LegacyCacheKey, CacheValue<InMemoryItem>> legacyCache;
+    private String[] keys;
+
+    /**
+     * 改造前的CacheKey，hashCode每次调用Objects.hash
+     */
+    static final class LegacyCacheKey {
+        private final String key;
+        private final String field;
+
+        LegacyCacheKey(String key, String field) {
+            this.key = key;
+            this.field = field;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(key, field);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            LegacyCacheKey that = (LegacyCacheKey) o;
+            return Objects.equals(key, that.key) && Objects.equals(field, that.field);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    @Setup
+    public void setup() {
+        cache = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+        legacyCache = CacheBuilder.newBuilder().maximumSize(SIZE).build();
+        keys = new String[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            keys[i] = "" + i;
+            cache.put(new CacheKey(keys[i], "hashStr"), value);
+            legacyCache.put(new LegacyCacheKey(keys[i], "hashStr"), value);
+        }
+    }
+
+    @Benchmark
+    public CacheValue<InMemoryItem> legacyKey(Cursor cursor) {
+        return legacyCache.getIfPresent(new LegacyCacheKey(keys[cursor.next++ & MASK], "hashStr"));
+    }
+
+    @Benchmark
+    public CacheValue<InMemoryItem> newKey(Cursor cursor) {
+        return cache.getIfPresent(new CacheKey(keys[cursor.next++ & MASK], "hashStr"));
+    }
+
+    @Benchmark
+    public CacheValue<InMemoryItem> probeKey(Cursor cursor) {
+        return CacheKeyProbe.getIfPresent(cache, keys[cursor.next++ & MASK], "hashStr");
+    }
+}
@@ -0,0 +1,92 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * <p>命中率对比：把LocalCacheTest中的访问模式（以及Zipfian、Zipfian混入扫描）
+ * 分别回放到Guava LRU和{@link TinyLfuCache}上，输出每种组合的命中率
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.teaho.guava.cache.HitRateHarness [seed]
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class HitRateHarness {
+
+    private static final int CAPACITY = 10000;
+
+    interface Workload {
+        void replay(Cache<CacheKey, CacheValue<InMemoryItem>> cache, Random random) throws ExecutionException;
+    }
+
+    public static void main(String[] args) throws ExecutionException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 42L;
+
+        Map<String, Supplier<Cache<CacheKey, CacheValue<InMemoryItem>>>> policies = new LinkedHashMap<>();
+        policies.put("lru(concurrencyLevel=1)", () -> CacheBuilder.newBuilder()
+            .maximumSize(CAPACITY).concurrencyLevel(1).recordStats().build());
+        policies.put("lru(concurrencyLevel=100)", () -> CacheBuilder.newBuilder()
+            .maximumSize(CAPACITY).concurrencyLevel(100).recordStats().build());
+        policies.put("tinyLfu", () -> new TinyLfuCache<>(CAPACITY));
+
+        Map<String, Workload> workloads = new LinkedHashMap<>();
+        // testCacheLoad：0 ~ 50000随机取50000次
+        workloads.put("testCacheLoad", (cache, random) -> {
+            for (int i = 0; i < 50000; i++) {
+                get(cache, random.nextInt(50000));
+            }
+        });
+        // testCacheAll：先顺序写入0 ~ 200000，再在0 ~ 300000上均匀随机访问
+        workloads.put("testCacheAll", (cache, random) -> {
+            for (int i = 0; i < 200000; i++) {
+                get(cache, i);
+            }
+            for (int i = 0; i < 500000; i++) {
+                get(cache, random.nextInt(300000));
+            }
+        });
+        workloads.put("zipfian", (cache, random) -> {
+            ZipfianGenerator zipfian = new ZipfianGenerator(300000);
+            for (int i = 0; i < 500000; i++) {
+                get(cache, (int) zipfian.next(random.nextDouble()));
+            }
+        });
+        // 每访问10万次Zipfian热点，穿插一次5万个只访问一次的key
+        workloads.put("zipfian+scan", (cache, random) -> {
+            ZipfianGenerator zipfian = new ZipfianGenerator(300000);
+            int scanKey = 300000;
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 100000; i++) {
+                    get(cache, (int) zipfian.next(random.nextDouble()));
+                }
+                for (int i = 0; i < 50000; i++) {
+                    get(cache, scanKey++);
+                }
+            }
+        });
+
+        System.out.printf("%-16s %-28s %10s%n", "workload", "policy", "hitRate");
+        for (Map.Entry<String, Workload> workload : workloads.entrySet()) {
+            for (Map.Entry<String, Supplier<Cache<CacheKey, CacheValue<InMemoryItem>>>> policy : policies.entrySet()) {
+                Cache<CacheKey, CacheValue<InMemoryItem>> cache = policy.getValue().get();
+                workload.getValue().replay(cache, new Random(seed));
+                System.out.printf("%-16s %-28s %9.2f%%%n", workload.getKey(), policy.getKey(),
+                    cache.stats().hitRate() * 100);
+            }
+        }
+    }
+
+    private static void get(Cache<CacheKey, CacheValue<InMemoryItem>> cache, int id) throws ExecutionException {
+        cache.get(new CacheKey("" + id, "hashStr"),
+            () -> new CacheValue<>(new InMemoryItem("" + id, null), 1L));
+    }
+}
@@ -0,0 +1,141 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>LocalCacheTest中各种CacheBuilder配置的基准测试
+ *
+ * <ul>
+ *     <li>variant：plain / weakKeys / softValues / weakKeys + softValues</li>
+ *     <li>concurrencyLevel：4 / 16 / 100</li>
+ *     <li>distribution：uniform / zipfian，key空间与testCacheAll相同（30万key，容量1万）</li>
+ *     <li>get与getAll（每次{@value #BATCH_SIZE}个key）</li>
+ * </ul>
+ * 同时输出吞吐、平均耗时与SampleTime的分位数（p50/p90/p99/p99.9...）。
+ * key对象预先创建好并复用，否则weakKeys按引用比较永远不会命中。
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar LocalCacheBenchmark -t 8 -p variant=plain
+ * </pre>
+ * 1到N个线程逐个跑见{@link LocalCacheBenchmarkRunner}。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocalCacheBenchmark {
+
+    static final int CACHE_MAXIMUM_SIZE = 10_000;
+    static final int KEY_SPACE = 30 * 10000;
+    static final int BATCH_SIZE = 8;
+
+    @Param({"plain", "weakKeys", "softValues", "weakKeysSoftValues"})
+    public String variant;
+
+    @Param({"4", "16", "100"})
+    public int concurrencyLevel;
+
+    @Param({"uniform", "zipfian"})
+    public String distribution;
+
+    LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache;
+    CacheKey[] keys;
+    ZipfianGenerator zipfian;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        CacheBuilder<Object, Object> builder = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_MAXIMUM_SIZE)
+            .initialCapacity(1_000)
+            .concurrencyLevel(concurrencyLevel)
+            .expireAfterWrite(30 * 60, TimeUnit.SECONDS);
+        switch (variant) {
+            case "plain":
+                break;
+            case "weakKeys":
+                builder.weakKeys();
+                break;
+            case "softValues":
+                builder.softValues();
+                break;
+            case "weakKeysSoftValues":
+                builder.weakKeys().softValues();
+                break;
+            default:
+                throw new IllegalArgumentException("unknown variant: " + variant);
+        }
+        cache = builder.build(new CacheLoader<CacheKey, CacheValue<InMemoryItem>>() {
+            @Override
+            public CacheValue<InMemoryItem> load(CacheKey key) {
+                return new CacheValue<>(new InMemoryItem(key.getKey(), null), 1L);
+            }
+        });
+
+        keys = new CacheKey[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = new CacheKey("" + i, "hashStr");
+        }
+        zipfian = "zipfian".equals(distribution) ? new ZipfianGenerator(KEY_SPACE) : null;
+        // 预热到满容量
+        for (int i = 0; i < CACHE_MAXIMUM_SIZE; i++) {
+            cache.getUnchecked(keys[i]);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class KeySource {
+        private final SplittableRandom random = new SplittableRandom();
+        private final CacheKey[] batch = new CacheKey[BATCH_SIZE];
+        private final List<CacheKey> batchList = Arrays.asList(batch);
+
+        CacheKey next(LocalCacheBenchmark state) {
+            int index = state.zipfian == null
+                ? random.nextInt(KEY_SPACE)
+                : (int) state.zipfian.next(random.nextDouble());
+            return state.keys[index];
+        }
+
+        List<CacheKey> nextBatch(LocalCacheBenchmark state) {
+            for (int i = 0; i < BATCH_SIZE; i++) {
+                batch[i] = next(state);
+            }
+            return batchList;
+        }
+    }
+
+    @Benchmark
+    public CacheValue<InMemoryItem> get(KeySource source) throws ExecutionException {
+        return cache.get(source.next(this));
+    }
+
+    @Benchmark
+    public Map<CacheKey, CacheValue<InMemoryItem>> getAll(KeySource source) throws ExecutionException {
+        return cache.getAll(source.nextBatch(this));
+    }
+}
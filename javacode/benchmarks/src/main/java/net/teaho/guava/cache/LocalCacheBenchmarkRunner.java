@@ -0,0 +1,48 @@
+package net.teaho.guava.cache;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>以1, 2, 4 ... N个线程依次运行{@link LocalCacheBenchmark}，每个线程数的结果写入一个json文件，便于跨次对比
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar net.teaho.guava.cache.LocalCacheBenchmarkRunner [N] [jmh参数...]
+ * </pre>
+ * N默认为CPU核数，其余参数按JMH命令行解析，比如 -p concurrencyLevel=16。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class LocalCacheBenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        String[] jmhArgs = args;
+        if (args.length > 0 && args[0].matches("\\d+")) {
+            maxThreads = Integer.parseInt(args[0]);
+            jmhArgs = new String[args.length - 1];
+            System.arraycopy(args, 1, jmhArgs, 0, jmhArgs.length);
+        }
+        CommandLineOptions cmdOptions = new CommandLineOptions(jmhArgs);
+
+        for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+            Options options = new OptionsBuilder()
+                .parent(cmdOptions)
+                .include(LocalCacheBenchmark.class.getSimpleName())
+                .threads(threads)
+                .resultFormat(ResultFormatType.JSON)
+                .result("local-cache-t" + threads + ".json")
+                .build();
+            new Runner(options).run();
+            if (threads == maxThreads) {
+                break;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package net.teaho.guava.cache;
+
+/**
+ * <p>Zipf分布的整数生成器，返回[0, items)，0最热
+ *
+ * <p>算法来自YCSB（Gray et al. "Quickly Generating Billion-Record Synthetic Databases"），
+ * 构造时O(items)计算zeta，之后每次生成O(1)。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public final class ZipfianGenerator {
+
+    public static final double DEFAULT_THETA = 0.99;
+
+    private final long items;
+    private final double theta;
+    private final double zetan;
+    private final double alpha;
+    private final double eta;
+
+    public ZipfianGenerator(long items) {
+        this(items, DEFAULT_THETA);
+    }
+
+    public ZipfianGenerator(long items, double theta) {
+        if (items < 2) {
+            throw new IllegalArgumentException("items must be at least 2: " + items);
+        }
+        this.items = items;
+        this.theta = theta;
+        this.zetan = zeta(items, theta);
+        this.alpha = 1.0 / (1.0 - theta);
+        this.eta = (1 - Math.pow(2.0 / items, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+    }
+
+    /**
+     * @param u [0, 1)上均匀分布的随机数
+     */
+    public long next(double u) {
+        double uz = u * zetan;
+        if (uz < 1.0) {
+            return 0;
+        }
+        if (uz < 1.0 + Math.pow(0.5, theta)) {
+            return 1;
+        }
+        long value = (long) (items * Math.pow(eta * u - eta + 1, alpha));
+        return Math.min(value, items - 1);
+    }
+
+    private static double zeta(long n, double theta) {
+        double sum = 0;
+        for (long i = 1; i <= n; i++) {
+            sum += 1 / Math.pow(i, theta);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,122 @@
+package com.tea.java.algorithm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * <p>所有排序在所有输入分布、随机规模下与Arrays.sort的结果一致，声明稳定的排序保持相等元素的原有顺序
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SortAlgorithmTest {
+
+    private static final int[] SIZES = {0, 1, 2, 3, 10, 31, 32, 47, 48, 64, 65, 1000, 20_000};
+
+    private static final int RANDOM_TRIALS = 30;
+
+    @Test
+    public void testInputs() {
+        for (SortInput input : SortInput.values()) {
+            for (int size : SIZES) {
+                int[] a = input.generate(size);
+                Assert.assertEquals(size, a.length);
+                // 固定种子，每次生成的输入相同
+                Assert.assertArrayEquals(input.name(), a, input.generate(size));
+            }
+        }
+        int[] killer = SortInput.QUICKSORT_KILLER.generate(1000);
+        int[] sorted = killer.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(0, sorted[0]);
+    }
+
+    @Test
+    public void testSortMatchesArraysSort() {
+        for (SortAlgorithm algorithm : SortAlgorithm.values()) {
+            for (SortInput input : SortInput.values()) {
+                for (int size : SIZES) {
+                    if (algorithm.supportsSize(size)) {
+                        check(algorithm, input.generate(size), algorithm + " " + input + " " + size);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortRandomized() {
+        Random random = new Random(System.nanoTime());
+        for (int trial = 0; trial < RANDOM_TRIALS; trial++) {
+            int size = random.nextInt(5000);
+            int bound = 1 + random.nextInt(trial % 2 == 0 ? 10 : Integer.MAX_VALUE);
+            int[] a = random.ints(size, -bound / 2, bound - bound / 2).toArray();
+            for (SortAlgorithm algorithm : SortAlgorithm.values()) {
+                check(algorithm, a, algorithm + " size=" + size + " bound=" + bound);
+            }
+        }
+    }
+
+    @Test
+    public void testStability() {
+        Random random = new Random(System.nanoTime());
+        for (SortAlgorithm algorithm : SortAlgorithm.values()) {
+            if (!algorithm.isStable() || !algorithm.supportsObject()) {
+                continue;
+            }
+            for (int size : new int[]{10, 100, 5000, 50_000}) {
+                if (!algorithm.supportsSize(size)) {
+                    continue;
+                }
+                Record[] records = new Record[size];
+                int keys = 1 + random.nextInt(50);
+                for (int i = 0; i < size; i++) {
+                    records[i] = new Record(random.nextInt(keys), i);
+                }
+                algorithm.sort(records);
+                for (int i = 1; i < size; i++) {
+                    Record prev = records[i - 1];
+                    Record cur = records[i];
+                    Assert.assertTrue(algorithm + " " + size, prev.key < cur.key || prev.key == cur.key && prev.index < cur.index);
+                }
+            }
+        }
+    }
+
+    private static void check(SortAlgorithm algorithm, int[] source, String message) {
+        int[] target = source.clone();
+        Arrays.sort(target);
+        if (algorithm.supportsPrimitive()) {
+            int[] a = source.clone();
+            algorithm.sort(a);
+            Assert.assertArrayEquals(message, target, a);
+        }
+        if (algorithm.supportsObject()) {
+            Integer[] boxed = Arrays.stream(source).boxed().toArray(Integer[]::new);
+            algorithm.sort(boxed);
+            Assert.assertArrayEquals(message, Arrays.stream(target).boxed().toArray(), boxed);
+        }
+    }
+
+    /**
+     * 只按key比较，index记录原来的位置
+     */
+    private static final class Record implements Comparable<Record> {
+
+        private final int key;
+        private final int index;
+
+        Record(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Record o) {
+            return Integer.compare(key, o.key);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tea.java.algorithm;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SortBenchmarkRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testRead() throws IOException {
+        Path csv = folder.newFile("result.csv").toPath();
+        Files.write(csv, Arrays.asList(
+            "\"Benchmark\",\"Mode\",\"Threads\",\"Samples\",\"Score\",\"Score Error (99.9%)\",\"Unit\",\"Param: algorithm\",\"Param: keyBits\",\"Param: size\"",
+            "\"com.tea.java.algorithm.SortBenchmark.sort\",\"avgt\",1,5,19.342508,0.5,\"us/op\",INTRO,,1000",
+            "\"com.tea.java.algorithm.SortBenchmark.sort\",\"avgt\",1,1,39.0,NaN,\"us/op\",RADIX,,1000"
+        ), StandardCharsets.UTF_8);
+
+        Map<String, double[]> results = SortBenchmarkRunner.read(csv);
+        Assert.assertEquals(2, results.size());
+        double[] intro = results.get("com.tea.java.algorithm.SortBenchmark.sort algorithm=INTRO size=1000");
+        Assert.assertEquals(19.342508, intro[0], 1e-9);
+        Assert.assertEquals(0.5, intro[1], 1e-9);
+        Assert.assertTrue(Double.isNaN(results.get("com.tea.java.algorithm.SortBenchmark.sort algorithm=RADIX size=1000")[1]));
+    }
+
+    @Test
+    public void testVerdict() {
+        Assert.assertEquals("REGRESSION", SortBenchmarkRunner.verdict(new double[]{100, 1}, new double[]{120, 1}));
+        Assert.assertEquals("IMPROVEMENT", SortBenchmarkRunner.verdict(new double[]{100, 1}, new double[]{80, Double.NaN}));
+        // 误差范围重叠，不算回归
+        Assert.assertEquals("", SortBenchmarkRunner.verdict(new double[]{100, 15}, new double[]{120, 10}));
+        Assert.assertEquals("", SortBenchmarkRunner.verdict(new double[]{100, 0}, new double[]{103, 0}));
+    }
+
+    @Test
+    public void testParseLine() {
+        Assert.assertEquals(Arrays.asList("a", "b,c", "", "d\"e"), SortBenchmarkRunner.parseLine("\"a\",\"b,c\",,\"d\"\"e\""));
+    }
+}
@@ -0,0 +1,284 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>合并加载的CacheLoader
+ *
+ * <p>多个调用方并发的get/getAll未命中会先进入同一个等待窗口，窗口内的key去重后攒成一批，
+ * 满足以下任一条件时提交给executor执行一次批量加载：
+ * <ul>
+ *     <li>攒够maxBatchSize个key</li>
+ *     <li>窗口从第一个key进入起已等待maxDelay</li>
+ * </ul>
+ * 所以低并发时批次小、延迟受maxDelay约束，高并发时批次自动变大，后端请求数随之减少。
+ *
+ * <p>后端没有返回或超时的key不会以空值写入缓存：load抛出异常，loadAll只返回加载成功的部分。
+ * 注意Guava的getAll在loadAll缺少key时会抛出InvalidCacheLoadException（成功部分已写入缓存），
+ * 需要部分结果的调用方可以使用{@link #getAll(LoadingCache, Iterable)}。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class BatchingCacheLoader<K, V> extends CacheLoader<K, V> {
+
+    /**
+     * 后端批量加载接口，返回的map中可以缺少部分key
+     */
+    @FunctionalInterface
+    public interface BatchLoader<K, V> {
+        Map<K, V> loadAll(List<K> keys) throws Exception;
+    }
+
+    private final BatchLoader<K, V> batchLoader;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutNanos;
+
+    private final Object lock = new Object();
+    /** 当前窗口中等待加载的key，受lock保护 */
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+    /** 当前窗口的定时flush任务，受lock保护 */
+    private ScheduledFuture<?> flushTask;
+
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong keyCount = new AtomicLong();
+
+    private BatchingCacheLoader(Builder<K, V> builder) {
+        this.batchLoader = builder.batchLoader;
+        this.executor = builder.executor;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxDelayNanos = builder.maxDelayNanos;
+        this.timeoutNanos = builder.timeoutNanos;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+            .setNameFormat("batching-cache-loader-%d")
+            .setDaemon(true)
+            .build());
+    }
+
+    public static <K, V> Builder<K, V> newBuilder(BatchLoader<K, V> batchLoader) {
+        return new Builder<>(batchLoader);
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        CompletableFuture<V> future = enqueue(key);
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, enqueue(key));
+        }
+
+        long deadline = System.nanoTime() + timeoutNanos;
+        Map<K, V> result = new HashMap<>(futures.size() * 2);
+        for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+            long remaining = deadline - System.nanoTime();
+            try {
+                V value = remaining > 0
+                    ? entry.getValue().get(remaining, TimeUnit.NANOSECONDS)
+                    : entry.getValue().getNow(null);
+                if (value != null) {
+                    result.put(entry.getKey(), value);
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                // 部分失败，只返回成功的key
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 批量获取，返回能加载到的部分结果，不会因为个别key加载失败而丢掉整批结果
+     */
+    public static <K, V> Map<K, V> getAll(LoadingCache<K, V> cache, Iterable<? extends K> keys) throws ExecutionException {
+        try {
+            return cache.getAll(keys);
+        } catch (CacheLoader.InvalidCacheLoadException | UncheckedExecutionException e) {
+            return cache.getAllPresent(keys);
+        }
+    }
+
+    /**
+     * 已提交的批次数
+     */
+    public long batchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * 已提交的key数（窗口内去重后）
+     */
+    public long keyCount() {
+        return keyCount.get();
+    }
+
+    /**
+     * 立即提交当前窗口
+     */
+    public void flush() {
+        Map<K, CompletableFuture<V>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        dispatch(batch);
+    }
+
+    /**
+     * 关闭内部的定时线程，executor由调用方自行管理
+     */
+    public void shutdown() {
+        flush();
+        scheduler.shutdown();
+    }
+
+    private CompletableFuture<V> enqueue(K key) {
+        Map<K, CompletableFuture<V>> batch = null;
+        CompletableFuture<V> future;
+        synchronized (lock) {
+            future = pending.get(key);
+            if (future == null) {
+                future = new CompletableFuture<>();
+                pending.put(key, future);
+            }
+            if (pending.size() >= maxBatchSize) {
+                batch = takePending();
+            } else if (flushTask == null) {
+                flushTask = scheduler.schedule(this::flush, maxDelayNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        dispatch(batch);
+        return future;
+    }
+
+    private Map<K, CompletableFuture<V>> takePending() {
+        if (flushTask != null) {
+            flushTask.cancel(false);
+            flushTask = null;
+        }
+        if (pending.isEmpty()) {
+            return null;
+        }
+        Map<K, CompletableFuture<V>> batch = pending;
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void dispatch(Map<K, CompletableFuture<V>> batch) {
+        if (batch == null) {
+            return;
+        }
+        batchCount.incrementAndGet();
+        keyCount.addAndGet(batch.size());
+        try {
+            executor.execute(() -> loadBatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        }
+    }
+
+    private void loadBatch(Map<K, CompletableFuture<V>> batch) {
+        Map<K, V> loaded;
+        try {
+            loaded = batchLoader.loadAll(new ArrayList<>(batch.keySet()));
+        } catch (Throwable t) {
+            batch.values().forEach(future -> future.completeExceptionally(t));
+            return;
+        }
+        for (Map.Entry<K, CompletableFuture<V>> entry : batch.entrySet()) {
+            V value = loaded == null ? null : loaded.get(entry.getKey());
+            if (value != null) {
+                entry.getValue().complete(value);
+            } else {
+                entry.getValue().completeExceptionally(
+                    new CacheLoader.InvalidCacheLoadException("batch loader returned no value for " + entry.getKey()));
+            }
+        }
+    }
+
+    public static class Builder<K, V> {
+        private final BatchLoader<K, V> batchLoader;
+        private Executor executor = Runnable::run;
+        private int maxBatchSize = 256;
+        private long maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(2);
+        private long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+        private Builder(BatchLoader<K, V> batchLoader) {
+            if (batchLoader == null) {
+                throw new NullPointerException("batchLoader");
+            }
+            this.batchLoader = batchLoader;
+        }
+
+        /**
+         * 执行批量加载的线程池，默认在触发flush的线程上执行
+         */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        public Builder<K, V> maxBatchSize(int maxBatchSize) {
+            if (maxBatchSize <= 0) {
+                throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+            }
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder<K, V> maxDelay(long duration, TimeUnit unit) {
+            if (duration < 0) {
+                throw new IllegalArgumentException("maxDelay must not be negative: " + duration);
+            }
+            this.maxDelayNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * 单次load/loadAll等待结果的最长时间
+         */
+        public Builder<K, V> timeout(long duration, TimeUnit unit) {
+            if (duration <= 0) {
+                throw new IllegalArgumentException("timeout must be positive: " + duration);
+            }
+            this.timeoutNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        public BatchingCacheLoader<K, V> build() {
+            return new BatchingCacheLoader<>(this);
+        }
+    }
+}
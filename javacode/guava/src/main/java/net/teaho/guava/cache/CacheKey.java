@@ -1,6 +1,6 @@
 package net.teaho.guava.cache;
 
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
@@ -8,15 +8,37 @@ import java.util.Objects;
 
 @Getter
 @NoArgsConstructor
-@AllArgsConstructor
 public class CacheKey {
     private String key;
     private String field;
+    /** hashCode的缓存，0表示还未计算，与String#hashCode的做法相同 */
+    @Getter(AccessLevel.NONE)
+    private transient int hash;
 
+    public CacheKey(String key, String field) {
+        this.key = key;
+        this.field = field;
+    }
+
+    /**
+     * 仅供{@link CacheKeyProbe}复用探测key，放进缓存的key不能再调用
+     */
+    CacheKey reset(String key, String field) {
+        this.key = key;
+        this.field = field;
+        this.hash = 0;
+        return this;
+    }
 
     @Override
     public int hashCode() {
-        return Objects.hash(key, field);
+        int h = hash;
+        if (h == 0) {
+            // 与Objects.hash(key, field)结果相同，但不创建varargs数组
+            h = 31 * (31 + Objects.hashCode(key)) + Objects.hashCode(field);
+            hash = h;
+        }
+        return h;
     }
 
     @Override
@@ -26,4 +48,4 @@ public class CacheKey {
         CacheKey that = (CacheKey)o;
         return Objects.equals(key, that.key) && Objects.equals(field, that.field);
     }
-}
\ No newline at end of file
+}
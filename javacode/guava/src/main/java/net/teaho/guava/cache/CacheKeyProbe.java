@@ -0,0 +1,61 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.LoadingCache;
+
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * <p>不分配对象的CacheKey查询
+ *
+ * <p>每个线程复用一个可变的探测CacheKey做getIfPresent，命中路径上不创建CacheKey、不算多余的hash；
+ * 只有未命中需要写入缓存时才创建真正的CacheKey。
+ *
+ * <p>注意：
+ * <ul>
+ *     <li>不能用于weakKeys()的缓存，weakKeys按引用比较key，探测key永远查不到</li>
+ *     <li>未命中时getIfPresent和get各记录一次统计</li>
+ * </ul>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public final class CacheKeyProbe {
+
+    private static final ThreadLocal<CacheKey> PROBE = ThreadLocal.withInitial(CacheKey::new);
+
+    private CacheKeyProbe() {
+    }
+
+    public static <V> V getIfPresent(Cache<CacheKey, V> cache, String key, String field) {
+        CacheKey probe = PROBE.get();
+        if (probe.getKey() != null || probe.getField() != null) {
+            // 重入（比如removalListener里又查询了缓存），不复用正在使用的探测key
+            return cache.getIfPresent(new CacheKey(key, field));
+        }
+        try {
+            return cache.getIfPresent(probe.reset(key, field));
+        } finally {
+            probe.reset(null, null);
+        }
+    }
+
+    public static <V> V get(Cache<CacheKey, V> cache, String key, String field,
+                            Function<? super CacheKey, ? extends V> loader) throws ExecutionException {
+        V value = getIfPresent(cache, key, field);
+        if (value != null) {
+            return value;
+        }
+        CacheKey cacheKey = new CacheKey(key, field);
+        return cache.get(cacheKey, () -> loader.apply(cacheKey));
+    }
+
+    public static <V> V get(LoadingCache<CacheKey, V> cache, String key, String field) throws ExecutionException {
+        V value = getIfPresent(cache, key, field);
+        if (value != null) {
+            return value;
+        }
+        return cache.get(new CacheKey(key, field));
+    }
+}
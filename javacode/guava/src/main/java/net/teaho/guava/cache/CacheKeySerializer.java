@@ -0,0 +1,49 @@
+package net.teaho.guava.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * <p>CacheKey的序列化
+ *
+ * <p>格式：key、field依次写入，每个字段为存在标记(1字节) + UTF。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class CacheKeySerializer implements Serializer<CacheKey> {
+
+    @Override
+    public byte[] serialize(CacheKey cacheKey) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            writeNullableUTF(out, cacheKey.getKey());
+            writeNullableUTF(out, cacheKey.getField());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public CacheKey deserialize(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            String key = in.readBoolean() ? in.readUTF() : null;
+            String field = in.readBoolean() ? in.readUTF() : null;
+            return new CacheKey(key, field);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeNullableUTF(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+}
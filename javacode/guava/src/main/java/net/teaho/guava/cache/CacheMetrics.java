@@ -0,0 +1,464 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.ForwardingCache;
+import com.google.common.cache.ForwardingLoadingCache;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ListenableFuture;
+import org.HdrHistogram.Recorder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * <p>缓存的延迟分布、命中率与淘汰原因统计
+ *
+ * <p>recordStats()只有累计计数，这里补充：
+ * <ul>
+ *     <li>命中、未命中、load、loadAll批次的HdrHistogram延迟分布</li>
+ *     <li>按窗口（两次snapshot之间）计算的命中率</li>
+ *     <li>按RemovalCause分类的淘汰数</li>
+ *     <li>loader超时数，loadAll缺失的key数</li>
+ * </ul>
+ * 可以通过{@link #snapshot()}/{@link #scheduleSnapshots}读取，也可以注册为JMX MBean。
+ *
+ * <p>用法：
+ * <pre>
+ * CacheMetrics metrics = new CacheMetrics("item-cache");
+ * LoadingCache&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; cache = metrics.instrument(CacheBuilder.newBuilder()
+ *     .maximumSize(10_000)
+ *     .removalListener(metrics.removalListener(notification -&gt; { }))
+ *     .build(metrics.instrument(new LoadingCacheLoader())));
+ * metrics.registerMBean();
+ * metrics.scheduleSnapshots(scheduler, 10, TimeUnit.SECONDS, snapshot -&gt; log.info("{}", snapshot));
+ * </pre>
+ * LoadingCache需要用{@link #instrument(CacheLoader)}包装过的loader构建，才能区分get(key)的命中与未命中。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class CacheMetrics implements CacheMetricsMXBean {
+
+    private final String name;
+
+    private final Recorder hitRecorder = new Recorder(3);
+    private final Recorder missRecorder = new Recorder(3);
+    private final Recorder loadRecorder = new Recorder(3);
+    private final Recorder loadAllRecorder = new Recorder(3);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder loaderTimeouts = new LongAdder();
+    private final LongAdder loadAllMissingKeys = new LongAdder();
+    private final Map<RemovalCause, LongAdder> removals = new EnumMap<>(RemovalCause.class);
+
+    /** 当前线程上被instrument过的loader加载的key数，用来判断一次读是否未命中 */
+    private final ThreadLocal<long[]> loadsOnThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final Object snapshotLock = new Object();
+    private long windowStartMillis = System.currentTimeMillis();
+    private long[] lastTotals = new long[5];
+    private Map<RemovalCause, Long> lastRemovals = new EnumMap<>(RemovalCause.class);
+    private volatile CacheMetricsSnapshot lastSnapshot;
+
+    private ObjectName objectName;
+
+    public CacheMetrics(String name) {
+        this.name = name;
+        for (RemovalCause cause : RemovalCause.values()) {
+            removals.put(cause, new LongAdder());
+        }
+    }
+
+    public <K, V> Cache<K, V> instrument(Cache<K, V> cache) {
+        return new InstrumentedCache<>(cache);
+    }
+
+    public <K, V> LoadingCache<K, V> instrument(LoadingCache<K, V> cache) {
+        return new InstrumentedLoadingCache<>(cache);
+    }
+
+    public <K, V> CacheLoader<K, V> instrument(CacheLoader<K, V> loader) {
+        return new InstrumentedLoader<>(loader);
+    }
+
+    /**
+     * 统计淘汰原因后再交给downstream
+     */
+    public <K, V> RemovalListener<K, V> removalListener(RemovalListener<K, V> downstream) {
+        return notification -> {
+            removals.get(notification.getCause()).increment();
+            if (downstream != null) {
+                downstream.onRemoval(notification);
+            }
+        };
+    }
+
+    /**
+     * 结束当前窗口并开始新窗口
+     */
+    public CacheMetricsSnapshot snapshot() {
+        synchronized (snapshotLock) {
+            long now = System.currentTimeMillis();
+            long[] totals = totals();
+            Map<RemovalCause, Long> removalTotals = removalTotals();
+            Map<RemovalCause, Long> removalDelta = new EnumMap<>(RemovalCause.class);
+            for (Map.Entry<RemovalCause, Long> entry : removalTotals.entrySet()) {
+                removalDelta.put(entry.getKey(), entry.getValue() - lastRemovals.getOrDefault(entry.getKey(), 0L));
+            }
+            CacheMetricsSnapshot snapshot = new CacheMetricsSnapshot(windowStartMillis, now,
+                totals[0] - lastTotals[0],
+                totals[1] - lastTotals[1],
+                totals[2] - lastTotals[2],
+                totals[3] - lastTotals[3],
+                totals[4] - lastTotals[4],
+                removalDelta,
+                CacheMetricsSnapshot.Latency.of(hitRecorder.getIntervalHistogram()),
+                CacheMetricsSnapshot.Latency.of(missRecorder.getIntervalHistogram()),
+                CacheMetricsSnapshot.Latency.of(loadRecorder.getIntervalHistogram()),
+                CacheMetricsSnapshot.Latency.of(loadAllRecorder.getIntervalHistogram()));
+            windowStartMillis = now;
+            lastTotals = totals;
+            lastRemovals = removalTotals;
+            lastSnapshot = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * 定期生成窗口快照
+     */
+    public ScheduledFuture<?> scheduleSnapshots(ScheduledExecutorService scheduler, long period, TimeUnit unit,
+                                                Consumer<? super CacheMetricsSnapshot> consumer) {
+        return scheduler.scheduleAtFixedRate(() -> consumer.accept(snapshot()), period, period, unit);
+    }
+
+    /**
+     * 注册到platform MBeanServer，ObjectName为net.teaho.guava.cache:type=CacheMetrics,name=&lt;name&gt;
+     */
+    public synchronized void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("net.teaho.guava.cache:type=CacheMetrics,name=" + ObjectName.quote(name));
+            server.registerMBean(this, objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("register mbean failed: " + name, e);
+        }
+    }
+
+    public synchronized void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("unregister mbean failed: " + name, e);
+        } finally {
+            objectName = null;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    @Override
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? Double.NaN : (double) hitCount / total;
+    }
+
+    @Override
+    public long getLoadFailureCount() {
+        return loadFailures.sum();
+    }
+
+    @Override
+    public long getLoaderTimeoutCount() {
+        return loaderTimeouts.sum();
+    }
+
+    @Override
+    public long getLoadAllMissingKeyCount() {
+        return loadAllMissingKeys.sum();
+    }
+
+    @Override
+    public Map<String, Long> getRemovalCounts() {
+        Map<String, Long> map = new LinkedHashMap<>();
+        removalTotals().forEach((cause, count) -> map.put(cause.name(), count));
+        return map;
+    }
+
+    @Override
+    public double getWindowHitRatio() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? Double.NaN : snapshot.getHitRatio();
+    }
+
+    @Override
+    public double getWindowHitP50Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getHitLatency().getP50();
+    }
+
+    @Override
+    public double getWindowHitP99Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getHitLatency().getP99();
+    }
+
+    @Override
+    public double getWindowMissP50Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getMissLatency().getP50();
+    }
+
+    @Override
+    public double getWindowMissP99Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getMissLatency().getP99();
+    }
+
+    @Override
+    public double getWindowLoadP99Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getLoadLatency().getP99();
+    }
+
+    @Override
+    public double getWindowLoadAllP99Micros() {
+        CacheMetricsSnapshot snapshot = lastSnapshot;
+        return snapshot == null ? 0 : snapshot.getLoadAllLatency().getP99();
+    }
+
+    private long[] totals() {
+        return new long[]{hits.sum(), misses.sum(), loadFailures.sum(), loaderTimeouts.sum(), loadAllMissingKeys.sum()};
+    }
+
+    private Map<RemovalCause, Long> removalTotals() {
+        Map<RemovalCause, Long> map = new EnumMap<>(RemovalCause.class);
+        removals.forEach((cause, adder) -> map.put(cause, adder.sum()));
+        return ImmutableMap.copyOf(map);
+    }
+
+    private long loadsOnThread() {
+        return loadsOnThread.get()[0];
+    }
+
+    /**
+     * 记录一次读：requested个key中有loaded个由loader加载
+     */
+    private void recordRead(long startNanos, long requested, long loaded) {
+        long elapsed = System.nanoTime() - startNanos;
+        if (loaded > 0) {
+            missRecorder.recordValue(elapsed);
+        } else {
+            hitRecorder.recordValue(elapsed);
+        }
+        misses.add(loaded);
+        hits.add(Math.max(0, requested - loaded));
+    }
+
+    private void recordLoadFailure(Throwable t) {
+        loadFailures.increment();
+        for (Throwable cause = t; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TimeoutException) {
+                loaderTimeouts.increment();
+                return;
+            }
+        }
+    }
+
+    private class InstrumentedLoader<K, V> extends CacheLoader<K, V> {
+        private final CacheLoader<K, V> delegate;
+
+        InstrumentedLoader(CacheLoader<K, V> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public V load(K key) throws Exception {
+            loadsOnThread.get()[0]++;
+            long start = System.nanoTime();
+            try {
+                V value = delegate.load(key);
+                loadRecorder.recordValue(System.nanoTime() - start);
+                return value;
+            } catch (Exception | Error e) {
+                recordLoadFailure(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+            long start = System.nanoTime();
+            long requested = 0;
+            for (K ignored : keys) {
+                requested++;
+            }
+            try {
+                Map<K, V> result = delegate.loadAll(keys);
+                loadsOnThread.get()[0] += requested;
+                loadAllRecorder.recordValue(System.nanoTime() - start);
+                loadAllMissingKeys.add(Math.max(0, requested - result.size()));
+                return result;
+            } catch (UnsupportedOperationException e) {
+                // delegate没有实现loadAll，Guava会退回逐个load
+                throw e;
+            } catch (Exception | Error e) {
+                loadsOnThread.get()[0] += requested;
+                recordLoadFailure(e);
+                throw e;
+            }
+        }
+
+        @Override
+        public ListenableFuture<V> reload(K key, V oldValue) throws Exception {
+            return delegate.reload(key, oldValue);
+        }
+    }
+
+    private class InstrumentedCache<K, V> extends ForwardingCache.SimpleForwardingCache<K, V> {
+
+        InstrumentedCache(Cache<K, V> delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public V getIfPresent(Object key) {
+            long start = System.nanoTime();
+            V value = super.getIfPresent(key);
+            recordRead(start, 1, value == null ? 1 : 0);
+            return value;
+        }
+
+        @Override
+        public V get(K key, Callable<? extends V> valueLoader) throws ExecutionException {
+            long start = System.nanoTime();
+            boolean[] loaded = new boolean[1];
+            try {
+                return super.get(key, () -> {
+                    loaded[0] = true;
+                    long loadStart = System.nanoTime();
+                    try {
+                        V value = valueLoader.call();
+                        loadRecorder.recordValue(System.nanoTime() - loadStart);
+                        return value;
+                    } catch (Exception | Error e) {
+                        recordLoadFailure(e);
+                        throw e;
+                    }
+                });
+            } finally {
+                recordRead(start, 1, loaded[0] ? 1 : 0);
+            }
+        }
+
+        @Override
+        public ImmutableMap<K, V> getAllPresent(Iterable<?> keys) {
+            long start = System.nanoTime();
+            ImmutableMap<K, V> result = super.getAllPresent(keys);
+            long requested = 0;
+            for (Object ignored : keys) {
+                requested++;
+            }
+            recordRead(start, requested, requested - result.size());
+            return result;
+        }
+    }
+
+    private class InstrumentedLoadingCache<K, V> extends ForwardingLoadingCache.SimpleForwardingLoadingCache<K, V> {
+
+        private final InstrumentedCache<K, V> cache;
+
+        InstrumentedLoadingCache(LoadingCache<K, V> delegate) {
+            super(delegate);
+            this.cache = new InstrumentedCache<>(delegate);
+        }
+
+        @Override
+        public V get(K key) throws ExecutionException {
+            long start = System.nanoTime();
+            long before = loadsOnThread();
+            try {
+                return super.get(key);
+            } finally {
+                recordRead(start, 1, Math.min(1, loadsOnThread() - before));
+            }
+        }
+
+        @Override
+        public V getUnchecked(K key) {
+            long start = System.nanoTime();
+            long before = loadsOnThread();
+            try {
+                return super.getUnchecked(key);
+            } finally {
+                recordRead(start, 1, Math.min(1, loadsOnThread() - before));
+            }
+        }
+
+        @Override
+        public ImmutableMap<K, V> getAll(Iterable<? extends K> keys) throws ExecutionException {
+            long start = System.nanoTime();
+            long before = loadsOnThread();
+            long requested = 0;
+            for (K ignored : keys) {
+                requested++;
+            }
+            try {
+                return super.getAll(keys);
+            } finally {
+                recordRead(start, requested, Math.min(requested, loadsOnThread() - before));
+            }
+        }
+
+        @Override
+        public V getIfPresent(Object key) {
+            return cache.getIfPresent(key);
+        }
+
+        @Override
+        public V get(K key, Callable<? extends V> valueLoader) throws ExecutionException {
+            return cache.get(key, valueLoader);
+        }
+
+        @Override
+        public ImmutableMap<K, V> getAllPresent(Iterable<?> keys) {
+            return cache.getAllPresent(keys);
+        }
+    }
+}
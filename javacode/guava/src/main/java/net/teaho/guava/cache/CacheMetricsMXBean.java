@@ -0,0 +1,45 @@
+package net.teaho.guava.cache;
+
+import java.util.Map;
+
+/**
+ * <p>{@link CacheMetrics}的JMX接口
+ *
+ * <p>Count为启动以来的累计值；Window开头的属性来自最近一次{@link CacheMetrics#snapshot()}的窗口，
+ * 需要用{@link CacheMetrics#scheduleSnapshots}定期生成窗口。延迟单位为微秒。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public interface CacheMetricsMXBean {
+
+    String getName();
+
+    long getHitCount();
+
+    long getMissCount();
+
+    double getHitRatio();
+
+    long getLoadFailureCount();
+
+    long getLoaderTimeoutCount();
+
+    long getLoadAllMissingKeyCount();
+
+    Map<String, Long> getRemovalCounts();
+
+    double getWindowHitRatio();
+
+    double getWindowHitP50Micros();
+
+    double getWindowHitP99Micros();
+
+    double getWindowMissP50Micros();
+
+    double getWindowMissP99Micros();
+
+    double getWindowLoadP99Micros();
+
+    double getWindowLoadAllP99Micros();
+}
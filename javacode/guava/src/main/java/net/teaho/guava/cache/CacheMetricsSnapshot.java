@@ -0,0 +1,71 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.RemovalCause;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * 一个统计窗口内的缓存指标，延迟单位为微秒
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class CacheMetricsSnapshot {
+
+    private final long startTimeMillis;
+    private final long endTimeMillis;
+    private final long hitCount;
+    private final long missCount;
+    private final long loadFailureCount;
+    private final long loaderTimeoutCount;
+    private final long loadAllMissingKeyCount;
+    private final Map<RemovalCause, Long> removalCounts;
+    private final Latency hitLatency;
+    private final Latency missLatency;
+    private final Latency loadLatency;
+    private final Latency loadAllLatency;
+
+    /**
+     * 窗口内的命中率，没有请求时为NaN
+     */
+    public double getHitRatio() {
+        long total = hitCount + missCount;
+        return total == 0 ? Double.NaN : (double) hitCount / total;
+    }
+
+    /**
+     * 延迟分布摘要
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class Latency {
+        private final long count;
+        private final double mean;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double p999;
+        private final double max;
+
+        static Latency of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Latency(0, 0, 0, 0, 0, 0, 0);
+            }
+            return new Latency(histogram.getTotalCount(),
+                histogram.getMean() / 1000.0,
+                histogram.getValueAtPercentile(50) / 1000.0,
+                histogram.getValueAtPercentile(90) / 1000.0,
+                histogram.getValueAtPercentile(99) / 1000.0,
+                histogram.getValueAtPercentile(99.9) / 1000.0,
+                histogram.getMaxValue() / 1000.0);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package net.teaho.guava.cache;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>CacheValue的序列化
+ *
+ * <p>格式：ttl(8字节) + 内部value按给定的Serializer序列化后的字节。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class CacheValueSerializer<V> implements Serializer<CacheValue<V>> {
+
+    private final Serializer<V> serializer;
+
+    public CacheValueSerializer(Serializer<V> serializer) {
+        this.serializer = serializer;
+    }
+
+    @Override
+    public byte[] serialize(CacheValue<V> value) {
+        byte[] inner = serializer.serialize(value.getV());
+        return ByteBuffer.allocate(Long.BYTES + inner.length)
+            .putLong(value.getTtl())
+            .put(inner)
+            .array();
+    }
+
+    @Override
+    public CacheValue<V> deserialize(byte[] bytes) {
+        long ttl = ByteBuffer.wrap(bytes).getLong();
+        return new CacheValue<>(serializer.deserialize(Arrays.copyOfRange(bytes, Long.BYTES, bytes.length)), ttl);
+    }
+}
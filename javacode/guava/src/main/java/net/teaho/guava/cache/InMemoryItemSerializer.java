@@ -0,0 +1,98 @@
+package net.teaho.guava.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>InMemoryItem的序列化
+ *
+ * <p>格式：id(UTF) + 类型(1字节) + itemBytes。itemBytes为byte[]、String时直接写入，
+ * 其他Serializable对象使用Java序列化，不可序列化的对象抛出IllegalArgumentException。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class InMemoryItemSerializer implements Serializer<InMemoryItem> {
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_BYTES = 1;
+    private static final byte TYPE_STRING = 2;
+    private static final byte TYPE_SERIALIZABLE = 3;
+
+    @Override
+    public byte[] serialize(InMemoryItem item) {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bos)) {
+            out.writeBoolean(item.id != null);
+            if (item.id != null) {
+                out.writeUTF(item.id);
+            }
+            Object payload = item.itemBytes;
+            if (payload == null) {
+                out.writeByte(TYPE_NULL);
+            } else if (payload instanceof byte[]) {
+                byte[] bytes = (byte[]) payload;
+                out.writeByte(TYPE_BYTES);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            } else if (payload instanceof String) {
+                out.writeByte(TYPE_STRING);
+                byte[] bytes = ((String) payload).getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            } else if (payload instanceof Serializable) {
+                out.writeByte(TYPE_SERIALIZABLE);
+                out.flush();
+                try (ObjectOutputStream oos = new ObjectOutputStream(bos)) {
+                    oos.writeObject(payload);
+                }
+            } else {
+                throw new IllegalArgumentException("itemBytes is not serializable: " + payload.getClass());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public InMemoryItem deserialize(byte[] bytes) {
+        ByteArrayInputStream bis = new ByteArrayInputStream(bytes);
+        try (DataInputStream in = new DataInputStream(bis)) {
+            String id = in.readBoolean() ? in.readUTF() : null;
+            byte type = in.readByte();
+            switch (type) {
+                case TYPE_NULL:
+                    return new InMemoryItem(id, null);
+                case TYPE_BYTES: {
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    return new InMemoryItem(id, payload);
+                }
+                case TYPE_STRING: {
+                    byte[] payload = new byte[in.readInt()];
+                    in.readFully(payload);
+                    return new InMemoryItem(id, new String(payload, StandardCharsets.UTF_8));
+                }
+                case TYPE_SERIALIZABLE:
+                    try (ObjectInputStream ois = new ObjectInputStream(bis)) {
+                        return new InMemoryItem(id, ois.readObject());
+                    }
+                default:
+                    throw new IllegalArgumentException("unknown item type: " + type);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
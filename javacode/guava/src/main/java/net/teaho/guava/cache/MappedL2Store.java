@@ -0,0 +1,325 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+/**
+ * <p>基于内存映射文件的二级缓存存储
+ *
+ * <p>数据以追加方式写入目录下的segment文件（segment-00000001.l2 ...），每个segment用
+ * {@link FileChannel#map}映射为一块{@link MappedByteBuffer}，写入和读取都直接操作映射内存，不经过read/write系统调用。
+ * 堆上只保留key到(segment, offset)的索引，启动时顺序扫描所有segment重建索引，重启后数据仍然可用。
+ *
+ * <p>记录格式：keyLength(4) + valueLength(4，-1表示删除) + crc32(4) + key + value。
+ * 扫描时遇到长度为0（映射文件未写入部分）或crc不匹配（写了一半的记录）即停止该segment的扫描。
+ * 重启后总是新开一个segment写入，不在可能残缺的旧segment后面追加。
+ *
+ * <p>segment写满后滚动到新segment，超过maxSegments时整体删除最老的segment及其索引，
+ * 即二级缓存按写入顺序FIFO淘汰。同一个key的新记录覆盖旧记录，旧记录占用的空间随segment一起回收。
+ *
+ * <p>与Guava Cache配合：{@link #removalListener()}接收一级缓存因容量（SIZE）淘汰的entry，
+ * {@link TwoLevelCacheLoader}在调用实际loader前先查二级缓存。
+ * 停机前可调用{@link #putAll(Map)}把一级缓存中的entry也写入，再{@link #close()}刷盘。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class MappedL2Store<K, V> implements Closeable {
+
+    private static final String SUFFIX = ".l2";
+    private static final int HEADER_SIZE = 12;
+    private static final int TOMBSTONE = -1;
+
+    private static final class Segment {
+        final long id;
+        final File file;
+        final MappedByteBuffer buffer;
+        /** 只有写入线程在锁内修改 */
+        int writePosition;
+
+        Segment(long id, File file, MappedByteBuffer buffer, int writePosition) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+            this.writePosition = writePosition;
+        }
+    }
+
+    private static final class Location {
+        final Segment segment;
+        final int valueOffset;
+        final int valueLength;
+
+        Location(Segment segment, int valueOffset, int valueLength) {
+            this.segment = segment;
+            this.valueOffset = valueOffset;
+            this.valueLength = valueLength;
+        }
+    }
+
+    private final File directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final Serializer<K> keySerializer;
+    private final Serializer<V> valueSerializer;
+
+    private final Map<K, Location> index = new ConcurrentHashMap<>();
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private final Object writeLock = new Object();
+    private Segment active;
+    private long nextSegmentId = 1;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * @param directory       segment文件所在目录，不存在时创建
+     * @param segmentSize     单个segment文件大小（字节）
+     * @param maxSegments     保留的segment个数上限，磁盘占用约为segmentSize * maxSegments
+     * @param keySerializer   key的序列化方式，反序列化出的key需要与原key equals
+     * @param valueSerializer value的序列化方式
+     */
+    public MappedL2Store(File directory, int segmentSize, int maxSegments,
+                         Serializer<K> keySerializer, Serializer<V> valueSerializer) throws IOException {
+        if (segmentSize <= HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize too small: " + segmentSize);
+        }
+        if (maxSegments < 1) {
+            throw new IllegalArgumentException("maxSegments must be positive: " + maxSegments);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.keySerializer = keySerializer;
+        this.valueSerializer = valueSerializer;
+        recover();
+    }
+
+    public V get(K key) {
+        Location location = index.get(key);
+        if (location == null) {
+            misses.increment();
+            return null;
+        }
+        byte[] bytes = new byte[location.valueLength];
+        ByteBuffer buffer = location.segment.buffer.duplicate();
+        buffer.position(location.valueOffset);
+        buffer.get(bytes);
+        hits.increment();
+        return valueSerializer.deserialize(bytes);
+    }
+
+    public boolean contains(K key) {
+        return index.containsKey(key);
+    }
+
+    /**
+     * @return 记录大于segment时不写入，返回false
+     */
+    public boolean put(K key, V value) {
+        byte[] keyBytes = keySerializer.serialize(key);
+        byte[] valueBytes = valueSerializer.serialize(value);
+        if (HEADER_SIZE + keyBytes.length + valueBytes.length > segmentSize) {
+            return false;
+        }
+        synchronized (writeLock) {
+            int valueOffset = append(keyBytes, valueBytes, valueBytes.length);
+            index.put(key, new Location(active, valueOffset, valueBytes.length));
+        }
+        return true;
+    }
+
+    public void putAll(Map<? extends K, ? extends V> map) {
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * 写入删除标记，重启后该key不会再出现
+     */
+    public void remove(K key) {
+        if (!index.containsKey(key)) {
+            return;
+        }
+        byte[] keyBytes = keySerializer.serialize(key);
+        synchronized (writeLock) {
+            append(keyBytes, new byte[0], TOMBSTONE);
+            index.remove(key);
+        }
+    }
+
+    public long size() {
+        return index.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * 一级缓存的removalListener：SIZE淘汰的entry写入二级缓存；
+     * 显式删除、替换、过期的entry在二级缓存中的旧值已失效，一并删除
+     */
+    public RemovalListener<K, V> removalListener() {
+        return notification -> {
+            K key = notification.getKey();
+            if (key == null) {
+                return;
+            }
+            if (notification.getCause() == RemovalCause.SIZE) {
+                V value = notification.getValue();
+                if (value != null) {
+                    put(key, value);
+                }
+            } else if (notification.getCause() != RemovalCause.COLLECTED) {
+                remove(key);
+            }
+        };
+    }
+
+    /**
+     * 把映射内存中的修改刷到磁盘
+     */
+    public void force() {
+        synchronized (writeLock) {
+            if (active != null) {
+                active.buffer.force();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * @return value在segment中的偏移
+     */
+    private int append(byte[] keyBytes, byte[] valueBytes, int valueLength) {
+        int recordSize = HEADER_SIZE + keyBytes.length + valueBytes.length;
+        if (active == null || active.writePosition + recordSize > segmentSize) {
+            roll();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(keyBytes);
+        crc.update(valueBytes);
+
+        ByteBuffer buffer = active.buffer.duplicate();
+        int position = active.writePosition;
+        buffer.position(position + HEADER_SIZE);
+        buffer.put(keyBytes);
+        buffer.put(valueBytes);
+        buffer.putInt(position, keyBytes.length);
+        buffer.putInt(position + 4, valueLength);
+        buffer.putInt(position + 8, (int) crc.getValue());
+        active.writePosition = position + recordSize;
+        return position + HEADER_SIZE + keyBytes.length;
+    }
+
+    private void roll() {
+        if (active != null) {
+            active.buffer.force();
+        }
+        long id = nextSegmentId++;
+        File file = new File(directory, String.format("segment-%08d%s", id, SUFFIX));
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw");
+             FileChannel channel = raf.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            active = new Segment(id, file, buffer, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        segments.addLast(active);
+        while (segments.size() > maxSegments) {
+            dropOldest();
+        }
+    }
+
+    private void dropOldest() {
+        Segment oldest = segments.pollFirst();
+        index.values().removeIf(location -> location.segment == oldest);
+        // 映射在buffer被回收前仍然有效，正在读取的线程不受影响；删除失败时下次启动会重新加载，不影响正确性
+        oldest.file.delete();
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith("segment-") && name.endsWith(SUFFIX));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            long id = Long.parseLong(file.getName().substring("segment-".length(), file.getName().length() - SUFFIX.length()));
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+                 FileChannel channel = raf.getChannel()) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                Segment segment = new Segment(id, file, buffer, buffer.capacity());
+                segments.addLast(segment);
+                scan(segment);
+            }
+            nextSegmentId = Math.max(nextSegmentId, id + 1);
+        }
+        while (segments.size() > maxSegments) {
+            dropOldest();
+        }
+    }
+
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.limit()) {
+            int keyLength = buffer.getInt(position);
+            int valueLength = buffer.getInt(position + 4);
+            int storedCrc = buffer.getInt(position + 8);
+            int bodyLength = keyLength + Math.max(valueLength, 0);
+            if (keyLength <= 0 || valueLength < TOMBSTONE
+                || position + HEADER_SIZE + (long) bodyLength > buffer.limit()) {
+                return;
+            }
+            byte[] keyBytes = new byte[keyLength];
+            byte[] valueBytes = new byte[Math.max(valueLength, 0)];
+            buffer.position(position + HEADER_SIZE);
+            buffer.get(keyBytes);
+            buffer.get(valueBytes);
+            CRC32 crc = new CRC32();
+            crc.update(keyBytes);
+            crc.update(valueBytes);
+            if ((int) crc.getValue() != storedCrc) {
+                return;
+            }
+
+            K key = keySerializer.deserialize(keyBytes);
+            if (valueLength == TOMBSTONE) {
+                index.remove(key);
+            } else {
+                index.put(key, new Location(segment, position + HEADER_SIZE + keyLength, valueLength));
+            }
+            position += HEADER_SIZE + bodyLength;
+        }
+    }
+}
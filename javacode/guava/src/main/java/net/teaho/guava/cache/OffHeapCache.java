@@ -0,0 +1,193 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>value存放在堆外的缓存
+ *
+ * <p>value序列化后写入{@link SlabAllocator}管理的direct ByteBuffer，Guava Cache里只保存{@link OffHeapHandle}。
+ * 底层Cache使用maximumWeight + 按chunk字节数计算的Weigher做内存上限淘汰，淘汰/替换/删除时chunk归还分配器。
+ * 堆上只剩key和几十字节的句柄，大value不再参与GC，也不需要softValues。
+ *
+ * <p>注意：
+ * <ul>
+ *     <li>每次命中都会反序列化出新的value对象</li>
+ *     <li>{@link #get(Object, Callable)}未命中时直接在调用线程上执行loader，不对同一个key去重，
+ *     需要去重时可使用{@link SingleFlightCacheLoader#callable(Object)}</li>
+ *     <li>某一级chunk分配不到内存（或value大于slabSize）时value不写入缓存，计入rejectedCount</li>
+ * </ul>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class OffHeapCache<K, V> extends AbstractCache<K, V> {
+
+    private final SlabAllocator allocator;
+    private final Serializer<V> serializer;
+    private final Cache<K, OffHeapHandle> delegate;
+    private final StatsCounter statsCounter = new SimpleStatsCounter();
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * slab大小取capacity的1/64（4KB ~ 1MB），权重上限预留10%给各级chunk之间的碎片
+     *
+     * @param capacity         堆外内存上限（字节）
+     * @param concurrencyLevel 底层Guava Cache的并发度，每个segment分到权重上限 / segment数
+     * @param serializer       value的序列化方式
+     */
+    public OffHeapCache(long capacity, int concurrencyLevel, Serializer<V> serializer) {
+        this(new SlabAllocator(capacity, defaultSlabSize(capacity), 64), capacity - capacity / 10,
+            concurrencyLevel, serializer);
+    }
+
+    /**
+     * @param allocator        堆外内存分配器
+     * @param maximumWeight    缓存的chunk字节数上限，应小于allocator的容量
+     * @param concurrencyLevel 底层Guava Cache的并发度
+     * @param serializer       value的序列化方式
+     */
+    public OffHeapCache(SlabAllocator allocator, long maximumWeight, int concurrencyLevel, Serializer<V> serializer) {
+        this.allocator = allocator;
+        this.serializer = serializer;
+        this.delegate = CacheBuilder.newBuilder()
+            .concurrencyLevel(concurrencyLevel)
+            .maximumWeight(maximumWeight)
+            .weigher(OffHeapHandle.weigher(allocator))
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        V value = read(key);
+        if (value == null) {
+            statsCounter.recordMisses(1);
+        } else {
+            statsCounter.recordHits(1);
+        }
+        return value;
+    }
+
+    @Override
+    public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+        V value = read(key);
+        if (value != null) {
+            statsCounter.recordHits(1);
+            return value;
+        }
+        statsCounter.recordMisses(1);
+
+        long start = System.nanoTime();
+        try {
+            value = loader.call();
+        } catch (Error e) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new ExecutionError(e);
+        } catch (RuntimeException e) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new UncheckedExecutionException(e);
+        } catch (Exception e) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new ExecutionException(e);
+        }
+        if (value == null) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            throw new CacheLoader.InvalidCacheLoadException("loader returned null for key " + key);
+        }
+        statsCounter.recordLoadSuccess(System.nanoTime() - start);
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        byte[] bytes = serializer.serialize(value);
+        OffHeapHandle handle = allocator.write(bytes);
+        if (handle == null) {
+            // 可能有刚淘汰的chunk还没归还，清理一次再试
+            delegate.cleanUp();
+            handle = allocator.write(bytes);
+        }
+        if (handle == null) {
+            rejected.increment();
+            // 旧值已过时，不能继续留在缓存中
+            delegate.invalidate(key);
+            return;
+        }
+        delegate.put(key, handle);
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        delegate.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+
+    @Override
+    public long size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void cleanUp() {
+        delegate.cleanUp();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * 因内存不足未能写入的value数
+     */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 已申请的堆外内存（字节）
+     */
+    public long allocatedBytes() {
+        return allocator.allocatedBytes();
+    }
+
+    private static int defaultSlabSize(long capacity) {
+        long size = Math.max(4096L, Math.min(1L << 20, capacity / 64));
+        return Integer.highestOneBit((int) size);
+    }
+
+    private V read(Object key) {
+        OffHeapHandle handle = delegate.getIfPresent(key);
+        if (handle == null) {
+            return null;
+        }
+        byte[] bytes = allocator.read(handle);
+        return bytes == null ? null : serializer.deserialize(bytes);
+    }
+
+    private void onRemoval(RemovalNotification<K, OffHeapHandle> notification) {
+        OffHeapHandle handle = notification.getValue();
+        if (handle != null) {
+            if (notification.wasEvicted()) {
+                statsCounter.recordEviction();
+            }
+            allocator.release(handle);
+        }
+    }
+}
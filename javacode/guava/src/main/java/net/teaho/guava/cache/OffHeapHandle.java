@@ -0,0 +1,66 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Weigher;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * <p>堆外数据在堆上的句柄
+ *
+ * <p>只记录数据所在的slab、偏移和长度。带一个引用计数：缓存持有1，读取时临时+1，
+ * 计数归零时chunk才归还给{@link SlabAllocator}，避免读到被淘汰后复用的chunk。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public final class OffHeapHandle {
+
+    private static final AtomicIntegerFieldUpdater<OffHeapHandle> REF_CNT =
+        AtomicIntegerFieldUpdater.newUpdater(OffHeapHandle.class, "refCnt");
+
+    final int slab;
+    final int offset;
+    final int length;
+    final byte sizeClass;
+    private volatile int refCnt = 1;
+
+    OffHeapHandle(int slab, int offset, int length, byte sizeClass) {
+        this.slab = slab;
+        this.offset = offset;
+        this.length = length;
+        this.sizeClass = sizeClass;
+    }
+
+    /**
+     * 按字节数计算权重的Weigher，权重为数据实际占用的chunk大小
+     */
+    public static Weigher<Object, OffHeapHandle> weigher(SlabAllocator allocator) {
+        return (key, handle) -> allocator.chunkSize(handle.sizeClass);
+    }
+
+    /**
+     * 数据长度
+     */
+    public int length() {
+        return length;
+    }
+
+    boolean retain() {
+        for (;;) {
+            int cnt = refCnt;
+            if (cnt <= 0) {
+                return false;
+            }
+            if (REF_CNT.compareAndSet(this, cnt, cnt + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return 计数是否归零
+     */
+    boolean release() {
+        return REF_CNT.decrementAndGet(this) == 0;
+    }
+}
@@ -0,0 +1,168 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Filter;
+import java.util.logging.Logger;
+
+/**
+ * <p>提前异步刷新（stale-while-revalidate）的CacheLoader装饰器
+ *
+ * <p>配合{@link #configure(CacheBuilder, long, TimeUnit, double)}使用：entry的生命周期为lifetime，
+ * 写入后经过lifetime * refreshFraction，第一个读到它的请求触发Guava的refresh，
+ * 本loader把reload提交到有界线程池异步执行并立即返回，读请求继续拿到旧的value，新value加载完成后替换。
+ * 同一个entry在刷新期间不会重复触发（由Guava保证）。
+ *
+ * <p>线程池满时放弃本次刷新（计入dropped），返回以{@link DroppedRefreshException}失败的future。
+ * 不能以旧值完成：Guava会把它当作新值重新写入，写入时间随之更新，线程池持续饱和时entry永远不会过期，
+ * lifetime不再限制旧值的存活时间。以失败结束时Guava保留旧值和原来的写入时间，之后的读仍会再次尝试刷新，
+ * 到lifetime时entry照常过期，由读请求同步加载。Guava以WARNING级别记录每一次失败的refresh，
+ * 放弃是正常的降载，本类在Guava缓存的logger上过滤掉这类记录，避免线程池持续饱和时刷屏。
+ * delegate的reload抛出的异常仍按失败处理（计入failed）并照常记录，Guava保留旧值。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class RefreshAheadCacheLoader<K, V> extends CacheLoader<K, V> {
+
+    /**
+     * Guava缓存记录refresh失败的logger，持有引用避免logger被回收后过滤器失效
+     */
+    private static final Logger GUAVA_CACHE_LOGGER = Logger.getLogger("com.google.common.cache.LocalCache");
+
+    static {
+        Filter previous = GUAVA_CACHE_LOGGER.getFilter();
+        GUAVA_CACHE_LOGGER.setFilter(record -> !isDropped(record.getThrown())
+            && (previous == null || previous.isLoggable(record)));
+    }
+
+    private final CacheLoader<K, V> delegate;
+    private final Executor executor;
+
+    private final LongAdder started = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param delegate 实际的loader
+     * @param executor 执行reload的线程池，应当是有界的，见{@link #boundedExecutor(int, int)}
+     */
+    public RefreshAheadCacheLoader(CacheLoader<K, V> delegate, Executor executor) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    /**
+     * 设置entry的生命周期，并在refreshFraction处开始提前刷新
+     */
+    public static <K, V> CacheBuilder<K, V> configure(CacheBuilder<K, V> builder, long lifetime, TimeUnit unit,
+                                                      double refreshFraction) {
+        if (!(refreshFraction > 0 && refreshFraction < 1)) {
+            throw new IllegalArgumentException("refreshFraction must be in (0, 1): " + refreshFraction);
+        }
+        long lifetimeNanos = unit.toNanos(lifetime);
+        return builder
+            .expireAfterWrite(lifetimeNanos, TimeUnit.NANOSECONDS)
+            .refreshAfterWrite(Math.max(1L, (long) (lifetimeNanos * refreshFraction)), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 固定线程数、有界队列的刷新线程池，满了直接拒绝
+     */
+    public static ThreadPoolExecutor boundedExecutor(int threads, int queueCapacity) {
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new ThreadFactoryBuilder().setNameFormat("refresh-ahead-%d").setDaemon(true).build(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        return delegate.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        return delegate.loadAll(keys);
+    }
+
+    @Override
+    public ListenableFuture<V> reload(K key, V oldValue) {
+        ListenableFutureTask<V> task = ListenableFutureTask.create(() -> {
+            try {
+                V value = delegate.reload(key, oldValue).get();
+                completed.increment();
+                return value;
+            } catch (Throwable t) {
+                failed.increment();
+                throw t;
+            }
+        });
+        started.increment();
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            started.decrement();
+            dropped.increment();
+            return Futures.immediateFailedFuture(new DroppedRefreshException(e));
+        }
+        return task;
+    }
+
+    public long refreshStartedCount() {
+        return started.sum();
+    }
+
+    public long refreshCompletedCount() {
+        return completed.sum();
+    }
+
+    public long refreshFailedCount() {
+        return failed.sum();
+    }
+
+    public long refreshDroppedCount() {
+        return dropped.sum();
+    }
+
+    private static boolean isDropped(Throwable thrown) {
+        for (Throwable t = thrown; t != null; t = t.getCause()) {
+            if (t instanceof DroppedRefreshException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 线程池满、放弃刷新时refresh future的失败原因
+     */
+    public static final class DroppedRefreshException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        DroppedRefreshException(RejectedExecutionException cause) {
+            // 放弃是常态，不需要堆栈
+            super("refresh dropped: executor saturated", cause, false, false);
+        }
+    }
+}
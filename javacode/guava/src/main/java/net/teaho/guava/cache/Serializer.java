@@ -0,0 +1,14 @@
+package net.teaho.guava.cache;
+
+/**
+ * value与字节之间的转换，供堆外/持久化存储使用
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public interface Serializer<T> {
+
+    byte[] serialize(T value);
+
+    T deserialize(byte[] bytes);
+}
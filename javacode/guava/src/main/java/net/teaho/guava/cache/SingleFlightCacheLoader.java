@@ -0,0 +1,173 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheLoader;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>single-flight的CacheLoader装饰器
+ *
+ * <p>Guava只在同一个segment entry上对加载去重，不同线程的getAll批次、get(key, callable)之间
+ * 对相同key仍会重复调用loader。这里用一个共享的in-flight map（key -> CompletableFuture）包住delegate，
+ * 同一个key在加载期间的所有单key和批量请求都等待同一次加载结果，加载结束后立即从map中移除，不做缓存。
+ *
+ * <p>用法：
+ * <pre>
+ * SingleFlightCacheLoader&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; loader = new SingleFlightCacheLoader&lt;&gt;(new LoadingCacheLoader());
+ * LoadingCache&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; cache = CacheBuilder.newBuilder().build(loader);
+ * cache.get(key);
+ * cache.getAll(keys);
+ * otherCache.get(key, loader.callable(key));
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SingleFlightCacheLoader<K, V> extends CacheLoader<K, V> {
+
+    private final CacheLoader<K, V> delegate;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong joinCount = new AtomicLong();
+
+    public SingleFlightCacheLoader(CacheLoader<K, V> delegate) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+        this.delegate = delegate;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            joinCount.incrementAndGet();
+            return await(existing);
+        }
+
+        loadCount.incrementAndGet();
+        try {
+            V value = delegate.load(key);
+            future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        Map<K, CompletableFuture<V>> owned = new LinkedHashMap<>();
+        Map<K, CompletableFuture<V>> joined = new LinkedHashMap<>();
+        for (K key : keys) {
+            if (owned.containsKey(key) || joined.containsKey(key)) {
+                continue;
+            }
+            CompletableFuture<V> future = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+            if (existing == null) {
+                owned.put(key, future);
+            } else {
+                joined.put(key, existing);
+            }
+        }
+
+        Map<K, V> result = new HashMap<>((owned.size() + joined.size()) * 2);
+        if (!owned.isEmpty()) {
+            loadCount.addAndGet(owned.size());
+            try {
+                Map<K, V> loaded = loadOwned(new ArrayList<>(owned.keySet()));
+                for (Map.Entry<K, CompletableFuture<V>> entry : owned.entrySet()) {
+                    V value = loaded.get(entry.getKey());
+                    if (value != null) {
+                        result.put(entry.getKey(), value);
+                        entry.getValue().complete(value);
+                    } else {
+                        entry.getValue().completeExceptionally(
+                            new InvalidCacheLoadException("loadAll returned no value for " + entry.getKey()));
+                    }
+                }
+            } catch (Throwable t) {
+                owned.values().forEach(future -> future.completeExceptionally(t));
+                throw t;
+            } finally {
+                owned.forEach(inFlight::remove);
+            }
+        }
+
+        joinCount.addAndGet(joined.size());
+        for (Map.Entry<K, CompletableFuture<V>> entry : joined.entrySet()) {
+            try {
+                result.put(entry.getKey(), entry.getValue().get());
+            } catch (ExecutionException e) {
+                // 别人的加载失败了，缺少的key交由Guava按loadAll的约定处理
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 供{@code Cache.get(key, callable)}使用，与本loader的load/loadAll共享同一个in-flight map
+     */
+    public Callable<V> callable(K key) {
+        return () -> load(key);
+    }
+
+    /**
+     * 实际调用delegate加载的key数
+     */
+    public long loadCount() {
+        return loadCount.get();
+    }
+
+    /**
+     * 加入了他人正在进行的加载的次数
+     */
+    public long joinCount() {
+        return joinCount.get();
+    }
+
+    private Map<K, V> loadOwned(List<K> keys) throws Exception {
+        try {
+            return delegate.loadAll(keys);
+        } catch (UnsupportedOperationException e) {
+            // delegate没有实现loadAll，退化为逐个load
+            Map<K, V> map = new HashMap<>(keys.size() * 2);
+            for (K key : keys) {
+                map.put(key, delegate.load(key));
+            }
+            return map;
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package net.teaho.guava.cache;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <p>堆外slab分配器
+ *
+ * <p>内存按slabSize切成若干direct ByteBuffer（slab），按需创建，总量不超过capacity。
+ * chunk大小按2的幂分级（minChunkSize ~ slabSize），每一级有自己的空闲链表，
+ * 一个slab一旦分给某一级就只切这一级的chunk（与memcached的slab分级相同，不做slab在级别间的迁移）。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SlabAllocator {
+
+    private final int slabSize;
+    private final int minChunkShift;
+    private final int maxSlabs;
+    private final AtomicReferenceArray<ByteBuffer> slabs;
+    private final AtomicInteger slabCount = new AtomicInteger();
+    private final SizeClass[] classes;
+
+    /**
+     * 每一级的空闲chunk与当前正在切分的slab，受自身锁保护
+     */
+    private static final class SizeClass {
+        final int chunkSize;
+        long[] free = new long[16];
+        int freeSize;
+        int currentSlab = -1;
+        int currentOffset;
+
+        SizeClass(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+    }
+
+    /**
+     * @param capacity     堆外内存上限（字节）
+     * @param slabSize     单个slab大小，2的幂
+     * @param minChunkSize 最小chunk大小，2的幂
+     */
+    public SlabAllocator(long capacity, int slabSize, int minChunkSize) {
+        if (Integer.bitCount(slabSize) != 1 || Integer.bitCount(minChunkSize) != 1 || minChunkSize > slabSize) {
+            throw new IllegalArgumentException("slabSize and minChunkSize must be powers of two, slabSize >= minChunkSize");
+        }
+        long slabs = capacity / slabSize;
+        if (slabs <= 0 || slabs > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("capacity must hold 1 to Integer.MAX_VALUE slabs: " + capacity);
+        }
+        this.slabSize = slabSize;
+        this.minChunkShift = Integer.numberOfTrailingZeros(minChunkSize);
+        this.maxSlabs = (int) slabs;
+        this.slabs = new AtomicReferenceArray<>(maxSlabs);
+        int classCount = Integer.numberOfTrailingZeros(slabSize) - minChunkShift + 1;
+        this.classes = new SizeClass[classCount];
+        for (int i = 0; i < classCount; i++) {
+            classes[i] = new SizeClass(minChunkSize << i);
+        }
+    }
+
+    /**
+     * 分配并写入数据
+     *
+     * @return 句柄，数据超过slabSize或内存不足时返回null
+     */
+    public OffHeapHandle write(byte[] data) {
+        int sizeClass = sizeClassOf(data.length);
+        if (sizeClass < 0) {
+            return null;
+        }
+        long address = allocate(classes[sizeClass]);
+        if (address < 0) {
+            return null;
+        }
+        int slab = (int) (address >>> 32);
+        int offset = (int) address;
+        ByteBuffer buffer = slabs.get(slab).duplicate();
+        buffer.position(offset);
+        buffer.put(data);
+        return new OffHeapHandle(slab, offset, data.length, (byte) sizeClass);
+    }
+
+    /**
+     * 读取数据，句柄已被释放时返回null
+     */
+    public byte[] read(OffHeapHandle handle) {
+        if (!handle.retain()) {
+            return null;
+        }
+        try {
+            byte[] data = new byte[handle.length];
+            ByteBuffer buffer = slabs.get(handle.slab).duplicate();
+            buffer.position(handle.offset);
+            buffer.get(data);
+            return data;
+        } finally {
+            release(handle);
+        }
+    }
+
+    /**
+     * 释放缓存持有的引用，没有读者时chunk立即可复用
+     */
+    public void release(OffHeapHandle handle) {
+        if (handle.release()) {
+            SizeClass sc = classes[handle.sizeClass];
+            synchronized (sc) {
+                if (sc.freeSize == sc.free.length) {
+                    long[] grown = new long[sc.free.length * 2];
+                    System.arraycopy(sc.free, 0, grown, 0, sc.freeSize);
+                    sc.free = grown;
+                }
+                sc.free[sc.freeSize++] = ((long) handle.slab << 32) | (handle.offset & 0xFFFFFFFFL);
+            }
+        }
+    }
+
+    int chunkSize(int sizeClass) {
+        return classes[sizeClass].chunkSize;
+    }
+
+    /**
+     * 已申请的堆外内存（字节）
+     */
+    public long allocatedBytes() {
+        return (long) slabCount.get() * slabSize;
+    }
+
+    public long capacity() {
+        return (long) maxSlabs * slabSize;
+    }
+
+    private int sizeClassOf(int length) {
+        if (length > slabSize) {
+            return -1;
+        }
+        int shift = length <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1);
+        return Math.max(0, shift - minChunkShift);
+    }
+
+    private long allocate(SizeClass sc) {
+        synchronized (sc) {
+            if (sc.freeSize > 0) {
+                return sc.free[--sc.freeSize];
+            }
+            if (sc.currentSlab < 0 || sc.currentOffset + sc.chunkSize > slabSize) {
+                int slab = newSlab();
+                if (slab < 0) {
+                    return -1;
+                }
+                sc.currentSlab = slab;
+                sc.currentOffset = 0;
+            }
+            long address = ((long) sc.currentSlab << 32) | sc.currentOffset;
+            sc.currentOffset += sc.chunkSize;
+            return address;
+        }
+    }
+
+    private int newSlab() {
+        for (;;) {
+            int index = slabCount.get();
+            if (index >= maxSlabs) {
+                return -1;
+            }
+            if (slabCount.compareAndSet(index, index + 1)) {
+                slabs.set(index, ByteBuffer.allocateDirect(slabSize));
+                return index;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package net.teaho.guava.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * <p>分层时间轮
+ *
+ * <p>5层轮子，每层的桶跨度分别约为1秒、1分钟、1小时、1天、6.5天（取2的幂，用移位代替除法），
+ * 每个桶是一个带哨兵的双向链表。调度/取消调度都是O(1)；推进时钟时只处理跨过的桶，
+ * 未到期的节点会被重新放入更低层、更精细的桶中，所以每个节点的均摊开销也是O(1)。
+ *
+ * <p>非线程安全，由调用方加锁。时间使用调用方传入的单调递增纳秒值。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+final class TimerWheel<K, V> {
+
+    static final int[] BUCKETS = {64, 64, 32, 4, 1};
+    static final long[] SPANS = {
+        ceilingPowerOfTwo(TimeUnit.SECONDS.toNanos(1)),
+        ceilingPowerOfTwo(TimeUnit.MINUTES.toNanos(1)),
+        ceilingPowerOfTwo(TimeUnit.HOURS.toNanos(1)),
+        ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+        BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+        BUCKETS[3] * ceilingPowerOfTwo(TimeUnit.DAYS.toNanos(1)),
+    };
+    static final long[] SHIFT = {
+        Long.numberOfTrailingZeros(SPANS[0]),
+        Long.numberOfTrailingZeros(SPANS[1]),
+        Long.numberOfTrailingZeros(SPANS[2]),
+        Long.numberOfTrailingZeros(SPANS[3]),
+        Long.numberOfTrailingZeros(SPANS[4]),
+    };
+
+    /**
+     * 时间轮中的节点，同时也是缓存中保存的entry
+     */
+    static final class Node<K, V> {
+        final K key;
+        final V value;
+        /** 到期时间 */
+        final long deadline;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value, long deadline) {
+            this.key = key;
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        boolean isScheduled() {
+            return next != null;
+        }
+    }
+
+    private final Node<K, V>[][] wheel;
+    private long nanos;
+
+    @SuppressWarnings("unchecked")
+    TimerWheel(long nanos) {
+        this.nanos = nanos;
+        // 不能创建泛型数组，先创建通配符类型的数组再转换
+        this.wheel = (Node<K, V>[][]) new Node<?, ?>[BUCKETS.length][];
+        for (int i = 0; i < wheel.length; i++) {
+            wheel[i] = (Node<K, V>[]) new Node<?, ?>[BUCKETS[i]];
+            for (int j = 0; j < wheel[i].length; j++) {
+                Node<K, V> sentinel = new Node<>(null, null, 0L);
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                wheel[i][j] = sentinel;
+            }
+        }
+    }
+
+    /**
+     * 推进到currentNanos，到期节点交给evictor，未到期的重新调度
+     */
+    void advance(long currentNanos, Consumer<Node<K, V>> evictor) {
+        long previousNanos = nanos;
+        nanos = currentNanos;
+        for (int i = 0; i < SHIFT.length; i++) {
+            long previousTicks = previousNanos >>> SHIFT[i];
+            long currentTicks = currentNanos >>> SHIFT[i];
+            long delta = currentTicks - previousTicks;
+            if (delta <= 0L) {
+                break;
+            }
+            expire(i, previousTicks, delta, evictor);
+        }
+    }
+
+    void schedule(Node<K, V> node) {
+        Node<K, V> sentinel = findBucket(node.deadline);
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    void deschedule(Node<K, V> node) {
+        if (!node.isScheduled()) {
+            return;
+        }
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+
+    private void expire(int index, long previousTicks, long delta, Consumer<Node<K, V>> evictor) {
+        Node<K, V>[] buckets = wheel[index];
+        int mask = buckets.length - 1;
+        // 多转一格，覆盖上次推进时只走了一部分的桶
+        int steps = (int) Math.min(1 + delta, buckets.length);
+        int start = (int) (previousTicks & mask);
+        int end = start + steps;
+        for (int i = start; i < end; i++) {
+            Node<K, V> sentinel = buckets[i & mask];
+            Node<K, V> node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (node != sentinel) {
+                Node<K, V> next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.deadline - nanos > 0L) {
+                    schedule(node);
+                } else {
+                    evictor.accept(node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Node<K, V> findBucket(long time) {
+        long duration = time - nanos;
+        int length = wheel.length - 1;
+        for (int i = 0; i < length; i++) {
+            if (duration < SPANS[i + 1]) {
+                long ticks = time >>> SHIFT[i];
+                int index = (int) (ticks & (wheel[i].length - 1));
+                return wheel[i][index];
+            }
+        }
+        return wheel[length][0];
+    }
+
+    private static long ceilingPowerOfTwo(long x) {
+        return 1L << -Long.numberOfLeadingZeros(x - 1);
+    }
+}
@@ -0,0 +1,413 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <p>W-TinyLFU淘汰策略的缓存
+ *
+ * <p>Guava LocalCache每个segment是一个LRU，扫描型流量（大量只访问一次的key）会把热点数据挤出去。
+ * 这里按W-TinyLFU组织（与Caffeine相同的结构）：
+ * <ul>
+ *     <li>window：容量的1%，LRU，新entry先进入这里，给突发的新热点留出积累频率的时间</li>
+ *     <li>main：SLRU，分probation（20%）和protected（80%），probation中再次被访问的entry升级到protected</li>
+ *     <li>admission：window淘汰出的candidate要进入main时，与probation队头的victim比较
+ *     {@link FrequencySketch}估算的访问频率，频率更高者留下</li>
+ * </ul>
+ *
+ * <p>数据放在ConcurrentHashMap中，读不加锁；队列和sketch不是线程安全的，只在锁内修改：
+ * <ul>
+ *     <li>读：命中的node（未命中时为key）写入按线程分条的有损读缓冲，缓冲满时tryLock，拿到锁的线程把所有缓冲中的
+ *     访问记录重放到sketch和队列上；拿不到锁或并发写入冲突时直接丢弃这次记录，只影响淘汰的精度，不影响正确性</li>
+ *     <li>写：put/invalidate加锁，先重放读缓冲，再修改map和队列，都是O(1)</li>
+ * </ul>
+ * 读缓冲中可能残留已被移除的node，重放时跳过。同一个key的并发加载由in-flight map去重，loader在锁外执行。
+ * 不支持asMap()。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class TinyLfuCache<K, V> extends AbstractCache<K, V> {
+
+    private static final int WINDOW = 0;
+    private static final int PROBATION = 1;
+    private static final int PROTECTED = 2;
+    /**
+     * 已从缓存中移除
+     */
+    private static final int DEAD = -1;
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        int queue;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 带哨兵的双向链表，head为最久未访问
+     */
+    private static final class AccessOrderDeque<K, V> {
+        final Node<K, V> sentinel = new Node<>(null, null);
+        int size;
+
+        AccessOrderDeque() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+        }
+
+        Node<K, V> peekFirst() {
+            return sentinel.next == sentinel ? null : sentinel.next;
+        }
+
+        void addLast(Node<K, V> node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            remove(node);
+            addLast(node);
+        }
+
+        void clear() {
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            size = 0;
+        }
+    }
+
+    /**
+     * 有损的有界环形缓冲，多个线程写入，持有锁的线程读出
+     */
+    private static final class ReadBuffer {
+        static final int SIZE = 16;
+        static final int MASK = SIZE - 1;
+
+        final AtomicLong writeCounter = new AtomicLong();
+        final AtomicReferenceArray<Object> elements = new AtomicReferenceArray<>(SIZE);
+        volatile long readCounter;
+
+        /**
+         * @return 缓冲已满时返回false；CAS失败时丢弃这次记录，同样返回true，避免自旋
+         */
+        boolean offer(Object element) {
+            long tail = writeCounter.get();
+            if (tail - readCounter >= SIZE) {
+                return false;
+            }
+            if (writeCounter.compareAndSet(tail, tail + 1)) {
+                elements.lazySet((int) (tail & MASK), element);
+            }
+            return true;
+        }
+    }
+
+    private final long maximumSize;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    private final ReadBuffer[] readBuffers;
+    private final AccessOrderDeque<K, V> window = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> probation = new AccessOrderDeque<>();
+    private final AccessOrderDeque<K, V> protectedQueue = new AccessOrderDeque<>();
+    private final FrequencySketch sketch;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+    private final StatsCounter statsCounter = new SimpleStatsCounter();
+
+    public TinyLfuCache(long maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive: " + maximumSize);
+        }
+        this.maximumSize = maximumSize;
+        this.windowMaximum = Math.max(1, maximumSize / 100);
+        this.protectedMaximum = (long) ((maximumSize - windowMaximum) * 0.8);
+        this.sketch = new FrequencySketch(maximumSize);
+        int stripes = Integer.highestOneBit(Math.min(16, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+        this.readBuffers = new ReadBuffer[stripes];
+        for (int i = 0; i < stripes; i++) {
+            readBuffers[i] = new ReadBuffer();
+        }
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        Node<K, V> node = data.get(key);
+        V value = node == null ? null : node.value;
+        if (value == null) {
+            statsCounter.recordMisses(1);
+            afterRead(key);
+        } else {
+            statsCounter.recordHits(1);
+            afterRead(node);
+        }
+        return value;
+    }
+
+    @Override
+    public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = loading.putIfAbsent(key, future);
+        if (existing != null) {
+            return await(existing);
+        }
+        long start = System.nanoTime();
+        try {
+            value = loader.call();
+            if (value == null) {
+                throw new CacheLoader.InvalidCacheLoadException("loader returned null for key " + key);
+            }
+            statsCounter.recordLoadSuccess(System.nanoTime() - start);
+            put(key, value);
+            future.complete(value);
+            return value;
+        } catch (Throwable t) {
+            statsCounter.recordLoadException(System.nanoTime() - start);
+            future.completeExceptionally(t);
+            return await(future);
+        } finally {
+            loading.remove(key, future);
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        if (key == null || value == null) {
+            throw new NullPointerException();
+        }
+        lock.lock();
+        try {
+            drainReadBuffers();
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                node.value = value;
+                onAccess(node);
+                return;
+            }
+            node = new Node<>(key, value);
+            node.queue = WINDOW;
+            data.put(key, node);
+            window.addLast(node);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                queueOf(node).remove(node);
+                node.queue = DEAD;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            drainReadBuffers();
+            for (Node<K, V> node : data.values()) {
+                node.queue = DEAD;
+            }
+            data.clear();
+            window.clear();
+            probation.clear();
+            protectedQueue.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long size() {
+        return data.size();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    /**
+     * 记录一次读，event为命中的node或未命中的key；缓冲满时尝试重放
+     */
+    private void afterRead(Object event) {
+        ReadBuffer buffer = readBuffers[stripe()];
+        if (buffer.offer(event) || !lock.tryLock()) {
+            return;
+        }
+        try {
+            drainReadBuffers();
+            buffer.offer(event);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripe() {
+        long id = Thread.currentThread().getId();
+        // 打散连续的线程id
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash >>> 16) & (readBuffers.length - 1);
+    }
+
+    /**
+     * 把读缓冲中的访问记录重放到sketch和队列上，须持有锁
+     */
+    @SuppressWarnings("unchecked")
+    private void drainReadBuffers() {
+        for (ReadBuffer buffer : readBuffers) {
+            long head = buffer.readCounter;
+            long tail = buffer.writeCounter.get();
+            for (; head < tail; head++) {
+                int index = (int) (head & ReadBuffer.MASK);
+                Object event = buffer.elements.get(index);
+                if (event == null) {
+                    // 写入方已占位但还没写入，下次再读
+                    break;
+                }
+                buffer.elements.lazySet(index, null);
+                if (event instanceof Node) {
+                    Node<K, V> node = (Node<K, V>) event;
+                    sketch.increment(node.key);
+                    if (node.queue != DEAD) {
+                        onAccess(node);
+                    }
+                } else {
+                    sketch.increment(event);
+                }
+            }
+            buffer.readCounter = head;
+        }
+    }
+
+    /**
+     * 命中后调整所在队列
+     */
+    private void onAccess(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.moveToLast(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                node.queue = PROTECTED;
+                protectedQueue.addLast(node);
+                // protected超出时把最久未访问的降级回probation
+                while (protectedQueue.size > protectedMaximum) {
+                    Node<K, V> demoted = protectedQueue.peekFirst();
+                    protectedQueue.remove(demoted);
+                    demoted.queue = PROBATION;
+                    probation.addLast(demoted);
+                }
+                break;
+            default:
+                protectedQueue.moveToLast(node);
+                break;
+        }
+    }
+
+    /**
+     * window超出时把队头作为candidate，main已满则与victim比较频率决定去留
+     */
+    private void evict() {
+        while (window.size > windowMaximum) {
+            Node<K, V> candidate = window.peekFirst();
+            window.remove(candidate);
+            if (data.size() <= maximumSize) {
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+                continue;
+            }
+            Node<K, V> victim = probation.peekFirst();
+            if (victim == null) {
+                victim = protectedQueue.peekFirst();
+            }
+            if (victim != null && sketch.frequency(candidate.key) > sketch.frequency(victim.key)) {
+                queueOf(victim).remove(victim);
+                data.remove(victim.key);
+                victim.queue = DEAD;
+                candidate.queue = PROBATION;
+                probation.addLast(candidate);
+            } else {
+                data.remove(candidate.key);
+                candidate.queue = DEAD;
+            }
+            statsCounter.recordEviction();
+        }
+    }
+
+    private AccessOrderDeque<K, V> queueOf(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                return window;
+            case PROBATION:
+                return probation;
+            default:
+                return protectedQueue;
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws ExecutionException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw new ExecutionError((Error) cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw new UncheckedExecutionException(cause);
+            }
+            throw e;
+        }
+    }
+}
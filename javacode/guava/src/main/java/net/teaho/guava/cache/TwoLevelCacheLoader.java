@@ -0,0 +1,80 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.util.concurrent.ListenableFuture;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p>一级缓存未命中时先查{@link MappedL2Store}，二级也未命中才调用实际的loader
+ *
+ * <pre>
+ * MappedL2Store&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; l2 = new MappedL2Store&lt;&gt;(dir, 64 &lt;&lt; 20, 16,
+ *     new CacheKeySerializer(), new CacheValueSerializer&lt;&gt;(new InMemoryItemSerializer()));
+ * LoadingCache&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; cache = CacheBuilder.newBuilder()
+ *     .maximumSize(10000)
+ *     .removalListener(l2.removalListener())
+ *     .build(new TwoLevelCacheLoader&lt;&gt;(loader, l2));
+ * </pre>
+ *
+ * <p>reload（refreshAfterWrite）直接走实际的loader，二级缓存中的值不会比一级更新。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class TwoLevelCacheLoader<K, V> extends CacheLoader<K, V> {
+
+    private final CacheLoader<K, V> delegate;
+    private final MappedL2Store<K, V> store;
+
+    public TwoLevelCacheLoader(CacheLoader<K, V> delegate, MappedL2Store<K, V> store) {
+        if (delegate == null) {
+            throw new NullPointerException("delegate");
+        }
+        if (store == null) {
+            throw new NullPointerException("store");
+        }
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public V load(K key) throws Exception {
+        V value = store.get(key);
+        return value != null ? value : delegate.load(key);
+    }
+
+    @Override
+    public Map<K, V> loadAll(Iterable<? extends K> keys) throws Exception {
+        Map<K, V> result = new HashMap<>();
+        List<K> missing = new ArrayList<>();
+        for (K key : keys) {
+            V value = store.get(key);
+            if (value != null) {
+                result.put(key, value);
+            } else {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        try {
+            result.putAll(delegate.loadAll(missing));
+        } catch (UnsupportedOperationException e) {
+            // delegate没有实现loadAll，退化为逐个load
+            for (K key : missing) {
+                result.put(key, delegate.load(key));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public ListenableFuture<V> reload(K key, V oldValue) throws Exception {
+        return delegate.reload(key, oldValue);
+    }
+}
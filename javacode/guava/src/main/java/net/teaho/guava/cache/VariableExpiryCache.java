@@ -0,0 +1,229 @@
+package net.teaho.guava.cache;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.AbstractCache;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import net.teaho.guava.cache.TimerWheel.Node;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * <p>按entry各自的ttl过期的缓存
+ *
+ * <p>Guava的CacheBuilder只支持全局的expireAfterWrite/expireAfterAccess，这里在一个只按maximumSize淘汰的
+ * Guava Cache外面包一层：每个value写入时由ttl函数算出各自的到期时间，挂到{@link TimerWheel}上，
+ * 读写时顺带推进时间轮，把到期的entry从底层Cache中删除。读到已到期但还没被时间轮清理的entry时按未命中处理。
+ *
+ * <p>用CacheValue的ttl作为过期时间：
+ * <pre>
+ * VariableExpiryCache&lt;CacheKey, CacheValue&lt;InMemoryItem&gt;&gt; cache = VariableExpiryCache.forCacheValue(10_000, TimeUnit.SECONDS);
+ * </pre>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class VariableExpiryCache<K, V> extends AbstractCache<K, V> {
+
+    /** ttl函数返回该值或非正数表示永不过期 */
+    public static final long NEVER_EXPIRE = Long.MAX_VALUE;
+
+    private final Cache<K, Node<K, V>> delegate;
+    private final TimerWheel<K, V> wheel;
+    private final ReentrantLock wheelLock = new ReentrantLock();
+    private final ToLongFunction<? super V> ttlNanos;
+    private final Ticker ticker;
+    /** ticker的起点，让时间轮使用从0开始的非负时间 */
+    private final long origin;
+    private final StatsCounter statsCounter = new SimpleStatsCounter();
+
+    /**
+     * @param maximumSize 最大entry数
+     * @param ttlNanos    value的存活时间（纳秒）
+     * @param ticker      时间源
+     */
+    public VariableExpiryCache(long maximumSize, ToLongFunction<? super V> ttlNanos, Ticker ticker) {
+        this.ttlNanos = ttlNanos;
+        this.ticker = ticker;
+        this.origin = ticker.read();
+        this.wheel = new TimerWheel<>(0L);
+        this.delegate = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .removalListener(this::onRemoval)
+            .build();
+    }
+
+    /**
+     * 以{@link CacheValue#getTtl()}作为存活时间，ttl单位为ttlUnit
+     */
+    public static <K, T> VariableExpiryCache<K, CacheValue<T>> forCacheValue(long maximumSize, TimeUnit ttlUnit) {
+        return new VariableExpiryCache<>(maximumSize, value -> {
+            long ttl = value.getTtl();
+            return ttl <= 0 ? NEVER_EXPIRE : ttlUnit.toNanos(ttl);
+        }, Ticker.systemTicker());
+    }
+
+    @Override
+    public V getIfPresent(Object key) {
+        long now = now();
+        expire(now);
+        Node<K, V> node = delegate.getIfPresent(key);
+        if (node == null || isExpired(node, now)) {
+            if (node != null) {
+                evict(node);
+            }
+            statsCounter.recordMisses(1);
+            return null;
+        }
+        statsCounter.recordHits(1);
+        return node.value;
+    }
+
+    @Override
+    public V get(K key, Callable<? extends V> loader) throws ExecutionException {
+        long now = now();
+        expire(now);
+        boolean[] loaded = new boolean[1];
+        for (;;) {
+            Node<K, V> node;
+            try {
+                node = delegate.get(key, () -> {
+                    loaded[0] = true;
+                    long start = ticker.read();
+                    V value;
+                    try {
+                        value = loader.call();
+                    } catch (Throwable t) {
+                        statsCounter.recordLoadException(ticker.read() - start);
+                        throw t;
+                    }
+                    statsCounter.recordLoadSuccess(ticker.read() - start);
+                    return newNode(key, value);
+                });
+            } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+                statsCounter.recordMisses(1);
+                throw e;
+            }
+            if (!isExpired(node, now)) {
+                if (loaded[0]) {
+                    statsCounter.recordMisses(1);
+                } else {
+                    statsCounter.recordHits(1);
+                }
+                return node.value;
+            }
+            evict(node);
+        }
+    }
+
+    @Override
+    public void put(K key, V value) {
+        expire(now());
+        delegate.put(key, newNode(key, value));
+    }
+
+    @Override
+    public void invalidate(Object key) {
+        delegate.invalidate(key);
+    }
+
+    @Override
+    public void invalidateAll() {
+        delegate.invalidateAll();
+    }
+
+    /**
+     * 包含已到期但尚未清理的entry，调用{@link #cleanUp()}后更准确
+     */
+    @Override
+    public long size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void cleanUp() {
+        wheelLock.lock();
+        try {
+            wheel.advance(now(), this::evict);
+        } finally {
+            wheelLock.unlock();
+        }
+        delegate.cleanUp();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return statsCounter.snapshot();
+    }
+
+    private Node<K, V> newNode(K key, V value) {
+        long ttl = ttlNanos.applyAsLong(value);
+        if (ttl <= 0 || ttl == NEVER_EXPIRE) {
+            return new Node<>(key, value, NEVER_EXPIRE);
+        }
+        long now = now();
+        long deadline = now + ttl < now ? NEVER_EXPIRE : now + ttl;
+        Node<K, V> node = new Node<>(key, value, deadline);
+        wheelLock.lock();
+        try {
+            wheel.schedule(node);
+        } finally {
+            wheelLock.unlock();
+        }
+        return node;
+    }
+
+    /**
+     * 读写路径上顺带推进时间轮，拿不到锁说明有其他线程正在推进，直接跳过
+     */
+    private void expire(long now) {
+        if (wheelLock.tryLock()) {
+            try {
+                wheel.advance(now, this::evict);
+            } finally {
+                wheelLock.unlock();
+            }
+        }
+    }
+
+    private void evict(Node<K, V> node) {
+        if (delegate.asMap().remove(node.key, node)) {
+            statsCounter.recordEviction();
+        }
+    }
+
+    private void onRemoval(RemovalNotification<K, Node<K, V>> notification) {
+        Node<K, V> node = notification.getValue();
+        if (node == null) {
+            return;
+        }
+        if (notification.getCause() == RemovalCause.SIZE) {
+            statsCounter.recordEviction();
+        }
+        if (node.deadline != NEVER_EXPIRE) {
+            wheelLock.lock();
+            try {
+                wheel.deschedule(node);
+            } finally {
+                wheelLock.unlock();
+            }
+        }
+    }
+
+    private boolean isExpired(Node<K, V> node, long now) {
+        return node.deadline - now <= 0L;
+    }
+
+    private long now() {
+        return ticker.read() - origin;
+    }
+}
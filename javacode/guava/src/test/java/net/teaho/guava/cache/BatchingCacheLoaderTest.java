@@ -0,0 +1,107 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class BatchingCacheLoaderTest {
+
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    private Map<CacheKey, CacheValue<InMemoryItem>> backendLoadAll(List<CacheKey> keys) throws InterruptedException {
+        backendCalls.incrementAndGet();
+        TimeUnit.MILLISECONDS.sleep(1L);
+        Map<CacheKey, CacheValue<InMemoryItem>> map = new HashMap<>();
+        for (CacheKey key : keys) {
+            // 奇数key模拟后端查不到
+            if (Integer.parseInt(key.getKey()) % 2 == 0) {
+                map.put(key, new CacheValue<>(new InMemoryItem(key.getKey(), null), 1L));
+            }
+        }
+        return map;
+    }
+
+    @Test
+    public void testCoalesceConcurrentMisses() throws Exception {
+        ExecutorService loaderPool = Executors.newFixedThreadPool(4);
+        BatchingCacheLoader<CacheKey, CacheValue<InMemoryItem>> loader = BatchingCacheLoader
+            .newBuilder(this::backendLoadAll)
+            .executor(loaderPool)
+            .maxBatchSize(128)
+            .maxDelay(5, TimeUnit.MILLISECONDS)
+            .timeout(5, TimeUnit.SECONDS)
+            .build();
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = CacheBuilder
+            .newBuilder()
+            .maximumSize(10_000)
+            .concurrencyLevel(16)
+            .build(loader);
+
+        ExecutorService es = Executors.newFixedThreadPool(16);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int j = 0; j < 200; j++) {
+            futures.add(es.submit(() -> {
+                int found = 0;
+                for (int i = 0; i < 20; i++) {
+                    int key = ThreadLocalRandom.current().nextInt(0, 3000) * 2;
+                    List<CacheKey> list = new ArrayList<>();
+                    list.add(new CacheKey("" + key, "hashStr"));
+                    list.add(new CacheKey("" + (key + 1), "hashStr"));
+                    Map<CacheKey, CacheValue<InMemoryItem>> items = BatchingCacheLoader.getAll(cache, list);
+                    found += items.size();
+                }
+                return found;
+            }));
+        }
+        for (Future<Integer> future : futures) {
+            // 偶数key总能取到，奇数key不会以空值写入
+            Assert.assertEquals(20, (int) future.get());
+        }
+        es.shutdown();
+        loader.shutdown();
+        loaderPool.shutdown();
+
+        System.out.println("batches:" + loader.batchCount() + ", keys:" + loader.keyCount()
+            + ", backend calls:" + backendCalls.get());
+        Assert.assertTrue(backendCalls.get() < loader.keyCount());
+        for (CacheKey key : cache.asMap().keySet()) {
+            Assert.assertEquals(0, Integer.parseInt(key.getKey()) % 2);
+        }
+    }
+
+    @Test
+    public void testLoadMissingKey() throws Exception {
+        BatchingCacheLoader<CacheKey, CacheValue<InMemoryItem>> loader = BatchingCacheLoader
+            .newBuilder(this::backendLoadAll)
+            .maxDelay(1, TimeUnit.MILLISECONDS)
+            .build();
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = CacheBuilder.newBuilder().build(loader);
+
+        Assert.assertEquals("2", cache.get(new CacheKey("2", "hashStr")).getV().id);
+        try {
+            cache.get(new CacheKey("3", "hashStr"));
+            Assert.fail();
+        } catch (ExecutionException | RuntimeException e) {
+            // expected
+        }
+        Assert.assertNull(cache.getIfPresent(new CacheKey("3", "hashStr")));
+        loader.shutdown();
+    }
+}
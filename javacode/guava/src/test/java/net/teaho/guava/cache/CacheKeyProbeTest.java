@@ -0,0 +1,47 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Objects;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class CacheKeyProbeTest {
+
+    @Test
+    public void testHashCompatible() {
+        CacheKey key = new CacheKey("key", "field");
+        Assert.assertEquals(Objects.hash("key", "field"), key.hashCode());
+        Assert.assertEquals(Objects.hash(null, null), new CacheKey().hashCode());
+        Assert.assertEquals(key, new CacheKey("key", "field"));
+    }
+
+    @Test
+    public void testProbeLookup() throws Exception {
+        Cache<CacheKey, CacheValue<InMemoryItem>> cache = CacheBuilder.newBuilder().maximumSize(100).build();
+        Assert.assertNull(CacheKeyProbe.getIfPresent(cache, "1", "hashStr"));
+
+        CacheValue<InMemoryItem> value = CacheKeyProbe.get(cache, "1", "hashStr",
+            key -> new CacheValue<>(new InMemoryItem(key.getKey(), null), 1L));
+        Assert.assertEquals("1", value.getV().id);
+        Assert.assertSame(value, CacheKeyProbe.getIfPresent(cache, "1", "hashStr"));
+        Assert.assertNull(CacheKeyProbe.getIfPresent(cache, "2", "hashStr"));
+
+        // 写入缓存的是新建的key，不是探测key
+        CacheKey stored = cache.asMap().keySet().iterator().next();
+        Assert.assertEquals("1", stored.getKey());
+        CacheKeyProbe.getIfPresent(cache, "3", "other");
+        Assert.assertEquals("1", stored.getKey());
+
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> loadingCache = CacheBuilder.newBuilder()
+            .build(new LocalCacheTest.LoadingCacheLoader());
+        Assert.assertNotNull(CacheKeyProbe.get(loadingCache, "1", "hashStr").getV());
+        Assert.assertEquals(1, loadingCache.size());
+    }
+}
@@ -0,0 +1,103 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalCause;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class CacheMetricsTest {
+
+    @Test
+    public void testLoadingCacheMetrics() throws Exception {
+        CacheMetrics metrics = new CacheMetrics("test-loading");
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = metrics.instrument(CacheBuilder.newBuilder()
+            .maximumSize(10)
+            .removalListener(metrics.removalListener(null))
+            .build(metrics.instrument(new LocalCacheTest.LoadingCacheLoader())));
+
+        for (int i = 0; i < 20; i++) {
+            cache.get(new CacheKey("" + i, "hashStr"));
+        }
+        cache.get(new CacheKey("19", "hashStr"));
+        cache.getAll(Lists.newArrayList(new CacheKey("19", "hashStr"), new CacheKey("100", "hashStr")));
+        cache.invalidate(new CacheKey("19", "hashStr"));
+
+        CacheMetricsSnapshot snapshot = metrics.snapshot();
+        Assert.assertEquals(2, snapshot.getHitCount());
+        Assert.assertEquals(21, snapshot.getMissCount());
+        Assert.assertEquals(2.0 / 23, snapshot.getHitRatio(), 1e-9);
+        Assert.assertEquals(20, snapshot.getLoadLatency().getCount());
+        Assert.assertEquals(1, snapshot.getLoadAllLatency().getCount());
+        Assert.assertEquals(11L, (long) snapshot.getRemovalCounts().get(RemovalCause.SIZE));
+        Assert.assertEquals(1L, (long) snapshot.getRemovalCounts().get(RemovalCause.EXPLICIT));
+        Assert.assertTrue(snapshot.getMissLatency().getP99() >= snapshot.getMissLatency().getP50());
+
+        // 新窗口
+        cache.get(new CacheKey("100", "hashStr"));
+        CacheMetricsSnapshot next = metrics.snapshot();
+        Assert.assertEquals(1, next.getHitCount());
+        Assert.assertEquals(0, next.getMissCount());
+        Assert.assertEquals(1.0, next.getHitRatio(), 1e-9);
+        Assert.assertEquals(3, metrics.getHitCount());
+    }
+
+    @Test
+    public void testTimeoutAndMBean() throws Exception {
+        CacheMetrics metrics = new CacheMetrics("test-plain");
+        Cache<CacheKey, CacheValue<InMemoryItem>> cache = metrics.instrument(CacheBuilder.newBuilder()
+            .maximumSize(10)
+            .build());
+        CacheKey key = new CacheKey("key", "field");
+        try {
+            cache.get(key, () -> {
+                throw new TimeoutException("backend timeout");
+            });
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof TimeoutException);
+        }
+        cache.get(key, () -> new CacheValue<>(new InMemoryItem("1", null), 1L));
+        cache.getIfPresent(key);
+        metrics.snapshot();
+
+        metrics.registerMBean();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("net.teaho.guava.cache:type=CacheMetrics,name=\"test-plain\"");
+            Assert.assertEquals(1L, server.getAttribute(name, "LoaderTimeoutCount"));
+            Assert.assertEquals(1L, server.getAttribute(name, "HitCount"));
+            Assert.assertEquals(2L, server.getAttribute(name, "MissCount"));
+            Assert.assertEquals(1.0 / 3, (Double) server.getAttribute(name, "WindowHitRatio"), 1e-9);
+        } finally {
+            metrics.unregisterMBean();
+        }
+    }
+
+    @Test
+    public void testScheduledSnapshots() throws Exception {
+        CacheMetrics metrics = new CacheMetrics("test-scheduled");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        BlockingQueue<CacheMetricsSnapshot> snapshots = new LinkedBlockingQueue<>();
+        metrics.scheduleSnapshots(scheduler, 10, TimeUnit.MILLISECONDS, snapshots::add);
+        Assert.assertNotNull(snapshots.poll(5, TimeUnit.SECONDS));
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,25 @@
+package net.teaho.guava.cache;
+
+import com.google.common.base.Ticker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试用的可手动推进的时间源
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+class FakeTicker extends Ticker {
+    private final AtomicLong nanos = new AtomicLong(System.nanoTime());
+
+    @Override
+    public long read() {
+        return nanos.get();
+    }
+
+    void advance(long duration, TimeUnit unit) {
+        nanos.addAndGet(unit.toNanos(duration));
+    }
+}
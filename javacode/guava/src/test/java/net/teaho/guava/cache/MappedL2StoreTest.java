@@ -0,0 +1,148 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class MappedL2StoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MappedL2Store<CacheKey, CacheValue<InMemoryItem>> open(File dir, int segmentSize, int maxSegments)
+        throws Exception {
+        return new MappedL2Store<>(dir, segmentSize, maxSegments,
+            new CacheKeySerializer(), new CacheValueSerializer<>(new InMemoryItemSerializer()));
+    }
+
+    private static CacheKey key(int id) {
+        return new CacheKey("" + id, "hashStr");
+    }
+
+    private static CacheValue<InMemoryItem> value(int id) {
+        return new CacheValue<>(new InMemoryItem("" + id, "payload-" + id), id);
+    }
+
+    @Test
+    public void testPersistAcrossRestart() throws Exception {
+        File dir = folder.newFolder();
+        MappedL2Store<CacheKey, CacheValue<InMemoryItem>> store = open(dir, 1 << 16, 8);
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertTrue(store.put(key(i), value(i)));
+        }
+        store.put(key(1), value(10001));
+        store.remove(key(2));
+        Assert.assertEquals("payload-10001", store.get(key(1)).getV().itemBytes);
+        Assert.assertNull(store.get(key(2)));
+        store.close();
+
+        store = open(dir, 1 << 16, 8);
+        Assert.assertEquals(999, store.size());
+        Assert.assertEquals("payload-10001", store.get(key(1)).getV().itemBytes);
+        Assert.assertNull(store.get(key(2)));
+        CacheValue<InMemoryItem> value = store.get(key(999));
+        Assert.assertEquals("999", value.getV().id);
+        Assert.assertEquals(999L, value.getTtl());
+    }
+
+    @Test
+    public void testOldestSegmentDropped() throws Exception {
+        File dir = folder.newFolder();
+        MappedL2Store<CacheKey, CacheValue<InMemoryItem>> store = open(dir, 4096, 2);
+        for (int i = 0; i < 1000; i++) {
+            store.put(key(i), value(i));
+        }
+        Assert.assertNull(store.get(key(0)));
+        Assert.assertNotNull(store.get(key(999)));
+        Assert.assertTrue(store.size() < 1000);
+        Assert.assertEquals(2, dir.listFiles().length);
+    }
+
+    @Test
+    public void testTornRecordIgnored() throws Exception {
+        File dir = folder.newFolder();
+        MappedL2Store<CacheKey, CacheValue<InMemoryItem>> store = open(dir, 4096, 2);
+        store.put(key(1), value(1));
+        store.put(key(2), value(2));
+        store.close();
+
+        // 破坏第二条记录的最后一个字节，模拟写了一半时进程退出
+        File segment = dir.listFiles()[0];
+        try (RandomAccessFile raf = new RandomAccessFile(segment, "rw")) {
+            long end = 0;
+            for (int i = 0; i < 2; i++) {
+                raf.seek(end);
+                int keyLength = raf.readInt();
+                int valueLength = raf.readInt();
+                end += 12 + keyLength + valueLength;
+            }
+            raf.seek(end - 1);
+            raf.write(0x7f);
+        }
+
+        store = open(dir, 4096, 2);
+        Assert.assertNotNull(store.get(key(1)));
+        Assert.assertNull(store.get(key(2)));
+    }
+
+    @Test
+    public void testWarmRestartWithL1() throws Exception {
+        File dir = folder.newFolder();
+        AtomicInteger loads = new AtomicInteger();
+        CacheLoader<CacheKey, CacheValue<InMemoryItem>> backend = new CacheLoader<CacheKey, CacheValue<InMemoryItem>>() {
+            @Override
+            public CacheValue<InMemoryItem> load(CacheKey key) {
+                loads.incrementAndGet();
+                return value(Integer.parseInt(key.getKey()));
+            }
+        };
+
+        MappedL2Store<CacheKey, CacheValue<InMemoryItem>> l2 = open(dir, 1 << 20, 4);
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .concurrencyLevel(1)
+            .removalListener(l2.removalListener())
+            .build(new TwoLevelCacheLoader<>(backend, l2));
+        for (int i = 0; i < 1000; i++) {
+            cache.get(key(i));
+        }
+        Assert.assertEquals(1000, loads.get());
+        // 被L1淘汰的entry落到L2
+        Assert.assertTrue(l2.size() >= 900);
+        cache.get(key(0));
+        Assert.assertEquals(1000, loads.get());
+
+        // 显式删除后L2中也不再保留
+        cache.invalidate(key(0));
+        Assert.assertFalse(l2.contains(key(0)));
+
+        l2.putAll(cache.asMap());
+        l2.close();
+
+        // 重启后L1为空，全部由L2提供
+        MappedL2Store<CacheKey, CacheValue<InMemoryItem>> restarted = open(dir, 1 << 20, 4);
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> warm = CacheBuilder.newBuilder()
+            .maximumSize(100)
+            .removalListener(restarted.removalListener())
+            .build(new TwoLevelCacheLoader<>(backend, restarted));
+        loads.set(0);
+        for (int i = 1; i < 1000; i++) {
+            Assert.assertEquals("payload-" + i, warm.get(key(i)).getV().itemBytes);
+        }
+        Assert.assertEquals(0, loads.get());
+        warm.get(key(0));
+        Assert.assertEquals(1, loads.get());
+    }
+}
@@ -0,0 +1,89 @@
+package net.teaho.guava.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class OffHeapCacheTest {
+
+    private static InMemoryItem item(int id, int payloadSize) {
+        byte[] payload = new byte[payloadSize];
+        Arrays.fill(payload, (byte) id);
+        return new InMemoryItem("" + id, payload);
+    }
+
+    @Test
+    public void testSerializer() {
+        InMemoryItemSerializer serializer = new InMemoryItemSerializer();
+        InMemoryItem bytes = serializer.deserialize(serializer.serialize(item(7, 100)));
+        Assert.assertEquals("7", bytes.id);
+        Assert.assertArrayEquals((byte[]) item(7, 100).itemBytes, (byte[]) bytes.itemBytes);
+        Assert.assertEquals("str", serializer.deserialize(serializer.serialize(new InMemoryItem("1", "str"))).itemBytes);
+        Assert.assertEquals(42L, serializer.deserialize(serializer.serialize(new InMemoryItem("1", 42L))).itemBytes);
+        Assert.assertNull(serializer.deserialize(serializer.serialize(new InMemoryItem(null, null))).id);
+    }
+
+    @Test
+    public void testMemoryBoundedEviction() throws Exception {
+        // 4MB，单segment方便验证权重
+        OffHeapCache<CacheKey, InMemoryItem> cache = new OffHeapCache<>(4 << 20, 1, new InMemoryItemSerializer());
+        for (int i = 0; i < 10_000; i++) {
+            CacheKey key = new CacheKey("" + i, "hashStr");
+            int id = i;
+            InMemoryItem item = cache.get(key, () -> item(id, 1500));
+            Assert.assertEquals("" + i, item.id);
+        }
+        cache.cleanUp();
+        // 每个value占2KB的chunk，权重上限为容量的90%
+        Assert.assertTrue(cache.size() <= 2048 * 9 / 10);
+        Assert.assertTrue(cache.size() > 1500);
+        Assert.assertEquals(0, cache.rejectedCount());
+        Assert.assertTrue(cache.allocatedBytes() <= 4 << 20);
+        Assert.assertTrue(cache.stats().evictionCount() > 0);
+
+        InMemoryItem last = cache.getIfPresent(new CacheKey("9999", "hashStr"));
+        Assert.assertNotNull(last);
+        Assert.assertEquals((byte) 9999, ((byte[]) last.itemBytes)[1499]);
+        Assert.assertNull(cache.getIfPresent(new CacheKey("0", "hashStr")));
+    }
+
+    @Test
+    public void testConcurrentReadWrite() throws Exception {
+        OffHeapCache<CacheKey, InMemoryItem> cache = new OffHeapCache<>(2 << 20, 4, new InMemoryItemSerializer());
+        ExecutorService es = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(es.submit(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    int id = ThreadLocalRandom.current().nextInt(0, 5_000);
+                    int size = 1 + id % 3000;
+                    InMemoryItem item = cache.get(new CacheKey("" + id, "hashStr"), () -> item(id, size));
+                    byte[] payload = (byte[]) item.itemBytes;
+                    // 读到的内容必须完整属于同一个value
+                    if (!item.id.equals("" + id) || payload.length != size || payload[size - 1] != (byte) id) {
+                        throw new AssertionError("corrupted value for " + id);
+                    }
+                }
+                return null;
+            }));
+        }
+        // 任务中抛出的AssertionError由get()重新抛出
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        es.shutdown();
+        Assert.assertTrue(cache.stats().hitCount() > 0);
+    }
+}
@@ -0,0 +1,98 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class RefreshAheadCacheLoaderTest {
+
+    private final AtomicInteger version = new AtomicInteger();
+
+    private final CacheLoader<CacheKey, CacheValue<InMemoryItem>> versionLoader = new CacheLoader<CacheKey, CacheValue<InMemoryItem>>() {
+        @Override
+        public CacheValue<InMemoryItem> load(CacheKey key) {
+            return new CacheValue<>(new InMemoryItem("v" + version.incrementAndGet(), null), 60L);
+        }
+    };
+
+    @Test
+    public void testServeStaleWhileRefreshing() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        CountDownLatch release = new CountDownLatch(1);
+        ThreadPoolExecutor executor = RefreshAheadCacheLoader.boundedExecutor(1, 4);
+        RefreshAheadCacheLoader<CacheKey, CacheValue<InMemoryItem>> loader = new RefreshAheadCacheLoader<>(
+            new CacheLoader<CacheKey, CacheValue<InMemoryItem>>() {
+                @Override
+                public CacheValue<InMemoryItem> load(CacheKey key) throws Exception {
+                    if (version.get() > 0) {
+                        // 刷新时阻塞，模拟慢后端
+                        release.await();
+                    }
+                    return versionLoader.load(key);
+                }
+            }, executor);
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = RefreshAheadCacheLoader
+            .configure(CacheBuilder.newBuilder().ticker(ticker), 60, TimeUnit.SECONDS, 0.8)
+            .build(loader);
+
+        CacheKey key = new CacheKey("key", "field");
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+
+        ticker.advance(50, TimeUnit.SECONDS);
+        // 触发刷新，但仍返回旧值，且不会重复触发
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+        Assert.assertEquals(1, loader.refreshStartedCount());
+
+        release.countDown();
+        executor.shutdown();
+        Assert.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        Assert.assertEquals("v2", cache.get(key).getV().id);
+        Assert.assertEquals(1, loader.refreshCompletedCount());
+        Assert.assertEquals(0, loader.refreshFailedCount());
+    }
+
+    @Test
+    public void testDroppedRefreshKeepsWriteTime() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        RefreshAheadCacheLoader<CacheKey, CacheValue<InMemoryItem>> loader = new RefreshAheadCacheLoader<>(
+            versionLoader, command -> {
+                throw new RejectedExecutionException("full");
+            });
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> cache = RefreshAheadCacheLoader
+            .configure(CacheBuilder.newBuilder().ticker(ticker), 60, TimeUnit.SECONDS, 0.5)
+            .build(loader);
+
+        CacheKey key = new CacheKey("key", "field");
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+        ticker.advance(40, TimeUnit.SECONDS);
+        // 丢弃的刷新不是失败，读请求仍拿到旧值
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+        Assert.assertEquals(1, loader.refreshDroppedCount());
+        Assert.assertEquals(0, loader.refreshStartedCount());
+        Assert.assertEquals(0, loader.refreshFailedCount());
+        // 写入时间不变，之后的读再次尝试刷新
+        ticker.advance(19, TimeUnit.SECONDS);
+        Assert.assertEquals("v1", cache.get(key).getV().id);
+        Assert.assertEquals(2, loader.refreshDroppedCount());
+        Assert.assertEquals(1, version.get());
+
+        // 距写入已超过lifetime：即使刷新一直被拒绝，entry也照常过期，同步加载新值
+        ticker.advance(2, TimeUnit.SECONDS);
+        Assert.assertEquals("v2", cache.get(key).getV().id);
+        Assert.assertEquals(2, loader.refreshDroppedCount());
+        Assert.assertEquals(2, version.get());
+    }
+}
@@ -0,0 +1,81 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.collect.Lists;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SingleFlightCacheLoaderTest {
+
+    @Test
+    public void testHotKeyLoadedOnce() throws Exception {
+        AtomicInteger backendLoads = new AtomicInteger();
+        CacheLoader<CacheKey, CacheValue<InMemoryItem>> slowLoader = new CacheLoader<CacheKey, CacheValue<InMemoryItem>>() {
+            @Override
+            public CacheValue<InMemoryItem> load(CacheKey key) throws Exception {
+                backendLoads.incrementAndGet();
+                TimeUnit.MILLISECONDS.sleep(50L);
+                return new CacheValue<>(new InMemoryItem(key.getKey(), null), 1L);
+            }
+
+            @Override
+            public Map<CacheKey, CacheValue<InMemoryItem>> loadAll(Iterable<? extends CacheKey> keys) throws Exception {
+                Map<CacheKey, CacheValue<InMemoryItem>> map = new HashMap<>();
+                for (CacheKey key : keys) {
+                    map.put(key, load(key));
+                }
+                return map;
+            }
+        };
+        SingleFlightCacheLoader<CacheKey, CacheValue<InMemoryItem>> loader = new SingleFlightCacheLoader<>(slowLoader);
+        LoadingCache<CacheKey, CacheValue<InMemoryItem>> loadingCache = CacheBuilder.newBuilder().build(loader);
+        Cache<CacheKey, CacheValue<InMemoryItem>> plainCache = CacheBuilder.newBuilder().build();
+
+        CacheKey hot = new CacheKey("hot", "hashStr");
+        int threads = 24;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService es = Executors.newFixedThreadPool(threads);
+        List<Future<CacheValue<InMemoryItem>>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int n = i;
+            futures.add(es.submit(() -> {
+                start.await();
+                switch (n % 3) {
+                    case 0:
+                        return loadingCache.get(hot);
+                    case 1:
+                        return loadingCache.getAll(Lists.newArrayList(hot, new CacheKey("cold" + n, "hashStr"))).get(hot);
+                    default:
+                        return plainCache.get(hot, loader.callable(hot));
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<CacheValue<InMemoryItem>> future : futures) {
+            Assert.assertEquals("hot", future.get().getV().id);
+        }
+        es.shutdown();
+
+        // hot只加载一次，另外每个getAll各带一个cold key
+        Assert.assertEquals(1 + threads / 3, backendLoads.get());
+        Assert.assertTrue(loader.joinCount() > 0);
+    }
+}
@@ -0,0 +1,131 @@
+package net.teaho.guava.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class TinyLfuCacheTest {
+
+    private static CacheValue<InMemoryItem> value(int id) {
+        return new CacheValue<>(new InMemoryItem("" + id, null), 1L);
+    }
+
+    @Test
+    public void testCacheSimpleUsage() throws Exception {
+        Cache<CacheKey, CacheValue<InMemoryItem>> cache = new TinyLfuCache<>(10);
+        CacheKey cacheKey = new CacheKey("key", "field");
+        Assert.assertEquals("1", cache.get(cacheKey, () -> value(1)).getV().id);
+        Assert.assertEquals("1", cache.get(cacheKey, () -> value(2)).getV().id);
+        Assert.assertNull(cache.getIfPresent(new CacheKey("key2", "field2")));
+        cache.invalidate(cacheKey);
+        Assert.assertNull(cache.getIfPresent(cacheKey));
+        Assert.assertEquals(1, cache.stats().hitCount());
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put(new CacheKey("" + i, "hashStr"), value(i));
+            Assert.assertTrue(cache.size() <= 10);
+        }
+    }
+
+    /**
+     * 热点key在一次大范围扫描后仍然留在缓存中，LRU则被全部冲掉
+     */
+    @Test
+    public void testScanResistance() throws Exception {
+        int capacity = 1000;
+        Cache<CacheKey, CacheValue<InMemoryItem>> tinyLfu = new TinyLfuCache<>(capacity);
+        Cache<CacheKey, CacheValue<InMemoryItem>> lru = CacheBuilder.newBuilder()
+            .maximumSize(capacity)
+            .concurrencyLevel(1)
+            .build();
+
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 500; i++) {
+                int id = i;
+                CacheKey key = new CacheKey("hot" + i, "hashStr");
+                tinyLfu.get(key, () -> value(id));
+                lru.get(key, () -> value(id));
+            }
+        }
+        // 一次性扫描10万个只访问一次的key
+        for (int i = 0; i < 100_000; i++) {
+            int id = i;
+            CacheKey key = new CacheKey("scan" + i, "hashStr");
+            tinyLfu.get(key, () -> value(id));
+            lru.get(key, () -> value(id));
+        }
+
+        int tinyLfuHot = 0;
+        int lruHot = 0;
+        for (int i = 0; i < 500; i++) {
+            CacheKey key = new CacheKey("hot" + i, "hashStr");
+            tinyLfuHot += tinyLfu.getIfPresent(key) == null ? 0 : 1;
+            lruHot += lru.getIfPresent(key) == null ? 0 : 1;
+        }
+        Assert.assertEquals(0, lruHot);
+        Assert.assertTrue("hot keys kept: " + tinyLfuHot, tinyLfuHot > 450);
+        Assert.assertTrue(tinyLfu.size() <= capacity);
+    }
+
+    @Test
+    public void testRandomOperations() throws Exception {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(100);
+        for (int i = 0; i < 200_000; i++) {
+            int key = ThreadLocalRandom.current().nextInt(0, 1000);
+            switch (ThreadLocalRandom.current().nextInt(4)) {
+                case 0:
+                    cache.invalidate(key);
+                    break;
+                case 1:
+                    cache.put(key, key);
+                    break;
+                default:
+                    Assert.assertEquals(key, (int) cache.get(key, () -> key));
+            }
+            Assert.assertTrue(cache.size() <= 100);
+        }
+    }
+
+    /**
+     * 读不加锁，多线程读写时value仍然正确，淘汰后大小不超过上限
+     */
+    @Test
+    public void testConcurrentReadWrite() throws Exception {
+        TinyLfuCache<Integer, Integer> cache = new TinyLfuCache<>(500);
+        ExecutorService es = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(es.submit(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    // 偏斜分布：小key访问更频繁
+                    int key = (int) Math.abs(ThreadLocalRandom.current().nextGaussian() * 300);
+                    if (i % 10 == 0) {
+                        cache.put(key, key * 2);
+                    } else {
+                        Assert.assertEquals(key * 2, (int) cache.get(key, () -> key * 2));
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        es.shutdown();
+        Assert.assertTrue(cache.size() <= 500);
+        Assert.assertTrue(cache.stats().hitRate() > 0.5);
+    }
+}
@@ -0,0 +1,91 @@
+package net.teaho.guava.cache;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class VariableExpiryCacheTest {
+
+    private static CacheValue<InMemoryItem> value(String id, long ttlSeconds) {
+        return new CacheValue<>(new InMemoryItem(id, null), ttlSeconds);
+    }
+
+    @Test
+    public void testExpireByEntryTtl() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        VariableExpiryCache<CacheKey, CacheValue<InMemoryItem>> cache = new VariableExpiryCache<>(
+            10_000, v -> v.getTtl() <= 0 ? VariableExpiryCache.NEVER_EXPIRE : TimeUnit.SECONDS.toNanos(v.getTtl()), ticker);
+
+        CacheKey shortKey = new CacheKey("short", "field");
+        CacheKey longKey = new CacheKey("long", "field");
+        CacheKey foreverKey = new CacheKey("forever", "field");
+        cache.put(shortKey, value("short", 1));
+        cache.put(longKey, value("long", 2 * 60 * 60));
+        cache.get(foreverKey, () -> value("forever", 0));
+
+        ticker.advance(2, TimeUnit.SECONDS);
+        cache.cleanUp();
+        Assert.assertNull(cache.getIfPresent(shortKey));
+        Assert.assertNotNull(cache.getIfPresent(longKey));
+        Assert.assertEquals(2, cache.size());
+
+        ticker.advance(2, TimeUnit.HOURS);
+        cache.cleanUp();
+        Assert.assertNull(cache.getIfPresent(longKey));
+        Assert.assertNotNull(cache.getIfPresent(foreverKey));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(2, cache.stats().evictionCount());
+    }
+
+    @Test
+    public void testWheelCascade() {
+        FakeTicker ticker = new FakeTicker();
+        VariableExpiryCache<CacheKey, CacheValue<InMemoryItem>> cache = new VariableExpiryCache<>(
+            100_000, v -> TimeUnit.MILLISECONDS.toNanos(v.getTtl()), ticker);
+        // ttl从1ms到约3天，覆盖时间轮的各层
+        for (int i = 1; i <= 50_000; i++) {
+            long ttlMillis = (long) i * i * 100;
+            cache.put(new CacheKey("" + i, "field"), value("" + i, ttlMillis));
+        }
+
+        long elapsedMillis = 0;
+        for (long step : new long[]{10, 1_000, 60_000, 3_600_000, 86_400_000, 3 * 86_400_000L}) {
+            ticker.advance(step, TimeUnit.MILLISECONDS);
+            elapsedMillis += step;
+            cache.cleanUp();
+            // 时间轮最细的精度是一个约1.07秒的桶
+            long alive = 0;
+            long aliveWithinTick = 0;
+            for (int i = 1; i <= 50_000; i++) {
+                long ttlMillis = (long) i * i * 100;
+                if (ttlMillis > elapsedMillis) {
+                    alive++;
+                }
+                if (ttlMillis > elapsedMillis - 1_100) {
+                    aliveWithinTick++;
+                }
+            }
+            Assert.assertTrue(cache.size() >= alive);
+            Assert.assertTrue(cache.size() <= aliveWithinTick);
+        }
+    }
+
+    @Test
+    public void testReloadAfterExpired() throws Exception {
+        FakeTicker ticker = new FakeTicker();
+        VariableExpiryCache<CacheKey, CacheValue<InMemoryItem>> cache = new VariableExpiryCache<>(
+            10, v -> TimeUnit.SECONDS.toNanos(v.getTtl()), ticker);
+        CacheKey key = new CacheKey("key", "field");
+        Assert.assertEquals("v1", cache.get(key, () -> value("v1", 5)).getV().id);
+        Assert.assertEquals("v1", cache.get(key, () -> value("v2", 5)).getV().id);
+        ticker.advance(6, TimeUnit.SECONDS);
+        Assert.assertEquals("v2", cache.get(key, () -> value("v2", 5)).getV().id);
+        Assert.assertEquals(1, cache.stats().hitCount());
+        Assert.assertEquals(2, cache.stats().missCount());
+    }
+}
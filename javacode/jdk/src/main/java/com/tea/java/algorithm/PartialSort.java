@@ -0,0 +1,275 @@
+package com.tea.java.algorithm;
+
+import com.tea.java.algorithm.quicksort.IntroSort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+
+/**
+ * <p>部分排序：只需要前K个结果时不必排序整个数组
+ *
+ * <ul>
+ *     <li>{@link #nthElement(int[], int)}：快速选择（quickselect），平均O(N)。
+ *     三向切分，切分后第n个位置落在等于轴的一段中即可返回，大量重复元素时也不会退化；
+ *     切分次数超过2lgN时剩余区间改用{@link IntroSort}，最坏O(NlgN)</li>
+ *     <li>{@link #partialSort(int[], int)}：先nthElement(k - 1)把最小的k个元素换到前面，再只排序这k个，O(N + KlgK)</li>
+ *     <li>{@link #topK(Iterator, int, Comparator)}：流式输入，用大小为K的大顶堆保存当前最小的K个元素，
+ *     新元素比堆顶小时替换堆顶。只占用O(K)内存，输入可以边读边处理，O(NlgK)。
+ *     相等的元素保留先到的，结果与稳定排序后取前K个相同</li>
+ * </ul>
+ *
+ * <p>“前K个”均指按比较器升序的前K个，需要最大的K个时传入reversed的比较器。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class PartialSort {
+
+    /**
+     * 小于该长度的区间直接插入排序
+     */
+    private static final int INSERTION_THRESHOLD = 16;
+
+    /**
+     * 重排arr，使arr[n]为排序后位于n的元素，arr[0, n)都不大于它，arr(n, length)都不小于它
+     */
+    public void nthElement(int[] arr, int n) {
+        checkIndex(arr.length, n);
+        int lo = 0;
+        int hi = arr.length;
+        int depthLimit = depthLimit(arr.length);
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                new IntroSort().sort(arr, lo, hi);
+                return;
+            }
+            int pivot = medianOf3(arr[lo], arr[(lo + hi) >>> 1], arr[hi - 1]);
+            // a[lo, lt) < pivot, a[lt, i) == pivot, a[gt, hi) > pivot
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i < gt) {
+                int v = arr[i];
+                if (v < pivot) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (v > pivot) {
+                    arr[i] = arr[--gt];
+                    arr[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (n < lt) {
+                hi = lt;
+            } else if (n >= gt) {
+                lo = gt;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, lo, hi);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void nthElement(Comparable[] arr, int n) {
+        nthElement(arr, n, Comparator.naturalOrder());
+    }
+
+    public <T> void nthElement(T[] arr, int n, Comparator<? super T> c) {
+        checkIndex(arr.length, n);
+        int lo = 0;
+        int hi = arr.length;
+        int depthLimit = depthLimit(arr.length);
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                new IntroSort().sort(arr, lo, hi, c);
+                return;
+            }
+            T pivot = medianOf3(arr[lo], arr[(lo + hi) >>> 1], arr[hi - 1], c);
+            int lt = lo;
+            int gt = hi;
+            int i = lo;
+            while (i < gt) {
+                T v = arr[i];
+                int cmp = c.compare(v, pivot);
+                if (cmp < 0) {
+                    arr[i++] = arr[lt];
+                    arr[lt++] = v;
+                } else if (cmp > 0) {
+                    arr[i] = arr[--gt];
+                    arr[gt] = v;
+                } else {
+                    i++;
+                }
+            }
+            if (n < lt) {
+                hi = lt;
+            } else if (n >= gt) {
+                lo = gt;
+            } else {
+                return;
+            }
+        }
+        insertionSort(arr, lo, hi, c);
+    }
+
+    /**
+     * 把最小的k个元素按升序放到arr[0, k)，arr[k, length)的顺序不确定
+     */
+    public void partialSort(int[] arr, int k) {
+        if (k <= 0) {
+            return;
+        }
+        if (k >= arr.length) {
+            new IntroSort().sort(arr);
+            return;
+        }
+        nthElement(arr, k - 1);
+        new IntroSort().sort(arr, 0, k - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public void partialSort(Comparable[] arr, int k) {
+        partialSort(arr, k, Comparator.naturalOrder());
+    }
+
+    public <T> void partialSort(T[] arr, int k, Comparator<? super T> c) {
+        if (k <= 0) {
+            return;
+        }
+        if (k >= arr.length) {
+            new IntroSort().sort(arr, c);
+            return;
+        }
+        nthElement(arr, k - 1, c);
+        new IntroSort().sort(arr, 0, k - 1, c);
+    }
+
+    /**
+     * 读完it，返回其中最小的k个元素（升序）
+     */
+    public <T> List<T> topK(Iterator<? extends T> it, int k, Comparator<? super T> c) {
+        BoundedHeap<T> heap = new BoundedHeap<>(k, c);
+        while (it.hasNext()) {
+            heap.offer(it.next());
+        }
+        return heap.toSortedList();
+    }
+
+    public <T> List<T> topK(Spliterator<? extends T> spliterator, int k, Comparator<? super T> c) {
+        BoundedHeap<T> heap = new BoundedHeap<>(k, c);
+        spliterator.forEachRemaining(heap::offer);
+        return heap.toSortedList();
+    }
+
+    /**
+     * 保存最小的k个元素的大顶堆，堆顶是其中最大的（相等时最后到达的），新元素严格小于堆顶才替换
+     */
+    private static final class BoundedHeap<T> {
+
+        private final int k;
+        private final Comparator<Entry<T>> order;
+        private final PriorityQueue<Entry<T>> queue;
+        private long seq;
+
+        BoundedHeap(int k, Comparator<? super T> c) {
+            if (k < 0) {
+                throw new IllegalArgumentException("k must not be negative: " + k);
+            }
+            this.k = k;
+            // 比较器相等时按到达顺序，保证结果与稳定排序一致
+            Comparator<Entry<T>> byValue = (a, b) -> c.compare(a.value, b.value);
+            this.order = byValue.thenComparingLong(e -> e.seq);
+            this.queue = new PriorityQueue<>(Math.max(1, Math.min(k, 1 << 16)), order.reversed());
+        }
+
+        void offer(T value) {
+            if (queue.size() < k) {
+                queue.add(new Entry<>(value, seq++));
+                return;
+            }
+            if (k == 0) {
+                return;
+            }
+            Entry<T> entry = new Entry<>(value, seq++);
+            if (order.compare(entry, queue.peek()) < 0) {
+                queue.poll();
+                queue.add(entry);
+            }
+        }
+
+        List<T> toSortedList() {
+            List<Entry<T>> entries = new ArrayList<>(queue);
+            entries.sort(order);
+            List<T> result = new ArrayList<>(entries.size());
+            for (Entry<T> entry : entries) {
+                result.add(entry.value);
+            }
+            return result;
+        }
+    }
+
+    private static final class Entry<T> {
+
+        private final T value;
+        private final long seq;
+
+        Entry(T value, long seq) {
+            this.value = value;
+            this.seq = seq;
+        }
+    }
+
+    private static int depthLimit(int length) {
+        return 2 * (32 - Integer.numberOfLeadingZeros(length));
+    }
+
+    private static int medianOf3(int a, int b, int c) {
+        if (a < b) {
+            return b < c ? b : a < c ? c : a;
+        }
+        return a < c ? a : b < c ? c : b;
+    }
+
+    private static <T> T medianOf3(T a, T b, T c, Comparator<? super T> cmp) {
+        if (cmp.compare(a, b) < 0) {
+            return cmp.compare(b, c) < 0 ? b : cmp.compare(a, c) < 0 ? c : a;
+        }
+        return cmp.compare(a, c) < 0 ? a : cmp.compare(b, c) < 0 ? c : b;
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int cursor = a[i];
+            int j = i - 1;
+            while (j >= lo && cursor < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static <T> void insertionSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i < hi; i++) {
+            T cursor = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(cursor, a[j]) < 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static void checkIndex(int length, int n) {
+        if (n < 0 || n >= length) {
+            throw new ArrayIndexOutOfBoundsException(n);
+        }
+    }
+}
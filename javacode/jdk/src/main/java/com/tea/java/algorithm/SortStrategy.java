@@ -0,0 +1,98 @@
+package com.tea.java.algorithm;
+
+import com.tea.java.algorithm.mergesort.NaturalMergeSort;
+import com.tea.java.algorithm.mergesort.ParallelMergeSort;
+import com.tea.java.algorithm.quicksort.DualPivotQuickSort;
+import com.tea.java.algorithm.quicksort.IntroSort;
+
+import java.util.Comparator;
+
+/**
+ * <p>排序算法的选择
+ *
+ * <p>按数组长度、元素类型和是否要求稳定选择实现：
+ * <ul>
+ *     <li>基本类型：相等的值无法区分，稳定与否没有意义，用原地的{@link DualPivotQuickSort}；
+ *     int[]足够大且有多个CPU时用{@link ParallelMergeSort}</li>
+ *     <li>对象且要求稳定：{@link NaturalMergeSort}，小数组内部即是二分插入排序，部分有序时接近O(N)；
+ *     足够大且有多个CPU时用{@link ParallelMergeSort}</li>
+ *     <li>对象且不要求稳定：原地的{@link IntroSort}，不需要O(N)的辅助数组，最坏O(NlgN)</li>
+ * </ul>
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SortStrategy {
+
+    public enum Algorithm {
+        DUAL_PIVOT_QUICK,
+        INTRO,
+        NATURAL_MERGE,
+        PARALLEL_MERGE
+    }
+
+    /**
+     * 达到该长度才考虑并行，分出的子任务不小于ParallelMergeSort的默认粒度
+     */
+    public static final int PARALLEL_THRESHOLD = 1 << 17;
+
+    private final int parallelism;
+
+    public SortStrategy() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism 可用的CPU数，1表示不使用并行排序
+     */
+    public SortStrategy(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @param length      数组长度
+     * @param elementType 元素类型，基本类型传int.class、long.class等
+     * @param stable      是否要求相等元素保持原来的先后顺序
+     */
+    public Algorithm choose(int length, Class<?> elementType, boolean stable) {
+        boolean parallel = parallelism > 1 && length >= PARALLEL_THRESHOLD;
+        if (elementType.isPrimitive()) {
+            // 目前只有int[]有并行实现
+            return parallel && elementType == int.class ? Algorithm.PARALLEL_MERGE : Algorithm.DUAL_PIVOT_QUICK;
+        }
+        if (!stable) {
+            return Algorithm.INTRO;
+        }
+        return parallel ? Algorithm.PARALLEL_MERGE : Algorithm.NATURAL_MERGE;
+    }
+
+    public void sort(int[] arr) {
+        if (choose(arr.length, int.class, false) == Algorithm.PARALLEL_MERGE) {
+            new ParallelMergeSort().sort(arr);
+        } else {
+            new DualPivotQuickSort().sort(arr);
+        }
+    }
+
+    public void sort(long[] arr) {
+        new DualPivotQuickSort().sort(arr);
+    }
+
+    public void sort(double[] arr) {
+        new DualPivotQuickSort().sort(arr);
+    }
+
+    public <T> void sort(T[] arr, Comparator<? super T> c, boolean stable) {
+        switch (choose(arr.length, arr.getClass().getComponentType(), stable)) {
+            case INTRO:
+                new IntroSort().sort(arr, c);
+                break;
+            case PARALLEL_MERGE:
+                new ParallelMergeSort().sort(arr, c);
+                break;
+            default:
+                new NaturalMergeSort().sort(arr, c);
+                break;
+        }
+    }
+}
@@ -0,0 +1,432 @@
+package com.tea.java.algorithm.externalsort;
+
+import com.tea.java.algorithm.mergesort.TunedMergeSort;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * <p>外部归并排序，排序大于堆内存的定长记录文件
+ *
+ * <p>内存放不下的数据不能整体读成数组（参考{@link com.tea.outofmemory.RequestedArraySizeExceedsVMLimitMain}），分两个阶段：
+ * <ul>
+ *     <li>生成run：每次读入一块到堆内存，对记录下标做稳定的归并排序（记录本身不移动），按顺序通过FileChannel写出到临时文件。
+ *     下标和归并的辅助空间是两个int[]，每条记录额外8字节，与记录本身一起不超过memoryBudget；
+ *     不能用Integer[]加Comparator排序，装箱后每条记录要多出二三十字节，实际占用会是预算的几倍</li>
+ *     <li>k路归并：用败者树从k个run中选出最小的记录，每次调整只需lgk次比较。每个run有两块direct buffer，
+ *     一块正在被归并消费时，另一块由后台线程预读下一段（double buffering），读盘与归并重叠</li>
+ * </ul>
+ * run数大于一次能归并的路数（memoryBudget / (2 * mergeBufferSize)）时先归并成更长的run，再做最后一轮。
+ *
+ * <p>整体稳定：相等记录保持在输入文件中的先后顺序。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ExternalMergeSort {
+
+    public static final int DEFAULT_MERGE_BUFFER_SIZE = 1 << 20;
+
+    private final int recordSize;
+    private final RecordComparator comparator;
+    private final long memoryBudget;
+    private final int mergeBufferSize;
+    private final File tempDir;
+
+    /** 最近一次排序生成的初始run个数 */
+    int runCount;
+
+    public ExternalMergeSort(int recordSize, RecordComparator comparator, long memoryBudget, File tempDir) {
+        this(recordSize, comparator, memoryBudget, DEFAULT_MERGE_BUFFER_SIZE, tempDir);
+    }
+
+    /**
+     * @param recordSize      每条记录的字节数
+     * @param comparator      记录的比较方式
+     * @param memoryBudget    生成run时每块记录及其下标数组占用的堆内存上限，同时也是归并阶段所有buffer的总大小上限
+     * @param mergeBufferSize 归并阶段每块读buffer的大小，会向下取整为recordSize的整数倍
+     * @param tempDir         存放run的临时目录，null表示系统临时目录
+     */
+    public ExternalMergeSort(int recordSize, RecordComparator comparator, long memoryBudget, int mergeBufferSize,
+                             File tempDir) {
+        if (recordSize <= 0) {
+            throw new IllegalArgumentException("recordSize must be positive: " + recordSize);
+        }
+        if (memoryBudget < recordSize) {
+            throw new IllegalArgumentException("memoryBudget is smaller than one record: " + memoryBudget);
+        }
+        this.recordSize = recordSize;
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.mergeBufferSize = Math.max(1, mergeBufferSize / recordSize) * recordSize;
+        this.tempDir = tempDir;
+    }
+
+    public void sort(Path input, Path output) throws IOException {
+        List<Path> runs = generateRuns(input);
+        runCount = runs.size();
+        if (runs.isEmpty()) {
+            Files.write(output, new byte[0]);
+            return;
+        }
+
+        int fanIn = (int) Math.max(2, Math.min(Integer.MAX_VALUE, memoryBudget / (2L * mergeBufferSize)));
+        ExecutorService prefetcher = Executors.newFixedThreadPool(Math.min(fanIn, 4), r -> {
+            Thread thread = new Thread(r, "external-sort-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // 每轮把相邻的fanIn个run合并为一个，合并结果保持原来的先后顺序，排序才是稳定的
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int from = 0; from < runs.size(); from += fanIn) {
+                    List<Path> group = runs.subList(from, Math.min(from + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path run = createTempFile();
+                    merge(new ArrayList<>(group), run, prefetcher);
+                    merged.add(run);
+                }
+                runs = merged;
+            }
+            merge(runs, output, prefetcher);
+        } finally {
+            prefetcher.shutdownNow();
+        }
+    }
+
+    private List<Path> generateRuns(Path input) throws IOException {
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ)) {
+            long size = in.size();
+            if (size % recordSize != 0) {
+                throw new IllegalArgumentException("file size " + size + " is not a multiple of recordSize " + recordSize);
+            }
+            int chunkRecords = chunkRecords();
+            ByteBuffer chunk = ByteBuffer.allocate((int) Math.min((long) chunkRecords * recordSize, size));
+            int[] order = new int[chunk.capacity() / recordSize];
+            int[] aux = new int[order.length];
+            ByteBuffer out = ByteBuffer.allocateDirect(mergeBufferSize);
+
+            long position = 0;
+            while (position < size) {
+                chunk.clear();
+                readFully(in, chunk, position);
+                position += chunk.limit();
+                int records = chunk.limit() / recordSize;
+
+                // 只排序下标，记录本身不移动
+                for (int i = 0; i < records; i++) {
+                    order[i] = i;
+                }
+                int[] sorted = sortIndexes(chunk, order, aux, records);
+
+                Path run = createTempFile();
+                try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                    byte[] array = chunk.array();
+                    out.clear();
+                    for (int i = 0; i < records; i++) {
+                        if (out.remaining() < recordSize) {
+                            out.flip();
+                            writeFully(channel, out);
+                            out.clear();
+                        }
+                        out.put(array, sorted[i] * recordSize, recordSize);
+                    }
+                    out.flip();
+                    writeFully(channel, out);
+                }
+                runs.add(run);
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(runs);
+            throw e;
+        }
+        return runs;
+    }
+
+    /**
+     * 每个run的记录数：每条记录占recordSize字节，加上下标和辅助数组各4字节
+     */
+    int chunkRecords() {
+        long perRecord = recordSize + 2L * Integer.BYTES;
+        return (int) Math.max(1, Math.min(memoryBudget / perRecord, (Integer.MAX_VALUE - 8) / recordSize));
+    }
+
+    /**
+     * 按记录排序下标order[0, n)，稳定：每{@link TunedMergeSort#INSERTION_THRESHOLD}个一段插入排序，
+     * 再自底向上两两归并，order和aux交替作为源和目标
+     *
+     * @return 排好序的数组，为order或aux
+     */
+    private int[] sortIndexes(ByteBuffer data, int[] order, int[] aux, int n) {
+        int run = TunedMergeSort.INSERTION_THRESHOLD;
+        for (int low = 0; low < n; low += run) {
+            insertionSort(data, order, low, Math.min(low + run, n));
+        }
+        int[] src = order;
+        int[] dest = aux;
+        for (int width = run; width < n; width <<= 1) {
+            for (int low = 0; low < n; low += width << 1) {
+                int mid = Math.min(low + width, n);
+                int high = Math.min(low + (width << 1), n);
+                // 只有一段，或左段最大值不大于右段最小值，直接复制
+                if (mid >= high || compareRecords(data, src[mid - 1], src[mid]) <= 0) {
+                    System.arraycopy(src, low, dest, low, high - low);
+                    continue;
+                }
+                for (int i = low, p = low, q = mid; i < high; i++) {
+                    if (q >= high || p < mid && compareRecords(data, src[p], src[q]) <= 0) {
+                        dest[i] = src[p++];
+                    } else {
+                        dest[i] = src[q++];
+                    }
+                }
+            }
+            int[] t = src;
+            src = dest;
+            dest = t;
+        }
+        return src;
+    }
+
+    private void insertionSort(ByteBuffer data, int[] order, int low, int high) {
+        for (int i = low + 1; i < high; i++) {
+            int cursor = order[i];
+            int j = i - 1;
+            while (j >= low && compareRecords(data, cursor, order[j]) < 0) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = cursor;
+        }
+    }
+
+    private int compareRecords(ByteBuffer data, int a, int b) {
+        return comparator.compare(data, a * recordSize, data, b * recordSize);
+    }
+
+    private void merge(List<Path> runs, Path output, ExecutorService prefetcher) throws IOException {
+        List<RunReader> readers = new ArrayList<>(runs.size());
+        try (FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path run : runs) {
+                readers.add(new RunReader(run, prefetcher));
+            }
+            LoserTree tree = new LoserTree(readers);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(mergeBufferSize);
+            int winner;
+            while ((winner = tree.winner()) >= 0) {
+                RunReader reader = readers.get(winner);
+                if (buffer.remaining() < recordSize) {
+                    buffer.flip();
+                    writeFully(out, buffer);
+                    buffer.clear();
+                }
+                ByteBuffer record = reader.current.duplicate();
+                record.limit(record.position() + recordSize);
+                buffer.put(record);
+                reader.advance();
+                tree.replay(winner);
+            }
+            buffer.flip();
+            writeFully(out, buffer);
+        } finally {
+            for (RunReader reader : readers) {
+                reader.close();
+            }
+            deleteQuietly(runs);
+        }
+    }
+
+    /**
+     * 败者树：tree[0]为当前最小记录所在的run，tree[1 .. k-1]保存各次比赛的败者。
+     * 取走最小记录后只需沿该叶子到根重赛一次
+     */
+    private final class LoserTree {
+        private final List<RunReader> readers;
+        private final int k;
+        private final int[] tree;
+
+        LoserTree(List<RunReader> readers) {
+            this.readers = readers;
+            this.k = readers.size();
+            this.tree = new int[k];
+            // -1代表比所有记录都小的虚拟叶子，所有叶子入场后会被全部替换掉
+            Arrays.fill(tree, -1);
+            for (int i = k - 1; i >= 0; i--) {
+                replay(i);
+            }
+        }
+
+        /**
+         * @return 最小记录所在的run，所有run都读完时返回-1
+         */
+        int winner() {
+            int winner = tree[0];
+            return readers.get(winner).exhausted() ? -1 : winner;
+        }
+
+        void replay(int leaf) {
+            int winner = leaf;
+            for (int parent = (leaf + k) >> 1; parent > 0; parent >>= 1) {
+                if (beats(tree[parent], winner)) {
+                    int loser = winner;
+                    winner = tree[parent];
+                    tree[parent] = loser;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        /**
+         * a是否排在b前面；读完的run视为无穷大，相等时编号小（更早生成）的run优先
+         */
+        private boolean beats(int a, int b) {
+            if (a < 0) {
+                return true;
+            }
+            if (b < 0) {
+                return false;
+            }
+            RunReader ra = readers.get(a);
+            RunReader rb = readers.get(b);
+            if (ra.exhausted()) {
+                return false;
+            }
+            if (rb.exhausted()) {
+                return true;
+            }
+            int cmp = comparator.compare(ra.current, ra.current.position(), rb.current, rb.current.position());
+            return cmp < 0 || cmp == 0 && a < b;
+        }
+    }
+
+    /**
+     * 按顺序读取一个run，两块buffer交替：current被消费时next在后台线程中填充
+     */
+    private final class RunReader {
+        private final FileChannel channel;
+        private final long size;
+        private final ExecutorService prefetcher;
+        private long readPosition;
+
+        ByteBuffer current;
+        private ByteBuffer spare;
+        private Future<ByteBuffer> next;
+
+        RunReader(Path run, ExecutorService prefetcher) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.size = channel.size();
+            this.prefetcher = prefetcher;
+            int capacity = (int) Math.max(recordSize, Math.min(mergeBufferSize, size));
+            current = ByteBuffer.allocateDirect(capacity);
+            spare = ByteBuffer.allocateDirect(capacity);
+            fill(current);
+            prefetch();
+        }
+
+        boolean exhausted() {
+            return !current.hasRemaining();
+        }
+
+        void advance() {
+            current.position(current.position() + recordSize);
+            if (!current.hasRemaining() && next != null) {
+                ByteBuffer filled;
+                try {
+                    filled = next.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                } catch (ExecutionException e) {
+                    throw new UncheckedIOException(new IOException(e.getCause()));
+                }
+                spare = current;
+                current = filled;
+                prefetch();
+            }
+        }
+
+        private void prefetch() {
+            if (readPosition >= size) {
+                next = null;
+                return;
+            }
+            ByteBuffer target = spare;
+            next = prefetcher.submit(() -> {
+                fill(target);
+                return target;
+            });
+        }
+
+        /**
+         * 读满buffer（或读到文件末尾）并flip，readPosition只在这里推进，且同一时刻只有一个填充任务
+         */
+        private void fill(ByteBuffer buffer) throws IOException {
+            buffer.clear();
+            if (size - readPosition < buffer.capacity()) {
+                buffer.limit((int) (size - readPosition));
+            }
+            readFully(channel, buffer, readPosition);
+            readPosition += buffer.limit();
+        }
+
+        void close() throws IOException {
+            if (next != null) {
+                next.cancel(false);
+            }
+            channel.close();
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        if (buffer.limit() > channel.size() - position) {
+            buffer.limit((int) (channel.size() - position));
+        }
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) {
+                throw new IOException("unexpected end of file at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private Path createTempFile() throws IOException {
+        return tempDir == null ? Files.createTempFile("run-", ".tmp")
+            : Files.createTempFile(tempDir.toPath(), "run-", ".tmp");
+    }
+
+    private static void deleteQuietly(List<Path> files) {
+        for (Path file : files) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ignored) {
+                // 临时文件删除失败不影响结果
+            }
+        }
+    }
+}
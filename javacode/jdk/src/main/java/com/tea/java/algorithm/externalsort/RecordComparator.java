@@ -0,0 +1,39 @@
+package com.tea.java.algorithm.externalsort;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>定长记录的比较，直接在buffer上比较，不为每条记录创建对象
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+@FunctionalInterface
+public interface RecordComparator {
+
+    /**
+     * @param left        左记录所在的buffer
+     * @param leftOffset  左记录在buffer中的起始位置（绝对位置）
+     * @param right       右记录所在的buffer
+     * @param rightOffset 右记录在buffer中的起始位置（绝对位置）
+     */
+    int compare(ByteBuffer left, int leftOffset, ByteBuffer right, int rightOffset);
+
+    /**
+     * 按记录中[keyOffset, keyOffset + keyLength)的字节做无符号字典序比较，
+     * 大端写入的非负整数、ASCII字符串都可以直接用这种方式排序
+     */
+    static RecordComparator lexicographic(int keyOffset, int keyLength) {
+        return (left, leftOffset, right, rightOffset) -> {
+            int l = leftOffset + keyOffset;
+            int r = rightOffset + keyOffset;
+            for (int i = 0; i < keyLength; i++) {
+                int cmp = (left.get(l + i) & 0xff) - (right.get(r + i) & 0xff);
+                if (cmp != 0) {
+                    return cmp;
+                }
+            }
+            return 0;
+        };
+    }
+}
@@ -0,0 +1,85 @@
+package com.tea.java.algorithm.insertionsort;
+
+import java.util.Comparator;
+
+/**
+ * <p>二分插入排序
+ *
+ * <p>{@link InsertionSort}边比较边逐个后移，比较次数O(N^2)。这里先在已排好的前缀中二分查找插入位置，
+ * 比较次数降到O(NlgN)，再用System.arraycopy整块后移。比较代价高（Comparator、compareTo虚调用）时收益明显，
+ * 适合作为归并排序等混合排序的小区间排序。
+ *
+ * <p>查找的是第一个大于当前元素的位置，相等元素保持原顺序，是稳定排序。区间为[lo, hi)。
+ *
+ * <p>时间复杂度：比较O(NlgN)，移动O(N^2)
+ * <p>空间复杂度：O(1)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class BinaryInsertionSort {
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr) {
+        sort(arr, 0, arr.length, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr, int lo, int hi) {
+        sort(arr, lo, hi, Comparator.naturalOrder());
+    }
+
+    public <T> void sort(T[] arr, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i < hi; i++) {
+            T cursor = arr[i];
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(cursor, arr[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = cursor;
+        }
+    }
+
+    public void sort(int[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int cursor = arr[i];
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (cursor < arr[mid]) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = cursor;
+        }
+    }
+
+    public void sort(long[] arr, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            long cursor = arr[i];
+            int left = lo;
+            int right = i;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (cursor < arr[mid]) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(arr, left, arr, left + 1, i - left);
+            arr[left] = cursor;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.tea.java.algorithm.insertionsort;
+
+import java.util.Comparator;
+
+/**
+ * <p>带哨兵的插入排序
+ *
+ * <p>{@link InsertionSort}内循环每次后移都要判断是否到了数组开头（j-- == 0）。
+ * 这里先把区间最小值移到最前面作为哨兵，之后任何元素向前移动都会在哨兵处停下，内循环只剩一次比较。
+ * 移动最小值时把它前面的元素整体后移一位（而不是交换），取的是第一个最小值，因此仍是稳定排序。
+ *
+ * <p>区间为[lo, hi)。
+ *
+ * <p>时间复杂度：O(N)~O(N^2)
+ * <p>空间复杂度：O(1)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SentinelInsertionSort {
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr) {
+        sort(arr, 0, arr.length, Comparator.naturalOrder());
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr, int lo, int hi) {
+        sort(arr, lo, hi, Comparator.naturalOrder());
+    }
+
+    public <T> void sort(T[] arr, int lo, int hi, Comparator<? super T> c) {
+        if (hi - lo < 2) {
+            return;
+        }
+        int min = lo;
+        for (int i = lo + 1; i < hi; i++) {
+            if (c.compare(arr[i], arr[min]) < 0) {
+                min = i;
+            }
+        }
+        T sentinel = arr[min];
+        System.arraycopy(arr, lo, arr, lo + 1, min - lo);
+        arr[lo] = sentinel;
+
+        for (int i = lo + 2; i < hi; i++) {
+            T cursor = arr[i];
+            int j = i - 1;
+            while (c.compare(cursor, arr[j]) < 0) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = cursor;
+        }
+    }
+
+    public void sort(int[] arr, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+        int min = lo;
+        for (int i = lo + 1; i < hi; i++) {
+            if (arr[i] < arr[min]) {
+                min = i;
+            }
+        }
+        int sentinel = arr[min];
+        System.arraycopy(arr, lo, arr, lo + 1, min - lo);
+        arr[lo] = sentinel;
+
+        for (int i = lo + 2; i < hi; i++) {
+            int cursor = arr[i];
+            int j = i - 1;
+            while (cursor < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = cursor;
+        }
+    }
+
+    public void sort(long[] arr, int lo, int hi) {
+        if (hi - lo < 2) {
+            return;
+        }
+        int min = lo;
+        for (int i = lo + 1; i < hi; i++) {
+            if (arr[i] < arr[min]) {
+                min = i;
+            }
+        }
+        long sentinel = arr[min];
+        System.arraycopy(arr, lo, arr, lo + 1, min - lo);
+        arr[lo] = sentinel;
+
+        for (int i = lo + 2; i < hi; i++) {
+            long cursor = arr[i];
+            int j = i - 1;
+            while (cursor < arr[j]) {
+                arr[j + 1] = arr[j];
+                j--;
+            }
+            arr[j + 1] = cursor;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.tea.java.algorithm.mergesort;
 
+import com.tea.java.algorithm.insertionsort.BinaryInsertionSort;
+
 /**
  *  <p>归并排序
  *
  *  <p>自顶向下
  *
+ *  <p>可以指定insertionCutoff，长度不超过它的区间改用{@link BinaryInsertionSort}，省掉小区间上的递归和复制
+ *
  *  <p>时间复杂度: O(1/2NlgN)到O(NlgN)
  *  <p>空间复杂度: O(N)
  *
@@ -12,6 +16,20 @@ package com.tea.java.algorithm.mergesort;
  */
 public class MergeSort1 {
 
+    private final int insertionCutoff;
+    private final BinaryInsertionSort insertionSort = new BinaryInsertionSort();
+
+    public MergeSort1() {
+        this(0);
+    }
+
+    /**
+     * @param insertionCutoff 区间长度不超过该值时改用插入排序，0表示一直归并到单个元素
+     */
+    public MergeSort1(int insertionCutoff) {
+        this.insertionCutoff = insertionCutoff;
+    }
+
     public void sort(Comparable[] arr) {
         Comparable[] temp = new Comparable[arr.length];
 
@@ -23,6 +41,10 @@ public class MergeSort1 {
         if (lf >= rt) {
             return;
         }
+        if (rt - lf + 1 <= insertionCutoff) {
+            insertionSort.sort(arr, lf, rt + 1);
+            return;
+        }
         int mid = (lf + rt) / 2;
         //左边
         sort(arr, lf, mid, temp);
@@ -44,7 +66,7 @@ public class MergeSort1 {
                 arr[k] = temp[j++];
             } else if(j > rt) {
                 arr[k] = temp[i++];
-            } else if (temp[i].compareTo(temp[j]) < 0) {
+            } else if (temp[i].compareTo(temp[j]) <= 0) {
                 arr[k] = temp[i++];
             } else {
                 arr[k] = temp[j++];
@@ -1,10 +1,14 @@
 package com.tea.java.algorithm.mergesort;
 
+import com.tea.java.algorithm.insertionsort.BinaryInsertionSort;
+
 /**
  * <p>归并排序
  *
  * <p>自底向上的方式
  *
+ * <p>可以指定insertionCutoff，先用{@link BinaryInsertionSort}把每insertionCutoff个元素排好，再从这个宽度开始两两归并
+ *
  *  <p>时间复杂度: O(1/2NlgN)到O(NlgN)
  *  <p>空间复杂度: O(N)
  *
@@ -12,14 +16,32 @@ package com.tea.java.algorithm.mergesort;
  */
 public class MergeSort2 {
 
+    private final int insertionCutoff;
+    private final BinaryInsertionSort insertionSort = new BinaryInsertionSort();
+
+    public MergeSort2() {
+        this(1);
+    }
+
+    /**
+     * @param insertionCutoff 初始有序块的宽度，1表示从单个元素开始归并
+     */
+    public MergeSort2(int insertionCutoff) {
+        this.insertionCutoff = Math.max(1, insertionCutoff);
+    }
 
     public void sort(Comparable[] arr) {
 
         //进行lgN此两两归并
         int len = arr.length;
         Comparable[] temp = new Comparable[arr.length];
+        if (insertionCutoff > 1) {
+            for (int i = 0; i < len; i += insertionCutoff) {
+                insertionSort.sort(arr, i, Math.min(i + insertionCutoff, len));
+            }
+        }
         //sz为划分子数组的长度
-        for (int sz = 1; sz < len; sz += sz) {
+        for (int sz = insertionCutoff; sz < len; sz += sz) {
             for (int i = 0; i < len - sz; i += (sz + sz)) {
                 merge(arr, i, i + sz - 1, Math.min(i + sz + sz - 1, len - 1), temp);
             }
@@ -40,7 +62,7 @@ public class MergeSort2 {
                 arr[k] = temp[j++];
             } else if(j > rt) {
                 arr[k] = temp[i++];
-            } else if (temp[i].compareTo(temp[j]) < 0) {
+            } else if (temp[i].compareTo(temp[j]) <= 0) {
                 arr[k] = temp[i++];
             } else {
                 arr[k] = temp[j++];
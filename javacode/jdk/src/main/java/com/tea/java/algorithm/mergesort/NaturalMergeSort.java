@@ -0,0 +1,513 @@
+package com.tea.java.algorithm.mergesort;
+
+import java.lang.reflect.Array;
+import java.util.Comparator;
+
+/**
+ * <p>归并排序
+ *
+ * <p>自适应的自然归并（TimSort的做法）。{@link MergeSort2}不管输入是否已部分有序，都按1, 2, 4 ...的宽度归并，
+ * 每次merge都把整段复制到temp。这里：
+ * <ul>
+ *     <li>从左到右找出自然有序的run（非递减，或严格递减后原地翻转），不足minRun的用二分插入排序补齐到minRun</li>
+ *     <li>run入栈，维持runLen[n-2] &gt; runLen[n-1] + runLen[n]且runLen[n-1] &gt; runLen[n]，
+ *     不满足时归并相邻的run，保证归并是平衡的，栈深度为O(lgN)</li>
+ *     <li>归并前若左run末尾不大于右run开头，直接跳过；否则先用galloping去掉两端已经在最终位置的元素，
+ *     只把较短的一段复制到临时数组</li>
+ *     <li>归并中某一边连续胜出minGallop次后进入galloping模式，用指数+二分查找整块搬移</li>
+ * </ul>
+ *
+ * <p>已有序或逆序的输入只需N-1次比较，接近有序（少量乱序、多段有序拼接）的输入接近O(N)。稳定排序。
+ *
+ *  <p>时间复杂度: O(N)到O(NlgN)
+ *  <p>空间复杂度: O(N)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class NaturalMergeSort {
+
+    /**
+     * 小于该长度的数组直接用二分插入排序
+     */
+    static final int MIN_MERGE = 32;
+
+    /**
+     * 进入galloping模式的初始阈值
+     */
+    static final int MIN_GALLOP = 7;
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr) {
+        sort(arr, 0, arr.length, Comparator.naturalOrder());
+    }
+
+    public <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length, c);
+    }
+
+    public <T> void sort(T[] arr, int fromIndex, int toIndex, Comparator<? super T> c) {
+        TunedMergeSort.rangeCheck(arr.length, fromIndex, toIndex);
+        int remaining = toIndex - fromIndex;
+        if (remaining < 2) {
+            return;
+        }
+        if (remaining < MIN_MERGE) {
+            int initRunLen = countRunAndMakeAscending(arr, fromIndex, toIndex, c);
+            binarySort(arr, fromIndex, toIndex, fromIndex + initRunLen, c);
+            return;
+        }
+        new Merger<>(arr, c).sort(fromIndex, toIndex);
+    }
+
+    /**
+     * 一次排序的状态：run栈、临时数组和当前的galloping阈值
+     */
+    private static final class Merger<T> {
+        private final T[] a;
+        private final Comparator<? super T> c;
+        private T[] tmp;
+        private int minGallop = MIN_GALLOP;
+
+        private final int[] runBase = new int[49];
+        private final int[] runLen = new int[49];
+        private int stackSize;
+
+        Merger(T[] a, Comparator<? super T> c) {
+            this.a = a;
+            this.c = c;
+        }
+
+        void sort(int lo, int hi) {
+            int remaining = hi - lo;
+            int minRun = minRunLength(remaining);
+            do {
+                int runLength = countRunAndMakeAscending(a, lo, hi, c);
+                if (runLength < minRun) {
+                    int force = Math.min(remaining, minRun);
+                    binarySort(a, lo, lo + force, lo + runLength, c);
+                    runLength = force;
+                }
+                runBase[stackSize] = lo;
+                runLen[stackSize] = runLength;
+                stackSize++;
+                mergeCollapse();
+
+                lo += runLength;
+                remaining -= runLength;
+            } while (remaining != 0);
+
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] < runLen[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 栈顶的run不满足不变式时归并，较短的一侧先合并
+         */
+        private void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLen[n - 1] <= runLen[n] + runLen[n + 1]
+                    || n > 1 && runLen[n - 2] <= runLen[n] + runLen[n - 1]) {
+                    if (runLen[n - 1] < runLen[n + 1]) {
+                        n--;
+                    }
+                } else if (runLen[n] > runLen[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        /**
+         * 归并栈中第i和i+1个run
+         */
+        private void mergeAt(int i) {
+            int base1 = runBase[i];
+            int len1 = runLen[i];
+            int base2 = runBase[i + 1];
+            int len2 = runLen[i + 1];
+
+            runLen[i] = len1 + len2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLen[i + 1] = runLen[i + 2];
+            }
+            stackSize--;
+
+            // 两个run已经整体有序
+            if (c.compare(a[base2 - 1], a[base2]) <= 0) {
+                return;
+            }
+            // run1中不大于run2第一个元素的前缀已在最终位置
+            int k = gallopRight(a[base2], a, base1, len1, 0, c);
+            base1 += k;
+            len1 -= k;
+            // run2中不小于run1最后一个元素的后缀已在最终位置
+            len2 = gallopLeft(a[base1 + len1 - 1], a, base2, len2, len2 - 1, c);
+
+            if (len1 <= len2) {
+                mergeLo(base1, len1, base2, len2);
+            } else {
+                mergeHi(base1, len1, base2, len2);
+            }
+        }
+
+        /**
+         * run1较短，复制到tmp后从前往后归并。调用前保证a[base2] &lt; a[base1]，且run1的最后一个元素大于run2的所有元素
+         */
+        private void mergeLo(int base1, int len1, int base2, int len2) {
+            T[] tmp = ensureCapacity(len1);
+            System.arraycopy(a, base1, tmp, 0, len1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+            int end1 = len1;
+            int end2 = base2 + len2;
+
+            a[dest++] = a[cursor2++];
+            if (cursor2 == end2) {
+                System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+                return;
+            }
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                // 逐个比较，直到某一边连续胜出minGallop次
+                do {
+                    if (c.compare(a[cursor2], tmp[cursor1]) < 0) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 == end2) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 == end1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                // galloping：查找出整块直接搬移，块足够大时保持该模式并降低阈值
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, end1 - cursor1, 0, c);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        if (cursor1 == end1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (cursor2 == end2) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, end2 - cursor2, 0, c);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        if (cursor2 == end2) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (cursor1 == end1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                // 退出galloping模式的惩罚
+                minGallop += 2;
+            }
+            if (minGallop < 1) {
+                minGallop = 1;
+            }
+            // run1剩余部分放到末尾；run2剩余部分已在原位
+            if (cursor1 < end1) {
+                System.arraycopy(tmp, cursor1, a, dest, end1 - cursor1);
+            }
+        }
+
+        /**
+         * run2较短，复制到tmp后从后往前归并。调用前保证run1的最后一个元素大于run2的最后一个元素，且a[base2] &lt; a[base1]
+         */
+        private void mergeHi(int base1, int len1, int base2, int len2) {
+            T[] tmp = ensureCapacity(len2);
+            System.arraycopy(a, base2, tmp, 0, len2);
+            int cursor1 = base1 + len1 - 1;
+            int cursor2 = len2 - 1;
+            int dest = base2 + len2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (cursor1 < base1) {
+                System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+                return;
+            }
+
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    if (c.compare(tmp[cursor2], a[cursor1]) < 0) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (cursor1 < base1) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (cursor2 < 0) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < minGallop);
+
+                do {
+                    // run1末尾大于tmp[cursor2]的元素个数
+                    count1 = cursor1 - base1 + 1
+                        - gallopRight(tmp[cursor2], a, base1, cursor1 - base1 + 1, cursor1 - base1, c);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (cursor1 < base1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (cursor2 < 0) {
+                        break outer;
+                    }
+
+                    // tmp末尾不小于a[cursor1]的元素个数
+                    count2 = cursor2 + 1 - gallopLeft(a[cursor1], tmp, 0, cursor2 + 1, cursor2, c);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (cursor2 < 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (cursor1 < base1) {
+                        break outer;
+                    }
+                    minGallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (minGallop < 0) {
+                    minGallop = 0;
+                }
+                minGallop += 2;
+            }
+            if (minGallop < 1) {
+                minGallop = 1;
+            }
+            if (cursor2 >= 0) {
+                System.arraycopy(tmp, 0, a, dest - cursor2, cursor2 + 1);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private T[] ensureCapacity(int minCapacity) {
+            if (tmp == null || tmp.length < minCapacity) {
+                int newSize = Integer.highestOneBit(minCapacity);
+                if (newSize < minCapacity) {
+                    newSize <<= 1;
+                }
+                if (newSize < 0) {
+                    newSize = minCapacity;
+                } else {
+                    newSize = Math.min(newSize, a.length >>> 1);
+                    newSize = Math.max(newSize, minCapacity);
+                }
+                tmp = (T[]) Array.newInstance(a.getClass().getComponentType(), newSize);
+            }
+            return tmp;
+        }
+    }
+
+    /**
+     * 与Arrays.sort中TimSort的取法相同：n小于MIN_MERGE时为n，否则取n的高位，使n / minRun接近且不大于2的幂
+     */
+    static int minRunLength(int n) {
+        int r = 0;
+        while (n >= MIN_MERGE) {
+            r |= n & 1;
+            n >>= 1;
+        }
+        return n + r;
+    }
+
+    /**
+     * 返回从lo开始的run长度，严格递减的run原地翻转为递增（严格递减才能保证翻转后仍然稳定）
+     */
+    static <T> int countRunAndMakeAscending(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int runHi = lo + 1;
+        if (runHi == hi) {
+            return 1;
+        }
+        if (c.compare(a[runHi++], a[lo]) < 0) {
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) < 0) {
+                runHi++;
+            }
+            for (int i = lo, j = runHi - 1; i < j; i++, j--) {
+                T t = a[i];
+                a[i] = a[j];
+                a[j] = t;
+            }
+        } else {
+            while (runHi < hi && c.compare(a[runHi], a[runHi - 1]) >= 0) {
+                runHi++;
+            }
+        }
+        return runHi - lo;
+    }
+
+    /**
+     * a[lo, start)已有序，把[start, hi)逐个二分插入。比较次数O(NlgN)，移动用System.arraycopy整块完成
+     */
+    static <T> void binarySort(T[] a, int lo, int hi, int start, Comparator<? super T> c) {
+        if (start == lo) {
+            start++;
+        }
+        for (; start < hi; start++) {
+            T pivot = a[start];
+            int left = lo;
+            int right = start;
+            // 找到第一个大于pivot的位置，相等元素保持原顺序
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                if (c.compare(pivot, a[mid]) < 0) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(a, left, a, left + 1, start - left);
+            a[left] = pivot;
+        }
+    }
+
+    /**
+     * 在有序的a[base, base + len)中找key的插入位置k，满足a[base + k - 1] &lt; key &lt;= a[base + k]。
+     * 从hint开始按1, 3, 7 ...指数跳跃，定位区间后再二分
+     */
+    static <T> int gallopLeft(T key, T[] a, int base, int len, int hint, Comparator<? super T> c) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (c.compare(key, a[base + hint]) > 0) {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, a[base + hint + ofs]) > 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        } else {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, a[base + hint - ofs]) <= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        }
+
+        // 此时a[base + lastOfs] < key <= a[base + ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, a[base + m]) > 0) {
+                lastOfs = m + 1;
+            } else {
+                ofs = m;
+            }
+        }
+        return ofs;
+    }
+
+    /**
+     * 与{@link #gallopLeft}相同，但返回的k满足a[base + k - 1] &lt;= key &lt; a[base + k]，即相等元素之后
+     */
+    static <T> int gallopRight(T key, T[] a, int base, int len, int hint, Comparator<? super T> c) {
+        int lastOfs = 0;
+        int ofs = 1;
+        if (c.compare(key, a[base + hint]) < 0) {
+            int maxOfs = hint + 1;
+            while (ofs < maxOfs && c.compare(key, a[base + hint - ofs]) < 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            int t = lastOfs;
+            lastOfs = hint - ofs;
+            ofs = hint - t;
+        } else {
+            int maxOfs = len - hint;
+            while (ofs < maxOfs && c.compare(key, a[base + hint + ofs]) >= 0) {
+                lastOfs = ofs;
+                ofs = (ofs << 1) + 1;
+                if (ofs <= 0) {
+                    ofs = maxOfs;
+                }
+            }
+            if (ofs > maxOfs) {
+                ofs = maxOfs;
+            }
+            lastOfs += hint;
+            ofs += hint;
+        }
+
+        // 此时a[base + lastOfs] <= key < a[base + ofs]
+        lastOfs++;
+        while (lastOfs < ofs) {
+            int m = lastOfs + ((ofs - lastOfs) >>> 1);
+            if (c.compare(key, a[base + m]) < 0) {
+                ofs = m;
+            } else {
+                lastOfs = m + 1;
+            }
+        }
+        return ofs;
+    }
+}
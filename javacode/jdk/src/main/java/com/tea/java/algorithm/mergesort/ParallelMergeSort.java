@@ -0,0 +1,322 @@
+package com.tea.java.algorithm.mergesort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * <p>并行归并排序
+ *
+ * <p>基于ForkJoin：区间大于granularity时左右两半fork出去并行排序，小于等于时在当前线程用{@link TunedMergeSort}排序
+ * （其内部再对小于32的区间使用插入排序）。
+ *
+ * <p>归并也是并行的，否则最后一层O(N)的merge只能由一个线程完成，整体加速比被限制在lgN左右。
+ * 取较长一段的中点，在另一段中二分查找切分位置，两段各切成两半后分别归并到目标数组的对应位置，递归到granularity以下再串行归并。
+ * 切分时相等元素始终左段在前，排序是稳定的。
+ *
+ * <p>与{@link TunedMergeSort}相同，开始时把待排序区间复制一份作为辅助数组（只复制该区间，下标相差一个偏移量），
+ * 之后每层交换src/dest的角色，不再来回复制。
+ *
+ *  <p>时间复杂度: O(NlgN / P + lg^3 N)，P为并行度
+ *  <p>空间复杂度: O(N)，N为待排序区间的长度
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ParallelMergeSort {
+
+    /**
+     * 与Arrays.parallelSort的最小粒度相同
+     */
+    public static final int DEFAULT_GRANULARITY = 1 << 13;
+
+    private final ForkJoinPool pool;
+    private final int granularity;
+
+    public ParallelMergeSort() {
+        this(ForkJoinPool.commonPool(), DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param pool        执行排序的线程池
+     * @param granularity 不再拆分、串行排序/归并的区间长度
+     */
+    public ParallelMergeSort(ForkJoinPool pool, int granularity) {
+        if (granularity < 2) {
+            throw new IllegalArgumentException("granularity must be at least 2: " + granularity);
+        }
+        this.pool = pool;
+        this.granularity = granularity;
+    }
+
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(int[] arr, int fromIndex, int toIndex) {
+        TunedMergeSort.rangeCheck(arr.length, fromIndex, toIndex);
+        if (toIndex - fromIndex <= granularity || pool.getParallelism() == 1) {
+            new TunedMergeSort().sort(arr, fromIndex, toIndex);
+            return;
+        }
+        int[] aux = Arrays.copyOfRange(arr, fromIndex, toIndex);
+        pool.invoke(new IntSortTask(aux, arr, fromIndex, toIndex, -fromIndex));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr) {
+        sort(arr, 0, arr.length, Comparator.naturalOrder());
+    }
+
+    public <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length, c);
+    }
+
+    public <T> void sort(T[] arr, int fromIndex, int toIndex, Comparator<? super T> c) {
+        TunedMergeSort.rangeCheck(arr.length, fromIndex, toIndex);
+        if (toIndex - fromIndex <= granularity || pool.getParallelism() == 1) {
+            new TunedMergeSort().sort(arr, fromIndex, toIndex, c);
+            return;
+        }
+        T[] aux = Arrays.copyOfRange(arr, fromIndex, toIndex);
+        pool.invoke(new SortTask<>(aux, arr, fromIndex, toIndex, -fromIndex, c));
+    }
+
+    /**
+     * 把dest[low, high)排好序，src[low + off, high + off)与之内容相同，作为辅助空间
+     */
+    private final class IntSortTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] src;
+        private final int[] dest;
+        private final int low;
+        private final int high;
+        private final int off;
+
+        IntSortTask(int[] src, int[] dest, int low, int high, int off) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.off = off;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= granularity) {
+                new TunedMergeSort().sort(dest, low, high);
+                return;
+            }
+            int srcLow = low + off;
+            int srcHigh = high + off;
+            int mid = (srcLow + srcHigh) >>> 1;
+            // 两半排到src中，再归并回dest
+            invokeAll(new IntSortTask(dest, src, srcLow, mid, -off), new IntSortTask(dest, src, mid, srcHigh, -off));
+            if (src[mid - 1] <= src[mid]) {
+                System.arraycopy(src, srcLow, dest, low, high - low);
+                return;
+            }
+            new IntMergeTask(src, srcLow, mid, mid, srcHigh, dest, low).compute();
+        }
+    }
+
+    /**
+     * 把src[lo1, hi1)和src[lo2, hi2)归并到dest[destLow ...)
+     */
+    private final class IntMergeTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final int[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final int[] dest;
+        private final int destLow;
+
+        IntMergeTask(int[] src, int lo1, int hi1, int lo2, int hi2, int[] dest, int destLow) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dest = dest;
+            this.destLow = destLow;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= granularity) {
+                for (int i = destLow, p = lo1, q = lo2; p < hi1 || q < hi2; i++) {
+                    if (q >= hi2 || p < hi1 && src[p] <= src[q]) {
+                        dest[i] = src[p++];
+                    } else {
+                        dest[i] = src[q++];
+                    }
+                }
+                return;
+            }
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                split1 = (lo1 + hi1) >>> 1;
+                // 右段中小于key的元素排在key之前
+                split2 = lowerBound(src, lo2, hi2, src[split1]);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                // 左段中小于等于key的元素排在key之前
+                split1 = upperBound(src, lo1, hi1, src[split2]);
+            }
+            int destSplit = destLow + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new IntMergeTask(src, lo1, split1, lo2, split2, dest, destLow),
+                new IntMergeTask(src, split1, hi1, split2, hi2, dest, destSplit));
+        }
+    }
+
+    private final class SortTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final T[] src;
+        private final T[] dest;
+        private final int low;
+        private final int high;
+        private final int off;
+        private final Comparator<? super T> c;
+
+        SortTask(T[] src, T[] dest, int low, int high, int off, Comparator<? super T> c) {
+            this.src = src;
+            this.dest = dest;
+            this.low = low;
+            this.high = high;
+            this.off = off;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            if (high - low <= granularity) {
+                new TunedMergeSort().sort(dest, low, high, c);
+                return;
+            }
+            int srcLow = low + off;
+            int srcHigh = high + off;
+            int mid = (srcLow + srcHigh) >>> 1;
+            invokeAll(new SortTask<>(dest, src, srcLow, mid, -off, c), new SortTask<>(dest, src, mid, srcHigh, -off, c));
+            if (c.compare(src[mid - 1], src[mid]) <= 0) {
+                System.arraycopy(src, srcLow, dest, low, high - low);
+                return;
+            }
+            new MergeTask<>(src, srcLow, mid, mid, srcHigh, dest, low, c).compute();
+        }
+    }
+
+    private final class MergeTask<T> extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+        private final T[] src;
+        private final int lo1;
+        private final int hi1;
+        private final int lo2;
+        private final int hi2;
+        private final T[] dest;
+        private final int destLow;
+        private final Comparator<? super T> c;
+
+        MergeTask(T[] src, int lo1, int hi1, int lo2, int hi2, T[] dest, int destLow, Comparator<? super T> c) {
+            this.src = src;
+            this.lo1 = lo1;
+            this.hi1 = hi1;
+            this.lo2 = lo2;
+            this.hi2 = hi2;
+            this.dest = dest;
+            this.destLow = destLow;
+            this.c = c;
+        }
+
+        @Override
+        protected void compute() {
+            int n1 = hi1 - lo1;
+            int n2 = hi2 - lo2;
+            if (n1 + n2 <= granularity) {
+                for (int i = destLow, p = lo1, q = lo2; p < hi1 || q < hi2; i++) {
+                    if (q >= hi2 || p < hi1 && c.compare(src[p], src[q]) <= 0) {
+                        dest[i] = src[p++];
+                    } else {
+                        dest[i] = src[q++];
+                    }
+                }
+                return;
+            }
+            int split1;
+            int split2;
+            if (n1 >= n2) {
+                split1 = (lo1 + hi1) >>> 1;
+                split2 = lowerBound(src, lo2, hi2, src[split1], c);
+            } else {
+                split2 = (lo2 + hi2) >>> 1;
+                split1 = upperBound(src, lo1, hi1, src[split2], c);
+            }
+            int destSplit = destLow + (split1 - lo1) + (split2 - lo2);
+            invokeAll(new MergeTask<>(src, lo1, split1, lo2, split2, dest, destLow, c),
+                new MergeTask<>(src, split1, hi1, split2, hi2, dest, destSplit, c));
+        }
+    }
+
+    /**
+     * [low, high)中第一个大于等于key的位置
+     */
+    static int lowerBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * [low, high)中第一个大于key的位置
+     */
+    static int upperBound(int[] arr, int low, int high, int key) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static <T> int lowerBound(T[] arr, int low, int high, T key, Comparator<? super T> c) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    static <T> int upperBound(T[] arr, int low, int high, T key, Comparator<? super T> c) {
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (c.compare(arr[mid], key) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,216 @@
+package com.tea.java.algorithm.mergesort;
+
+import com.tea.java.algorithm.insertionsort.BinaryInsertionSort;
+import com.tea.java.algorithm.insertionsort.SentinelInsertionSort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>归并排序（针对基本类型特化）
+ *
+ * <p>{@link MergeSort1}/{@link MergeSort2}只接受Comparable[]，排序数值时每个元素都要装箱，
+ * 每次比较都是一次compareTo虚调用。这里为int[]、long[]提供特化版本，Comparator版本用于对象数组，
+ * 几个版本共用同一套实现：
+ * <ul>
+ *     <li>自顶向下，区间小于insertionThreshold（默认{@link #INSERTION_THRESHOLD}）时改用插入排序：
+ *     基本类型用{@link SentinelInsertionSort}，Comparator版本用比较次数更少的{@link BinaryInsertionSort}</li>
+ *     <li>辅助数组只在开始时复制一次，之后每层递归交换src/dest的角色（ping-pong），merge不再整段复制到temp</li>
+ *     <li>左半段最大值不大于右半段最小值时跳过merge，直接复制，已有序的输入接近O(N)</li>
+ * </ul>
+ *
+ * <p>double[]先转换为保持Double#compare顺序的long（-0.0排在0.0前，NaN排在最后），按long[]排序后再转换回来，
+ * 不同的NaN会被统一为Double.NaN。
+ *
+ * <p>所有版本都是稳定排序，区间参数与{@link Arrays#sort(int[], int, int)}一致，为[fromIndex, toIndex)。
+ *
+ *  <p>时间复杂度: O(N)到O(NlgN)
+ *  <p>空间复杂度: O(N)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class TunedMergeSort {
+
+    /**
+     * 小于该长度的区间使用插入排序，默认值，可通过构造参数调整
+     */
+    public static final int INSERTION_THRESHOLD = 32;
+
+    private final int insertionThreshold;
+    private final SentinelInsertionSort sentinelInsertionSort = new SentinelInsertionSort();
+    private final BinaryInsertionSort binaryInsertionSort = new BinaryInsertionSort();
+
+    public TunedMergeSort() {
+        this(INSERTION_THRESHOLD);
+    }
+
+    /**
+     * @param insertionThreshold 小于该长度的区间使用插入排序，至少为2
+     */
+    public TunedMergeSort(int insertionThreshold) {
+        if (insertionThreshold < 2) {
+            throw new IllegalArgumentException("insertionThreshold must be at least 2: " + insertionThreshold);
+        }
+        this.insertionThreshold = insertionThreshold;
+    }
+
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(int[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        int[] aux = Arrays.copyOfRange(arr, fromIndex, toIndex);
+        mergeSort(aux, arr, fromIndex, toIndex, -fromIndex);
+    }
+
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(long[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        long[] aux = Arrays.copyOfRange(arr, fromIndex, toIndex);
+        mergeSort(aux, arr, fromIndex, toIndex, -fromIndex);
+    }
+
+    public void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(double[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        long[] keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = toSortableBits(arr[fromIndex + i]);
+        }
+        sort(keys);
+        for (int i = 0; i < length; i++) {
+            arr[fromIndex + i] = fromSortableBits(keys[i]);
+        }
+    }
+
+    public <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length, c);
+    }
+
+    public <T> void sort(T[] arr, int fromIndex, int toIndex, Comparator<? super T> c) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        T[] aux = Arrays.copyOfRange(arr, fromIndex, toIndex);
+        mergeSort(aux, arr, fromIndex, toIndex, -fromIndex, c);
+    }
+
+    /**
+     * 把dest[low, high)排好序，src[low + off, high + off)与之内容相同，作为辅助空间
+     */
+    private void mergeSort(int[] src, int[] dest, int low, int high, int off) {
+        int length = high - low;
+        if (length < insertionThreshold) {
+            sentinelInsertionSort.sort(dest, low, high);
+            return;
+        }
+
+        int destLow = low;
+        int destHigh = high;
+        low += off;
+        high += off;
+        int mid = (low + high) >>> 1;
+        // 左右两半排到src中，再归并回dest
+        mergeSort(dest, src, low, mid, -off);
+        mergeSort(dest, src, mid, high, -off);
+
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, low, dest, destLow, length);
+            return;
+        }
+        for (int i = destLow, p = low, q = mid; i < destHigh; i++) {
+            if (q >= high || p < mid && src[p] <= src[q]) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private void mergeSort(long[] src, long[] dest, int low, int high, int off) {
+        int length = high - low;
+        if (length < insertionThreshold) {
+            sentinelInsertionSort.sort(dest, low, high);
+            return;
+        }
+
+        int destLow = low;
+        int destHigh = high;
+        low += off;
+        high += off;
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, -off);
+        mergeSort(dest, src, mid, high, -off);
+
+        if (src[mid - 1] <= src[mid]) {
+            System.arraycopy(src, low, dest, destLow, length);
+            return;
+        }
+        for (int i = destLow, p = low, q = mid; i < destHigh; i++) {
+            if (q >= high || p < mid && src[p] <= src[q]) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    private <T> void mergeSort(T[] src, T[] dest, int low, int high, int off, Comparator<? super T> c) {
+        int length = high - low;
+        if (length < insertionThreshold) {
+            binaryInsertionSort.sort(dest, low, high, c);
+            return;
+        }
+
+        int destLow = low;
+        int destHigh = high;
+        low += off;
+        high += off;
+        int mid = (low + high) >>> 1;
+        mergeSort(dest, src, low, mid, -off, c);
+        mergeSort(dest, src, mid, high, -off, c);
+
+        if (c.compare(src[mid - 1], src[mid]) <= 0) {
+            System.arraycopy(src, low, dest, destLow, length);
+            return;
+        }
+        for (int i = destLow, p = low, q = mid; i < destHigh; i++) {
+            if (q >= high || p < mid && c.compare(src[p], src[q]) <= 0) {
+                dest[i] = src[p++];
+            } else {
+                dest[i] = src[q++];
+            }
+        }
+    }
+
+    /**
+     * 负数翻转除符号位外的所有位，使long的大小顺序与Double#compare一致
+     */
+    static long toSortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    static double fromSortableBits(long sortable) {
+        return Double.longBitsToDouble(sortable ^ ((sortable >> 63) & Long.MAX_VALUE));
+    }
+
+    static void rangeCheck(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.tea.java.algorithm.quicksort;
+
+/**
+ * <p>双轴快速排序（Yaroslavskiy）
+ *
+ * <p>与JDK7+的DualPivotQuicksort思路相同（见book/java.util/DualPivotQuicksort.md）：
+ * 从区间中等距取5个样本排序，取第2、4个作为两个轴p1 &lt;= p2，一次扫描把区间切成三段：
+ * &lt; p1、p1 ~ p2、&gt; p2，三段分别递归。两个轴相等时说明该区间重复元素很多，中间一段全部等于轴，不再递归。
+ * 区间小于{@link #INSERTION_THRESHOLD}时使用插入排序。
+ *
+ * <p>原地排序，只需要O(lgN)的递归栈，不需要O(N)的辅助数组；不稳定。基本类型不存在稳定性问题。
+ *
+ * <p>double[]与Arrays.sort(double[])的顺序一致：先把NaN移到末尾，对其余部分按&lt;排序，
+ * 最后把0.0之前的-0.0调整到正确的位置。
+ *
+ * <p>时间复杂度：平均O(NlgN)，最坏O(N^2)（需要最坏情况保证时使用{@link IntroSort}）
+ * <p>空间复杂度：O(lgN)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class DualPivotQuickSort {
+
+    /**
+     * 小于该长度的区间使用插入排序，与JDK相同
+     */
+    public static final int INSERTION_THRESHOLD = 47;
+
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(int[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        quickSort(arr, fromIndex, toIndex - 1);
+    }
+
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(long[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        quickSort(arr, fromIndex, toIndex - 1);
+    }
+
+    public void sort(double[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(double[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        // NaN移到末尾，不参与比较
+        int right = toIndex - 1;
+        for (int k = right; k >= fromIndex; k--) {
+            if (arr[k] != arr[k]) {
+                arr[k] = arr[right];
+                arr[right--] = Double.NaN;
+            }
+        }
+        quickSort(arr, fromIndex, right);
+
+        // 0.0 == -0.0，排序后它们的先后是任意的，二分找到第一个0后把-0.0放到前面
+        int low = fromIndex;
+        int high = right;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (arr[mid] < 0.0d) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        int negativeZeros = 0;
+        int k = low;
+        for (; k <= right && arr[k] == 0.0d; k++) {
+            if (Double.doubleToRawLongBits(arr[k]) < 0) {
+                negativeZeros++;
+            }
+        }
+        for (int i = low; i < k; i++) {
+            arr[i] = i < low + negativeZeros ? -0.0d : 0.0d;
+        }
+    }
+
+    /**
+     * 排序a[left, right]（闭区间）
+     */
+    private static void quickSort(int[] a, int left, int right) {
+        while (right - left >= INSERTION_THRESHOLD) {
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sort5(a, e1, e2, e3, e4, e5);
+
+            int pivot1 = a[e2];
+            int pivot2 = a[e4];
+            swap(a, e2, left);
+            swap(a, e4, right);
+
+            // a[left + 1, lt) < p1, a[lt, i) in [p1, p2], a(gt, right - 1] > p2
+            int lt = left + 1;
+            int gt = right - 1;
+            int i = lt;
+            while (i <= gt) {
+                int ak = a[i];
+                if (ak < pivot1) {
+                    a[i++] = a[lt];
+                    a[lt++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[gt] > pivot2 && gt > i) {
+                        gt--;
+                    }
+                    a[i] = a[gt];
+                    a[gt--] = ak;
+                } else {
+                    i++;
+                }
+            }
+            // 两个轴放到最终位置
+            a[left] = a[lt - 1];
+            a[lt - 1] = pivot1;
+            a[right] = a[gt + 1];
+            a[gt + 1] = pivot2;
+
+            quickSort(a, left, lt - 2);
+            if (pivot1 < pivot2) {
+                quickSort(a, lt, gt);
+            }
+            // 尾递归改为循环
+            left = gt + 2;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void quickSort(long[] a, int left, int right) {
+        while (right - left >= INSERTION_THRESHOLD) {
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sort5(a, e1, e2, e3, e4, e5);
+
+            long pivot1 = a[e2];
+            long pivot2 = a[e4];
+            swap(a, e2, left);
+            swap(a, e4, right);
+
+            int lt = left + 1;
+            int gt = right - 1;
+            int i = lt;
+            while (i <= gt) {
+                long ak = a[i];
+                if (ak < pivot1) {
+                    a[i++] = a[lt];
+                    a[lt++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[gt] > pivot2 && gt > i) {
+                        gt--;
+                    }
+                    a[i] = a[gt];
+                    a[gt--] = ak;
+                } else {
+                    i++;
+                }
+            }
+            a[left] = a[lt - 1];
+            a[lt - 1] = pivot1;
+            a[right] = a[gt + 1];
+            a[gt + 1] = pivot2;
+
+            quickSort(a, left, lt - 2);
+            if (pivot1 < pivot2) {
+                quickSort(a, lt, gt);
+            }
+            left = gt + 2;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void quickSort(double[] a, int left, int right) {
+        while (right - left >= INSERTION_THRESHOLD) {
+            int length = right - left + 1;
+            int seventh = (length >> 3) + (length >> 6) + 1;
+            int e3 = (left + right) >>> 1;
+            int e2 = e3 - seventh;
+            int e1 = e2 - seventh;
+            int e4 = e3 + seventh;
+            int e5 = e4 + seventh;
+            sort5(a, e1, e2, e3, e4, e5);
+
+            double pivot1 = a[e2];
+            double pivot2 = a[e4];
+            swap(a, e2, left);
+            swap(a, e4, right);
+
+            int lt = left + 1;
+            int gt = right - 1;
+            int i = lt;
+            while (i <= gt) {
+                double ak = a[i];
+                if (ak < pivot1) {
+                    a[i++] = a[lt];
+                    a[lt++] = ak;
+                } else if (ak > pivot2) {
+                    while (a[gt] > pivot2 && gt > i) {
+                        gt--;
+                    }
+                    a[i] = a[gt];
+                    a[gt--] = ak;
+                } else {
+                    i++;
+                }
+            }
+            a[left] = a[lt - 1];
+            a[lt - 1] = pivot1;
+            a[right] = a[gt + 1];
+            a[gt + 1] = pivot2;
+
+            quickSort(a, left, lt - 2);
+            if (pivot1 < pivot2) {
+                quickSort(a, lt, gt);
+            }
+            left = gt + 2;
+        }
+        insertionSort(a, left, right);
+    }
+
+    private static void insertionSort(int[] a, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            int cursor = a[i];
+            int j = i - 1;
+            while (j >= left && cursor < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static void insertionSort(long[] a, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            long cursor = a[i];
+            int j = i - 1;
+            while (j >= left && cursor < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static void insertionSort(double[] a, int left, int right) {
+        for (int i = left + 1; i <= right; i++) {
+            double cursor = a[i];
+            int j = i - 1;
+            while (j >= left && cursor < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    /**
+     * 5个样本的插入排序
+     */
+    private static void sort5(int[] a, int... indexes) {
+        for (int i = 1; i < indexes.length; i++) {
+            int cursor = a[indexes[i]];
+            int j = i - 1;
+            while (j >= 0 && cursor < a[indexes[j]]) {
+                a[indexes[j + 1]] = a[indexes[j]];
+                j--;
+            }
+            a[indexes[j + 1]] = cursor;
+        }
+    }
+
+    private static void sort5(long[] a, int... indexes) {
+        for (int i = 1; i < indexes.length; i++) {
+            long cursor = a[indexes[i]];
+            int j = i - 1;
+            while (j >= 0 && cursor < a[indexes[j]]) {
+                a[indexes[j + 1]] = a[indexes[j]];
+                j--;
+            }
+            a[indexes[j + 1]] = cursor;
+        }
+    }
+
+    private static void sort5(double[] a, int... indexes) {
+        for (int i = 1; i < indexes.length; i++) {
+            double cursor = a[indexes[i]];
+            int j = i - 1;
+            while (j >= 0 && cursor < a[indexes[j]]) {
+                a[indexes[j + 1]] = a[indexes[j]];
+                j--;
+            }
+            a[indexes[j + 1]] = cursor;
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static void swap(long[] a, int i, int j) {
+        long t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static void swap(double[] a, int i, int j) {
+        double t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    static void rangeCheck(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+}
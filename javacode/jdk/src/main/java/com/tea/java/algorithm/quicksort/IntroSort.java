@@ -0,0 +1,239 @@
+package com.tea.java.algorithm.quicksort;
+
+import java.util.Comparator;
+
+/**
+ * <p>内省排序（Introsort，Musser 1997）
+ *
+ * <p>快速排序 + 递归深度限制：三数取中选轴，Hoare切分（相等元素两边交换，重复元素多时切分依然均衡），
+ * 递归深度超过2lgN时说明切分持续失衡（例如遇到针对取中策略构造的输入），该区间改用堆排序，
+ * 最坏情况也是O(NlgN)。区间小于{@link #INSERTION_THRESHOLD}时使用插入排序。
+ * 每次只递归较短的一侧，较长的一侧在循环中继续处理，栈深度不超过O(lgN)。
+ *
+ * <p>原地排序，不稳定。
+ *
+ * <p>时间复杂度：O(NlgN)
+ * <p>空间复杂度：O(lgN)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class IntroSort {
+
+    public static final int INSERTION_THRESHOLD = 16;
+
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(int[] arr, int fromIndex, int toIndex) {
+        DualPivotQuickSort.rangeCheck(arr.length, fromIndex, toIndex);
+        introSort(arr, fromIndex, toIndex, depthLimit(toIndex - fromIndex));
+    }
+
+    @SuppressWarnings("unchecked")
+    public void sort(Comparable[] arr) {
+        sort(arr, 0, arr.length, Comparator.naturalOrder());
+    }
+
+    public <T> void sort(T[] arr, Comparator<? super T> c) {
+        sort(arr, 0, arr.length, c);
+    }
+
+    public <T> void sort(T[] arr, int fromIndex, int toIndex, Comparator<? super T> c) {
+        DualPivotQuickSort.rangeCheck(arr.length, fromIndex, toIndex);
+        introSort(arr, fromIndex, toIndex, depthLimit(toIndex - fromIndex), c);
+    }
+
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * 排序a[lo, hi)
+     */
+    private static void introSort(int[] a, int lo, int hi, int depthLimit) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi);
+                return;
+            }
+            int split = partition(a, lo, hi);
+            if (split - lo < hi - split) {
+                introSort(a, lo, split, depthLimit);
+                lo = split;
+            } else {
+                introSort(a, split, hi, depthLimit);
+                hi = split;
+            }
+        }
+        insertionSort(a, lo, hi);
+    }
+
+    /**
+     * 三数取中后Hoare切分，返回split使a[lo, split) &lt;= pivot &lt;= a[split, hi)，且两侧都不为空
+     */
+    private static int partition(int[] a, int lo, int hi) {
+        int mid = (lo + hi) >>> 1;
+        if (a[mid] < a[lo]) {
+            swap(a, mid, lo);
+        }
+        if (a[hi - 1] < a[lo]) {
+            swap(a, hi - 1, lo);
+        }
+        if (a[hi - 1] < a[mid]) {
+            swap(a, hi - 1, mid);
+        }
+        int pivot = a[mid];
+        int i = lo - 1;
+        int j = hi;
+        while (true) {
+            do {
+                i++;
+            } while (a[i] < pivot);
+            do {
+                j--;
+            } while (a[j] > pivot);
+            if (i >= j) {
+                return j + 1;
+            }
+            swap(a, i, j);
+        }
+    }
+
+    private static void heapSort(int[] a, int lo, int hi) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end);
+        }
+    }
+
+    private static void siftDown(int[] a, int base, int i, int n) {
+        int value = a[base + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && a[base + child + 1] > a[base + child]) {
+                child++;
+            }
+            if (value >= a[base + child]) {
+                break;
+            }
+            a[base + i] = a[base + child];
+            i = child;
+        }
+        a[base + i] = value;
+    }
+
+    private static void insertionSort(int[] a, int lo, int hi) {
+        for (int i = lo + 1; i < hi; i++) {
+            int cursor = a[i];
+            int j = i - 1;
+            while (j >= lo && cursor < a[j]) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static void swap(int[] a, int i, int j) {
+        int t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+
+    private static <T> void introSort(T[] a, int lo, int hi, int depthLimit, Comparator<? super T> c) {
+        while (hi - lo > INSERTION_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(a, lo, hi, c);
+                return;
+            }
+            int split = partition(a, lo, hi, c);
+            if (split - lo < hi - split) {
+                introSort(a, lo, split, depthLimit, c);
+                lo = split;
+            } else {
+                introSort(a, split, hi, depthLimit, c);
+                hi = split;
+            }
+        }
+        insertionSort(a, lo, hi, c);
+    }
+
+    private static <T> int partition(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int mid = (lo + hi) >>> 1;
+        if (c.compare(a[mid], a[lo]) < 0) {
+            swap(a, mid, lo);
+        }
+        if (c.compare(a[hi - 1], a[lo]) < 0) {
+            swap(a, hi - 1, lo);
+        }
+        if (c.compare(a[hi - 1], a[mid]) < 0) {
+            swap(a, hi - 1, mid);
+        }
+        T pivot = a[mid];
+        int i = lo - 1;
+        int j = hi;
+        while (true) {
+            do {
+                i++;
+            } while (c.compare(a[i], pivot) < 0);
+            do {
+                j--;
+            } while (c.compare(a[j], pivot) > 0);
+            if (i >= j) {
+                return j + 1;
+            }
+            swap(a, i, j);
+        }
+    }
+
+    private static <T> void heapSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        int n = hi - lo;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(a, lo, i, n, c);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(a, lo, lo + end);
+            siftDown(a, lo, 0, end, c);
+        }
+    }
+
+    private static <T> void siftDown(T[] a, int base, int i, int n, Comparator<? super T> c) {
+        T value = a[base + i];
+        int child;
+        while ((child = 2 * i + 1) < n) {
+            if (child + 1 < n && c.compare(a[base + child + 1], a[base + child]) > 0) {
+                child++;
+            }
+            if (c.compare(value, a[base + child]) >= 0) {
+                break;
+            }
+            a[base + i] = a[base + child];
+            i = child;
+        }
+        a[base + i] = value;
+    }
+
+    private static <T> void insertionSort(T[] a, int lo, int hi, Comparator<? super T> c) {
+        for (int i = lo + 1; i < hi; i++) {
+            T cursor = a[i];
+            int j = i - 1;
+            while (j >= lo && c.compare(cursor, a[j]) < 0) {
+                a[j + 1] = a[j];
+                j--;
+            }
+            a[j + 1] = cursor;
+        }
+    }
+
+    private static <T> void swap(T[] a, int i, int j) {
+        T t = a[i];
+        a[i] = a[j];
+        a[j] = t;
+    }
+}
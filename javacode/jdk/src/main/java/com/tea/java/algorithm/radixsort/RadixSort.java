@@ -0,0 +1,428 @@
+package com.tea.java.algorithm.radixsort;
+
+import com.tea.java.algorithm.insertionsort.SentinelInsertionSort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * <p>LSD基数排序
+ *
+ * <p>不比较元素，按字节从低到高做计数排序，每一趟都是稳定的，因此低位排好的顺序在高位相同时得以保持。
+ * int[]共4趟、long[]共8趟，每趟O(N + 256)，总体O(wN)，w为字节数，不受O(NlgN)比较下界的限制。
+ * <ul>
+ *     <li>开始时一次扫描统计出所有趟的直方图，某一字节所有元素都相同的趟（如小范围的id、同一天的时间戳的高位）直接跳过</li>
+ *     <li>符号位取反后再取最高字节，负数排在正数前面，与有符号比较的顺序一致</li>
+ *     <li>并行模式把区间分成若干块，每个线程统计自己那块的直方图，按（字节值，块号）的顺序求前缀和得到每块的写入位置，
+ *     再各自分发到辅助数组。块内顺序不变、块按顺序排列，每趟仍然稳定</li>
+ *     <li>区间小于{@link #INSERTION_THRESHOLD}时直接用{@link SentinelInsertionSort}</li>
+ * </ul>
+ *
+ * <p>区间参数与{@link java.util.Arrays#sort(int[], int, int)}一致，为[fromIndex, toIndex)。
+ *
+ * <p>时间复杂度：O(wN)
+ * <p>空间复杂度：O(N)
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class RadixSort {
+
+    /**
+     * 小于该长度的区间使用插入排序，基数排序每趟的固定开销（256个计数器）在小数组上不划算
+     */
+    public static final int INSERTION_THRESHOLD = 64;
+
+    /**
+     * 并行模式下每块的最小长度，块太小时统计直方图和求前缀和的开销超过分发本身
+     */
+    public static final int DEFAULT_GRANULARITY = 1 << 16;
+
+    private static final int RADIX_BITS = 8;
+    private static final int RADIX = 1 << RADIX_BITS;
+    private static final int MASK = RADIX - 1;
+
+    private final ForkJoinPool pool;
+    private final int granularity;
+    private final SentinelInsertionSort insertionSort = new SentinelInsertionSort();
+
+    /**
+     * 串行
+     */
+    public RadixSort() {
+        this.pool = null;
+        this.granularity = Integer.MAX_VALUE;
+    }
+
+    public RadixSort(ForkJoinPool pool) {
+        this(pool, DEFAULT_GRANULARITY);
+    }
+
+    /**
+     * @param pool        执行并行排序的线程池
+     * @param granularity 每块的最小长度，区间不足两块时串行排序
+     */
+    public RadixSort(ForkJoinPool pool, int granularity) {
+        if (granularity < 1) {
+            throw new IllegalArgumentException("granularity must be positive: " + granularity);
+        }
+        this.pool = pool;
+        this.granularity = granularity;
+    }
+
+    public void sort(int[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(int[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (length < INSERTION_THRESHOLD) {
+            insertionSort.sort(arr, fromIndex, toIndex);
+            return;
+        }
+        int chunks = chunks(length);
+        if (chunks < 2) {
+            radixSort(arr, fromIndex, toIndex);
+        } else {
+            parallelRadixSort(arr, fromIndex, toIndex, chunks);
+        }
+    }
+
+    public void sort(long[] arr) {
+        sort(arr, 0, arr.length);
+    }
+
+    public void sort(long[] arr, int fromIndex, int toIndex) {
+        rangeCheck(arr.length, fromIndex, toIndex);
+        int length = toIndex - fromIndex;
+        if (length < INSERTION_THRESHOLD) {
+            insertionSort.sort(arr, fromIndex, toIndex);
+            return;
+        }
+        int chunks = chunks(length);
+        if (chunks < 2) {
+            radixSort(arr, fromIndex, toIndex);
+        } else {
+            parallelRadixSort(arr, fromIndex, toIndex, chunks);
+        }
+    }
+
+    private int chunks(int length) {
+        if (pool == null) {
+            return 1;
+        }
+        return Math.min(pool.getParallelism(), length / granularity);
+    }
+
+    /**
+     * 取第pass个字节，符号位取反，使负数的最高字节小于正数
+     */
+    private static int digit(int value, int pass) {
+        return ((value ^ Integer.MIN_VALUE) >>> (pass * RADIX_BITS)) & MASK;
+    }
+
+    private static int digit(long value, int pass) {
+        return (int) ((value ^ Long.MIN_VALUE) >>> (pass * RADIX_BITS)) & MASK;
+    }
+
+    private static void radixSort(int[] a, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        int[][] counts = new int[Integer.BYTES][RADIX];
+        for (int i = fromIndex; i < toIndex; i++) {
+            int key = a[i] ^ Integer.MIN_VALUE;
+            counts[0][key & MASK]++;
+            counts[1][(key >>> 8) & MASK]++;
+            counts[2][(key >>> 16) & MASK]++;
+            counts[3][key >>> 24]++;
+        }
+
+        int[] src = a;
+        int srcOff = fromIndex;
+        int[] dest = null;
+        int destOff = 0;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            int[] count = counts[pass];
+            // 所有元素这一字节相同，这一趟不改变顺序
+            if (count[digit(a[fromIndex], pass)] == length) {
+                continue;
+            }
+            if (dest == null) {
+                dest = new int[length];
+            }
+            toOffsets(count, destOff);
+            for (int i = srcOff, end = srcOff + length; i < end; i++) {
+                int v = src[i];
+                dest[count[digit(v, pass)]++] = v;
+            }
+            int[] t = src;
+            src = dest;
+            dest = t;
+            int o = srcOff;
+            srcOff = destOff;
+            destOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, length);
+        }
+    }
+
+    private static void radixSort(long[] a, int fromIndex, int toIndex) {
+        int length = toIndex - fromIndex;
+        int[][] counts = new int[Long.BYTES][RADIX];
+        for (int i = fromIndex; i < toIndex; i++) {
+            long key = a[i] ^ Long.MIN_VALUE;
+            for (int pass = 0; pass < Long.BYTES; pass++) {
+                counts[pass][(int) (key >>> (pass * RADIX_BITS)) & MASK]++;
+            }
+        }
+
+        long[] src = a;
+        int srcOff = fromIndex;
+        long[] dest = null;
+        int destOff = 0;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            int[] count = counts[pass];
+            if (count[digit(a[fromIndex], pass)] == length) {
+                continue;
+            }
+            if (dest == null) {
+                dest = new long[length];
+            }
+            toOffsets(count, destOff);
+            for (int i = srcOff, end = srcOff + length; i < end; i++) {
+                long v = src[i];
+                dest[count[digit(v, pass)]++] = v;
+            }
+            long[] t = src;
+            src = dest;
+            dest = t;
+            int o = srcOff;
+            srcOff = destOff;
+            destOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, length);
+        }
+    }
+
+    /**
+     * 计数转换为每个字节值的起始写入位置
+     */
+    private static void toOffsets(int[] count, int base) {
+        int sum = base;
+        for (int d = 0; d < RADIX; d++) {
+            int c = count[d];
+            count[d] = sum;
+            sum += c;
+        }
+    }
+
+    /**
+     * 每块的直方图转换为写入位置：字节值d、第t块的起始位置 = 所有块中小于d的元素个数 + 前t块中等于d的元素个数
+     */
+    private static void toOffsets(int[][] chunkCounts, int base) {
+        int sum = base;
+        for (int d = 0; d < RADIX; d++) {
+            for (int[] count : chunkCounts) {
+                int c = count[d];
+                count[d] = sum;
+                sum += c;
+            }
+        }
+    }
+
+    private void parallelRadixSort(int[] a, int fromIndex, int toIndex, int chunks) {
+        int length = toIndex - fromIndex;
+        int[] bounds = bounds(length, chunks);
+        // 每个线程统计自己那块所有趟的直方图，合并后判断哪些趟可以跳过
+        int[][][] chunkCounts = new int[chunks][Integer.BYTES][RADIX];
+        forEachChunk(chunks, t -> {
+            int[][] counts = chunkCounts[t];
+            for (int i = fromIndex + bounds[t], end = fromIndex + bounds[t + 1]; i < end; i++) {
+                int key = a[i] ^ Integer.MIN_VALUE;
+                counts[0][key & MASK]++;
+                counts[1][(key >>> 8) & MASK]++;
+                counts[2][(key >>> 16) & MASK]++;
+                counts[3][key >>> 24]++;
+            }
+        });
+        int first = a[fromIndex];
+        boolean[] skip = new boolean[Integer.BYTES];
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            skip[pass] = total(chunkCounts, pass, digit(first, pass)) == length;
+        }
+
+        int[] src = a;
+        int srcOff = fromIndex;
+        int[] dest = null;
+        int destOff = 0;
+        boolean scattered = false;
+        for (int pass = 0; pass < Integer.BYTES; pass++) {
+            if (skip[pass]) {
+                continue;
+            }
+            if (dest == null) {
+                dest = new int[length];
+            }
+            int p = pass;
+            int[] from = src;
+            int fromOff = srcOff;
+            int[] to = dest;
+            int[][] counts = new int[chunks][];
+            if (!scattered) {
+                // 第一次分发前数据还没动过，直接用开始时的统计
+                for (int t = 0; t < chunks; t++) {
+                    counts[t] = chunkCounts[t][pass];
+                }
+            } else {
+                forEachChunk(chunks, t -> {
+                    int[] count = new int[RADIX];
+                    for (int i = fromOff + bounds[t], end = fromOff + bounds[t + 1]; i < end; i++) {
+                        count[digit(from[i], p)]++;
+                    }
+                    counts[t] = count;
+                });
+            }
+            toOffsets(counts, destOff);
+            forEachChunk(chunks, t -> {
+                int[] offset = counts[t];
+                for (int i = fromOff + bounds[t], end = fromOff + bounds[t + 1]; i < end; i++) {
+                    int v = from[i];
+                    to[offset[digit(v, p)]++] = v;
+                }
+            });
+            scattered = true;
+            int[] t = src;
+            src = dest;
+            dest = t;
+            int o = srcOff;
+            srcOff = destOff;
+            destOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, length);
+        }
+    }
+
+    private void parallelRadixSort(long[] a, int fromIndex, int toIndex, int chunks) {
+        int length = toIndex - fromIndex;
+        int[] bounds = bounds(length, chunks);
+        int[][][] chunkCounts = new int[chunks][Long.BYTES][RADIX];
+        forEachChunk(chunks, t -> {
+            int[][] counts = chunkCounts[t];
+            for (int i = fromIndex + bounds[t], end = fromIndex + bounds[t + 1]; i < end; i++) {
+                long key = a[i] ^ Long.MIN_VALUE;
+                for (int pass = 0; pass < Long.BYTES; pass++) {
+                    counts[pass][(int) (key >>> (pass * RADIX_BITS)) & MASK]++;
+                }
+            }
+        });
+        long first = a[fromIndex];
+        boolean[] skip = new boolean[Long.BYTES];
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            skip[pass] = total(chunkCounts, pass, digit(first, pass)) == length;
+        }
+
+        long[] src = a;
+        int srcOff = fromIndex;
+        long[] dest = null;
+        int destOff = 0;
+        boolean scattered = false;
+        for (int pass = 0; pass < Long.BYTES; pass++) {
+            if (skip[pass]) {
+                continue;
+            }
+            if (dest == null) {
+                dest = new long[length];
+            }
+            int p = pass;
+            long[] from = src;
+            int fromOff = srcOff;
+            long[] to = dest;
+            int[][] counts = new int[chunks][];
+            if (!scattered) {
+                for (int t = 0; t < chunks; t++) {
+                    counts[t] = chunkCounts[t][pass];
+                }
+            } else {
+                forEachChunk(chunks, t -> {
+                    int[] count = new int[RADIX];
+                    for (int i = fromOff + bounds[t], end = fromOff + bounds[t + 1]; i < end; i++) {
+                        count[digit(from[i], p)]++;
+                    }
+                    counts[t] = count;
+                });
+            }
+            toOffsets(counts, destOff);
+            forEachChunk(chunks, t -> {
+                int[] offset = counts[t];
+                for (int i = fromOff + bounds[t], end = fromOff + bounds[t + 1]; i < end; i++) {
+                    long v = from[i];
+                    to[offset[digit(v, p)]++] = v;
+                }
+            });
+            scattered = true;
+            long[] t = src;
+            src = dest;
+            dest = t;
+            int o = srcOff;
+            srcOff = destOff;
+            destOff = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOff, a, fromIndex, length);
+        }
+    }
+
+    /**
+     * 所有块中第pass趟字节值为d的元素个数
+     */
+    private static int total(int[][][] chunkCounts, int pass, int d) {
+        int sum = 0;
+        for (int[][] counts : chunkCounts) {
+            sum += counts[pass][d];
+        }
+        return sum;
+    }
+
+    /**
+     * 把length个元素尽量均匀地分成chunks块，第t块为[bounds[t], bounds[t + 1])（相对区间起点）
+     */
+    private static int[] bounds(int length, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        for (int t = 0; t <= chunks; t++) {
+            bounds[t] = (int) ((long) length * t / chunks);
+        }
+        return bounds;
+    }
+
+    /**
+     * 每块一个任务，在线程池中并行执行，全部完成后返回
+     */
+    private void forEachChunk(int chunks, IntConsumer action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(chunks);
+        for (int t = 0; t < chunks; t++) {
+            int chunk = t;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(chunk)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> {
+            ForkJoinTask.invokeAll(tasks);
+        }));
+    }
+
+    static void rangeCheck(int arrayLength, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0) {
+            throw new ArrayIndexOutOfBoundsException(fromIndex);
+        }
+        if (toIndex > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(toIndex);
+        }
+    }
+}
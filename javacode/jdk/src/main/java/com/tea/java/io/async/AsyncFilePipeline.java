@@ -0,0 +1,491 @@
+package com.tea.java.io.async;
+
+import com.tea.java.io.buffer.DirectBufferPool;
+import com.tea.java.io.buffer.PooledBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>异步文件处理流水线：AsynchronousFileChannel读 -&gt; 若干{@link TransformStage}（校验和、压缩等） -&gt; AsynchronousFileChannel写
+ *
+ * <p>每个文件是一个任务（job），在executor上运行：
+ * <ul>
+ *     <li>读：按chunkSize切块，每个文件最多提前发出readAhead个异步读，读入从{@link DirectBufferPool}借出的直接内存buffer</li>
+ *     <li>排序：读可能乱序完成，job按发出顺序（FIFO）等待每个读的Future，数据块按文件顺序交给各阶段，
+ *     有状态的阶段（CRC32、Deflater）因此看到的是连续的数据</li>
+ *     <li>写：阶段的输出按顺序分配目标文件中的位置，之后异步写，各块的写可以同时进行、乱序完成；
+ *     写完成的回调归还buffer和许可，不需要job线程参与</li>
+ *     <li>限流：整个流水线共用一个Semaphore，一块数据从发出读到写完成占用一个许可，
+ *     同时在途的块（即占用的直接内存）不超过maxInFlight，与同时处理的文件数无关</li>
+ * </ul>
+ *
+ * <p>job在等待读完成、等待许可时阻塞所在线程，executor的选择（{@link ExecutorMode}）决定能同时处理多少个文件：
+ * <ul>
+ *     <li>{@link ExecutorMode#PLATFORM}：固定大小的平台线程池，同时处理的文件数等于线程数，其余排队</li>
+ *     <li>{@link ExecutorMode#VIRTUAL}：每个job一个虚拟线程（JDK 21+），阻塞时虚拟线程让出载体线程，
+ *     几百个文件同时处理也只占用少量平台线程</li>
+ * </ul>
+ *
+ * <p>工程以1.8编译，虚拟线程通过反射调用Executors#newVirtualThreadPerTaskExecutor创建，
+ * 运行时JDK不支持时{@link #virtualThreadsSupported()}返回false。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class AsyncFilePipeline implements Closeable {
+
+    public enum ExecutorMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    public static final int DEFAULT_READ_AHEAD = 4;
+
+    private static final Method NEW_VIRTUAL_THREAD_EXECUTOR = virtualThreadExecutorFactory();
+
+    private final int chunkSize;
+    private final int readAhead;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final DirectBufferPool bufferPool;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+
+    public AsyncFilePipeline(ExecutorMode mode) {
+        this(mode, DEFAULT_CHUNK_SIZE, DEFAULT_MAX_IN_FLIGHT, DEFAULT_READ_AHEAD);
+    }
+
+    /**
+     * PLATFORM模式的线程数为CPU数
+     */
+    public AsyncFilePipeline(ExecutorMode mode, int chunkSize, int maxInFlight, int readAhead) {
+        this(newExecutor(mode, Runtime.getRuntime().availableProcessors()), chunkSize, maxInFlight, readAhead);
+    }
+
+    /**
+     * @param executor    运行job的线程池，{@link #close()}时关闭
+     * @param chunkSize   每块数据的大小
+     * @param maxInFlight 整个流水线同时在途的块数上限
+     * @param readAhead   每个文件最多提前发出的读
+     */
+    public AsyncFilePipeline(ExecutorService executor, int chunkSize, int maxInFlight, int readAhead) {
+        this(executor, chunkSize, maxInFlight, readAhead, newBufferPool(chunkSize, maxInFlight));
+    }
+
+    /**
+     * @param bufferPool 读buffer的来源，可以由多个流水线共用
+     */
+    public AsyncFilePipeline(ExecutorService executor, int chunkSize, int maxInFlight, int readAhead,
+                             DirectBufferPool bufferPool) {
+        if (chunkSize <= 0 || maxInFlight <= 0 || readAhead <= 0) {
+            throw new IllegalArgumentException("chunkSize, maxInFlight and readAhead must be positive");
+        }
+        this.executor = executor;
+        this.bufferPool = bufferPool;
+        this.chunkSize = chunkSize;
+        this.readAhead = readAhead;
+        this.permits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * 只有chunkSize一种规格；buffer在job线程借出、在IO完成回调中归还，不使用线程本地缓存，
+     * 共享池保留maxInFlight个，正好够同时在途的块使用
+     */
+    private static DirectBufferPool newBufferPool(int chunkSize, int maxInFlight) {
+        if (chunkSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("chunkSize and maxInFlight must be positive");
+        }
+        int size = chunkSize == 1 ? 1 : Integer.highestOneBit(chunkSize - 1) << 1;
+        return new DirectBufferPool(size, size, 0, maxInFlight, true);
+    }
+
+    public static boolean virtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_EXECUTOR != null;
+    }
+
+    /**
+     * @param platformThreads PLATFORM模式的线程数
+     * @throws UnsupportedOperationException VIRTUAL模式但运行时JDK不支持虚拟线程
+     */
+    public static ExecutorService newExecutor(ExecutorMode mode, int platformThreads) {
+        if (mode == ExecutorMode.PLATFORM) {
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+        if (NEW_VIRTUAL_THREAD_EXECUTOR == null) {
+            throw new UnsupportedOperationException("virtual threads require JDK 21+, running on "
+                + System.getProperty("java.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("cannot create virtual thread executor", e);
+        }
+    }
+
+    private static Method virtualThreadExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取source，依次经过stages处理后写入target（已存在时覆盖）
+     *
+     * @param stages 本文件专用的阶段实例，按数组顺序处理
+     * @return 完成时为复制结果，出错时异常完成
+     */
+    public CompletableFuture<Result> process(Path source, Path target, TransformStage... stages) {
+        CompletableFuture<Result> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                new Job(source, target, stages, result).run();
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 只复制，不经过任何阶段
+     */
+    public CompletableFuture<Result> copy(Path source, Path target) {
+        return process(source, target);
+    }
+
+    /**
+     * 目前在途的块数
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * 曾经同时在途的最大块数，不超过maxInFlight
+     */
+    public int peakInFlight() {
+        return peakInFlight.get();
+    }
+
+    /**
+     * 分配过的直接内存buffer个数，使用默认的池时buffer复用，不超过maxInFlight
+     */
+    public long allocatedBuffers() {
+        return bufferPool.misses();
+    }
+
+    public DirectBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    @Override
+    public void close() throws IOException {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        permits.acquire();
+        permitAcquired();
+    }
+
+    private void permitAcquired() {
+        int current = inFlight.incrementAndGet();
+        peakInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    private void releasePermit() {
+        inFlight.decrementAndGet();
+        permits.release();
+    }
+
+    /**
+     * 一个文件的读、处理、写
+     */
+    private final class Job implements CompletionHandler<Integer, Job.Write> {
+
+        private final Path source;
+        private final Path target;
+        private final TransformStage[] stages;
+        private final CompletableFuture<Result> result;
+        private final long start = System.nanoTime();
+        private final ArrayDeque<Read> reads = new ArrayDeque<>();
+        /**
+         * 未完成的写 + 1，job处理完所有数据后减去自己的1，减到0时整个文件完成
+         */
+        private final AtomicInteger pendingWrites = new AtomicInteger(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private AsynchronousFileChannel in;
+        private AsynchronousFileChannel out;
+        private long readPosition;
+        private long writePosition;
+        private long size;
+
+        Job(Path source, Path target, TransformStage[] stages, CompletableFuture<Result> result) {
+            this.source = source;
+            this.target = target;
+            this.stages = stages;
+            this.result = result;
+        }
+
+        void run() throws IOException, InterruptedException, ExecutionException {
+            in = AsynchronousFileChannel.open(source, StandardOpenOption.READ);
+            try {
+                out = AsynchronousFileChannel.open(target, StandardOpenOption.WRITE,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            } catch (IOException e) {
+                in.close();
+                throw e;
+            }
+            try {
+                size = in.size();
+                while (readPosition < size && failure.get() == null) {
+                    if (reads.isEmpty()) {
+                        acquirePermit();
+                    } else if (reads.size() >= readAhead || !permits.tryAcquire()) {
+                        // 手上已有未处理的读时不阻塞等待许可，否则所有job都持有许可并等待时会死锁
+                        processHead();
+                        continue;
+                    } else {
+                        permitAcquired();
+                    }
+                    issueRead();
+                }
+                while (!reads.isEmpty()) {
+                    processHead();
+                }
+                ByteBuffer tail = null;
+                for (TransformStage stage : stages) {
+                    // 前一阶段结尾的输出仍要先经过本阶段，再结束本阶段
+                    ByteBuffer applied = tail == null ? null : stage.apply(tail);
+                    tail = concat(applied, stage.finish());
+                }
+                if (tail != null && tail.hasRemaining()) {
+                    acquirePermit();
+                    write(tail, null);
+                }
+            } catch (Throwable e) {
+                fail(e);
+                // 已发出的读仍会完成，等待后归还许可和buffer
+                for (Read read : reads) {
+                    try {
+                        read.future.get();
+                    } catch (ExecutionException ignored) {
+                        // 已经失败
+                    }
+                    read.pooled.release();
+                    releasePermit();
+                }
+                reads.clear();
+            } finally {
+                writeDone();
+            }
+        }
+
+        private void issueRead() {
+            int length = (int) Math.min(chunkSize, size - readPosition);
+            PooledBuffer pooled = bufferPool.acquire(length);
+            reads.add(new Read(pooled, readPosition, in.read(pooled.buffer(), readPosition)));
+            readPosition += length;
+        }
+
+        /**
+         * 等待最早发出的读完成，交给各阶段处理后发出写
+         */
+        private void processHead() throws InterruptedException, ExecutionException {
+            Read read = reads.poll();
+            ByteBuffer buffer = read.pooled.buffer();
+            ByteBuffer output = buffer;
+            try {
+                long position = read.position + read.future.get();
+                // 文件的读可能只读到一部分，补齐剩余部分；文件在此期间被截断时到此为止
+                while (buffer.hasRemaining()) {
+                    int n = in.read(buffer, position).get();
+                    if (n < 0) {
+                        break;
+                    }
+                    position += n;
+                }
+                buffer.flip();
+                for (TransformStage stage : stages) {
+                    output = stage.apply(output);
+                }
+            } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                read.pooled.release();
+                releasePermit();
+                throw e;
+            }
+            if (output != buffer) {
+                // 阶段已复制出新的输出，池中的buffer可以立即复用
+                read.pooled.release();
+            }
+            if (output.hasRemaining()) {
+                write(output, output == buffer ? read.pooled : null);
+            } else {
+                if (output == buffer) {
+                    read.pooled.release();
+                }
+                releasePermit();
+            }
+        }
+
+        /**
+         * @param pooled 写完后要归还的池中buffer，没有时为null
+         */
+        private void write(ByteBuffer data, PooledBuffer pooled) {
+            Write write = new Write(data, pooled, writePosition);
+            writePosition += data.remaining();
+            pendingWrites.incrementAndGet();
+            out.write(data, write.position, write, this);
+        }
+
+        @Override
+        public void completed(Integer n, Write write) {
+            write.position += n;
+            if (write.data.hasRemaining() && failure.get() == null) {
+                // 写不保证一次写完
+                out.write(write.data, write.position, write, this);
+                return;
+            }
+            release(write);
+            writeDone();
+        }
+
+        @Override
+        public void failed(Throwable e, Write write) {
+            fail(e);
+            release(write);
+            writeDone();
+        }
+
+        private void release(Write write) {
+            if (write.pooled != null) {
+                write.pooled.release();
+            }
+            releasePermit();
+        }
+
+        private void fail(Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+
+        private void writeDone() {
+            if (pendingWrites.decrementAndGet() != 0) {
+                return;
+            }
+            Throwable e = failure.get();
+            try {
+                out.close();
+                in.close();
+            } catch (IOException closeFailure) {
+                if (e == null) {
+                    e = closeFailure;
+                }
+            }
+            if (e != null) {
+                result.completeExceptionally(e);
+            } else {
+                result.complete(new Result(size, writePosition, System.nanoTime() - start));
+            }
+        }
+
+        private final class Write {
+
+            private final ByteBuffer data;
+            private final PooledBuffer pooled;
+            private long position;
+
+            Write(ByteBuffer data, PooledBuffer pooled, long position) {
+                this.data = data;
+                this.pooled = pooled;
+                this.position = position;
+            }
+        }
+    }
+
+    private static final class Read {
+
+        private final PooledBuffer pooled;
+        private final long position;
+        private final Future<Integer> future;
+
+        Read(PooledBuffer pooled, long position, Future<Integer> future) {
+            this.pooled = pooled;
+            this.position = position;
+            this.future = future;
+        }
+    }
+
+    private static ByteBuffer concat(ByteBuffer a, ByteBuffer b) {
+        if (a == null || !a.hasRemaining()) {
+            return b;
+        }
+        if (b == null || !b.hasRemaining()) {
+            return a;
+        }
+        ByteBuffer result = ByteBuffer.allocate(a.remaining() + b.remaining());
+        result.put(a).put(b).flip();
+        return result;
+    }
+
+    /**
+     * 一个文件的处理结果
+     */
+    public static final class Result {
+
+        private final long bytesRead;
+        private final long bytesWritten;
+        private final long nanos;
+
+        Result(long bytesRead, long bytesWritten, long nanos) {
+            this.bytesRead = bytesRead;
+            this.bytesWritten = bytesWritten;
+            this.nanos = nanos;
+        }
+
+        public long bytesRead() {
+            return bytesRead;
+        }
+
+        public long bytesWritten() {
+            return bytesWritten;
+        }
+
+        public long nanos() {
+            return nanos;
+        }
+
+        @Override
+        public String toString() {
+            return "read=" + bytesRead + ", written=" + bytesWritten + ", " + nanos / 1_000_000 + " ms";
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.tea.java.io.async;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+import java.util.zip.Checksum;
+
+/**
+ * <p>计算流经数据的CRC32，数据原样输出
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ChecksumStage implements TransformStage {
+
+    private final CRC32 crc32 = new CRC32();
+    private long bytes;
+
+    @Override
+    public ByteBuffer apply(ByteBuffer input) {
+        bytes += input.remaining();
+        // CRC32#update(ByteBuffer)对直接内存不复制；读完position会移到limit，用duplicate保留原位置
+        crc32.update(input.duplicate());
+        return input;
+    }
+
+    /**
+     * 已处理数据的CRC32，文件处理完成后即为整个文件的校验和
+     */
+    public long getValue() {
+        return crc32.getValue();
+    }
+
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * 与{@link #getValue()}对照用：按相同方式计算一段byte[]的CRC32
+     */
+    public static long checksum(byte[] data) {
+        Checksum checksum = new CRC32();
+        checksum.update(data, 0, data.length);
+        return checksum.getValue();
+    }
+}
@@ -0,0 +1,72 @@
+package com.tea.java.io.async;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * <p>用Deflater压缩，输出为zlib格式，可用InflaterInputStream解压
+ *
+ * <p>Java 8的Deflater只接受byte[]，输入先复制到一个复用的byte[]中。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class DeflateStage implements TransformStage {
+
+    private final Deflater deflater;
+    private byte[] input = new byte[0];
+    private byte[] output = new byte[8192];
+
+    public DeflateStage() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level 压缩级别，见{@link Deflater#setLevel(int)}
+     */
+    public DeflateStage(int level) {
+        this.deflater = new Deflater(level);
+    }
+
+    @Override
+    public ByteBuffer apply(ByteBuffer buffer) {
+        int length = buffer.remaining();
+        if (input.length < length) {
+            input = new byte[length];
+        }
+        buffer.get(input, 0, length);
+        deflater.setInput(input, 0, length);
+        return drain(false);
+    }
+
+    @Override
+    public ByteBuffer finish() {
+        deflater.finish();
+        ByteBuffer tail = drain(true);
+        deflater.end();
+        return tail;
+    }
+
+    /**
+     * 取出Deflater当前能输出的所有数据，直到它需要新的输入（或finish后全部输出完）
+     */
+    private ByteBuffer drain(boolean finishing) {
+        int length = 0;
+        while (true) {
+            length += deflater.deflate(output, length, output.length - length);
+            if (length < output.length) {
+                if (finishing ? deflater.finished() : deflater.needsInput()) {
+                    break;
+                }
+                continue;
+            }
+            byte[] grown = new byte[output.length * 2];
+            System.arraycopy(output, 0, grown, 0, length);
+            output = grown;
+        }
+        // 输出交给异步写，不能复用output数组
+        ByteBuffer result = ByteBuffer.allocate(length);
+        result.put(output, 0, length).flip();
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+package com.tea.java.io.async;
+
+import java.nio.ByteBuffer;
+
+/**
+ * <p>{@link AsyncFilePipeline}中的一个处理阶段
+ *
+ * <p>同一个文件的所有数据块按文件顺序、在同一时刻只由一个线程交给{@link #apply(ByteBuffer)}，
+ * 因此实现可以有状态（累计校验和、压缩字典），但每个文件要使用新的实例。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public interface TransformStage {
+
+    /**
+     * 处理一块数据
+     *
+     * @param input position到limit为输入，调用返回后不能再持有
+     * @return 交给下一阶段的数据，可以是原地修改后的input，也可以是另外的buffer（不能是池中的buffer）；
+     * 没有输出时返回空buffer
+     */
+    ByteBuffer apply(ByteBuffer input);
+
+    /**
+     * 所有数据块处理完后调用一次
+     *
+     * @return 还需要输出的数据（如压缩流的结尾），没有时返回null
+     */
+    default ByteBuffer finish() {
+        return null;
+    }
+}
@@ -0,0 +1,298 @@
+package com.tea.java.io.buffer;
+
+import java.lang.ref.PhantomReference;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>直接内存ByteBuffer池
+ *
+ * <p>ByteBuffer#allocateDirect要申请并清零一块native内存，比堆内分配慢得多；释放依赖GC回收buffer对象后由Cleaner完成，
+ * 频繁分配时native内存的占用取决于GC的时机，突发流量下会持续上涨，还可能在-XX:MaxDirectMemorySize处触发
+ * System.gc()并等待。这里把buffer复用起来：
+ * <ul>
+ *     <li>规格：从minSize到maxSize的2的幂，申请的大小向上取整到所属规格；大于maxSize的不入池，直接分配</li>
+ *     <li>线程本地缓存：每个线程每种规格缓存最多threadLocalCapacity个，申请和归还在同一线程时不需要任何同步</li>
+ *     <li>共享池：每种规格最多sharedCapacity个，线程本地缓存为空时从这里取，满时归还到这里；共享池也满时丢弃，交给GC</li>
+ *     <li>显式归还：{@link #acquire(int)}返回{@link PooledBuffer}，用完调用{@link PooledBuffer#release()}</li>
+ *     <li>泄漏检测：每个借出的PooledBuffer由一个PhantomReference跟踪，没有归还就不可达时计入{@link #leaks()}；
+ *     泄漏的buffer可能仍被使用方持有，不回收到池中</li>
+ * </ul>
+ *
+ * <p>虚拟线程数量多、生命周期短，缓存在它们的ThreadLocal里的buffer随线程结束丢失，因此虚拟线程直接使用共享池。
+ * 申请和归还经常不在同一线程时（如异步IO的完成回调中归还），线程本地缓存会在回调线程上堆积，
+ * 这种场景可以把threadLocalCapacity设为0。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class DirectBufferPool {
+
+    public static final int DEFAULT_MIN_SIZE = 4 * 1024;
+    public static final int DEFAULT_MAX_SIZE = 4 * 1024 * 1024;
+    public static final int DEFAULT_THREAD_LOCAL_CAPACITY = 8;
+    public static final int DEFAULT_SHARED_CAPACITY = 64;
+
+    private static final Method IS_VIRTUAL = isVirtualMethod();
+
+    private final int minShift;
+    private final int maxSize;
+    private final int threadLocalCapacity;
+    private final ArrayBlockingQueue<ByteBuffer>[] shared;
+    private final ThreadLocal<ArrayDeque<ByteBuffer>[]> local;
+    private final boolean leakDetection;
+    private final ReferenceQueue<PooledBuffer> leakQueue = new ReferenceQueue<>();
+    private final Set<Leak> tracked = ConcurrentHashMap.newKeySet();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder unpooled = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder outstandingBytes = new LongAdder();
+    private final LongAdder outstandingBuffers = new LongAdder();
+
+    public DirectBufferPool() {
+        this(DEFAULT_MIN_SIZE, DEFAULT_MAX_SIZE, DEFAULT_THREAD_LOCAL_CAPACITY, DEFAULT_SHARED_CAPACITY, true);
+    }
+
+    /**
+     * @param minSize             最小规格，2的幂
+     * @param maxSize             最大规格，2的幂，大于它的申请不入池
+     * @param threadLocalCapacity 每个线程每种规格缓存的个数，0表示不使用线程本地缓存
+     * @param sharedCapacity      共享池每种规格保留的个数
+     * @param leakDetection       是否跟踪借出的buffer，每次借出多分配一个PhantomReference
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public DirectBufferPool(int minSize, int maxSize, int threadLocalCapacity, int sharedCapacity,
+                            boolean leakDetection) {
+        if (Integer.bitCount(minSize) != 1 || Integer.bitCount(maxSize) != 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("minSize(" + minSize + ") and maxSize(" + maxSize
+                + ") must be powers of two and minSize <= maxSize");
+        }
+        if (threadLocalCapacity < 0 || sharedCapacity <= 0) {
+            throw new IllegalArgumentException("threadLocalCapacity must not be negative and sharedCapacity "
+                + "must be positive");
+        }
+        this.minShift = Integer.numberOfTrailingZeros(minSize);
+        this.maxSize = maxSize;
+        this.threadLocalCapacity = threadLocalCapacity;
+        this.leakDetection = leakDetection;
+        int classes = Integer.numberOfTrailingZeros(maxSize) - minShift + 1;
+        shared = new ArrayBlockingQueue[classes];
+        for (int i = 0; i < classes; i++) {
+            shared[i] = new ArrayBlockingQueue<>(sharedCapacity);
+        }
+        // 是否虚拟线程在线程第一次使用时判断一次，虚拟线程得到空数组，表示不使用线程本地缓存
+        local = threadLocalCapacity == 0 ? null
+            : ThreadLocal.withInitial(() -> new ArrayDeque[isVirtual(Thread.currentThread()) ? 0 : classes]);
+    }
+
+    /**
+     * 借出一个至少size字节的直接内存buffer
+     */
+    public PooledBuffer acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        if (leakDetection) {
+            expungeLeaks();
+        }
+        PooledBuffer pooled;
+        if (size > maxSize) {
+            unpooled.increment();
+            pooled = new PooledBuffer(this, ByteBuffer.allocateDirect(size), -1);
+        } else {
+            int sizeClass = sizeClass(size);
+            ByteBuffer buffer = poll(sizeClass);
+            if (buffer == null) {
+                misses.increment();
+                buffer = ByteBuffer.allocateDirect(1 << (sizeClass + minShift));
+            } else {
+                hits.increment();
+            }
+            buffer.clear().limit(size);
+            pooled = new PooledBuffer(this, buffer, sizeClass);
+        }
+        outstandingBytes.add(pooled.buffer().capacity());
+        outstandingBuffers.increment();
+        if (leakDetection) {
+            pooled.leak = new Leak(pooled, leakQueue);
+            tracked.add(pooled.leak);
+        }
+        return pooled;
+    }
+
+    void release(PooledBuffer pooled) {
+        ByteBuffer buffer = pooled.buffer();
+        // JIT可能在release执行期间就把pooled判定为不可达，泄漏检测与归还谁先从tracked中移除谁负责计数
+        if (pooled.leak != null && !tracked.remove(pooled.leak)) {
+            return;
+        }
+        outstandingBytes.add(-buffer.capacity());
+        outstandingBuffers.decrement();
+        if (pooled.sizeClass() >= 0) {
+            offer(pooled.sizeClass(), buffer);
+        }
+    }
+
+    private ByteBuffer poll(int sizeClass) {
+        ArrayDeque<ByteBuffer> cache = localCache(sizeClass);
+        if (cache != null) {
+            ByteBuffer buffer = cache.poll();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return shared[sizeClass].poll();
+    }
+
+    private void offer(int sizeClass, ByteBuffer buffer) {
+        ArrayDeque<ByteBuffer> cache = localCache(sizeClass);
+        if (cache != null && cache.size() < threadLocalCapacity) {
+            cache.push(buffer);
+            return;
+        }
+        // 共享池也满时丢弃，native内存随buffer被GC回收
+        shared[sizeClass].offer(buffer);
+    }
+
+    /**
+     * 当前线程该规格的缓存，不使用线程本地缓存或当前线程是虚拟线程时为null
+     */
+    private ArrayDeque<ByteBuffer> localCache(int sizeClass) {
+        if (local == null) {
+            return null;
+        }
+        ArrayDeque<ByteBuffer>[] caches = local.get();
+        if (caches.length == 0) {
+            return null;
+        }
+        ArrayDeque<ByteBuffer> cache = caches[sizeClass];
+        if (cache == null) {
+            cache = new ArrayDeque<>(threadLocalCapacity);
+            caches[sizeClass] = cache;
+        }
+        return cache;
+    }
+
+    /**
+     * 处理已被GC判定为不可达、却没有归还的PooledBuffer
+     */
+    private void expungeLeaks() {
+        Reference<? extends PooledBuffer> reference;
+        while ((reference = leakQueue.poll()) != null) {
+            Leak leak = (Leak) reference;
+            if (tracked.remove(leak)) {
+                leaks.increment();
+                outstandingBytes.add(-leak.capacity);
+                outstandingBuffers.decrement();
+            }
+        }
+    }
+
+    int sizeClass(int size) {
+        if (size <= 1 << minShift) {
+            return 0;
+        }
+        // 向上取整到2的幂后的指数
+        return 32 - Integer.numberOfLeadingZeros(size - 1) - minShift;
+    }
+
+    /**
+     * 从池中（线程本地缓存或共享池）取到buffer的次数
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * 池中没有、新分配的次数，不含大于maxSize的申请
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * 大于maxSize、不入池直接分配的次数
+     */
+    public long unpooled() {
+        return unpooled.sum();
+    }
+
+    /**
+     * 检测到的泄漏次数：借出后没有归还就不可达。只在{@link #acquire(int)}时检查，有延迟
+     */
+    public long leaks() {
+        if (leakDetection) {
+            expungeLeaks();
+        }
+        return leaks.sum();
+    }
+
+    /**
+     * 借出未归还的buffer的总容量
+     */
+    public long outstandingBytes() {
+        return outstandingBytes.sum();
+    }
+
+    public long outstandingBuffers() {
+        return outstandingBuffers.sum();
+    }
+
+    /**
+     * 共享池中空闲的buffer的总容量，不含线程本地缓存
+     */
+    public long sharedBytes() {
+        long bytes = 0;
+        for (int i = 0; i < shared.length; i++) {
+            bytes += (long) shared[i].size() << (i + minShift);
+        }
+        return bytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, unpooled=%d, leaks=%d, outstanding=%d buffers/%d bytes",
+            hits(), misses(), unpooled(), leaks(), outstandingBuffers(), outstandingBytes());
+    }
+
+    private static Method isVirtualMethod() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 跟踪一个借出的PooledBuffer，只记录容量，不持有buffer，泄漏的buffer不回收到池中
+     */
+    static final class Leak extends PhantomReference<PooledBuffer> {
+
+        private final int capacity;
+
+        Leak(PooledBuffer referent, ReferenceQueue<? super PooledBuffer> queue) {
+            super(referent, queue);
+            this.capacity = referent.buffer().capacity();
+        }
+    }
+}
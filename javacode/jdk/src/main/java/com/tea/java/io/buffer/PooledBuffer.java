@@ -0,0 +1,67 @@
+package com.tea.java.io.buffer;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * <p>从{@link DirectBufferPool}借出的buffer
+ *
+ * <p>用完后调用{@link #release()}（或try-with-resources）归还，归还后不能再使用{@link #buffer()}，
+ * 也不能保留buffer()的引用。重复归还只有第一次生效。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public final class PooledBuffer implements AutoCloseable {
+
+    private static final AtomicIntegerFieldUpdater<PooledBuffer> RELEASED =
+        AtomicIntegerFieldUpdater.newUpdater(PooledBuffer.class, "released");
+
+    private final DirectBufferPool pool;
+    private final ByteBuffer buffer;
+    private final int sizeClass;
+    /**
+     * 开启泄漏检测时为跟踪本对象的PhantomReference，否则为null
+     */
+    DirectBufferPool.Leak leak;
+    private volatile int released;
+
+    PooledBuffer(DirectBufferPool pool, ByteBuffer buffer, int sizeClass) {
+        this.pool = pool;
+        this.buffer = buffer;
+        this.sizeClass = sizeClass;
+    }
+
+    /**
+     * 直接内存buffer，position为0，limit为申请的大小，capacity为所属规格的大小
+     */
+    public ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * 归还到池中
+     *
+     * @return 是否为第一次归还
+     */
+    public boolean release() {
+        if (!RELEASED.compareAndSet(this, 0, 1)) {
+            return false;
+        }
+        pool.release(this);
+        return true;
+    }
+
+    public boolean isReleased() {
+        return released != 0;
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    int sizeClass() {
+        return sizeClass;
+    }
+}
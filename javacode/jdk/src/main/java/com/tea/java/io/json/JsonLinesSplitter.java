@@ -0,0 +1,117 @@
+package com.tea.java.io.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>把JSON Lines输入切成若干段，每段都从某一行的开头开始、在某一行的结尾结束，各段可以交给不同线程并行解析
+ *
+ * <p>先按字节数等分，再把每个切分点向后移到下一个换行符之后；行很长或段数很多时某些段可能为空。
+ * 切分只读取切分点附近的少量字节，不扫描整个输入。
+ *
+ * <p>单个{@link MappedByteBuffer}最大2GB，{@link #map(FileChannel, int)}会在需要时增加段数，保证每段都能映射。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class JsonLinesSplitter {
+
+    /**
+     * 单段的最大长度，即单个映射的上限
+     */
+    static final long MAX_CHUNK_SIZE = Integer.MAX_VALUE;
+
+    private static final int WINDOW = 64 * 1024;
+
+    private JsonLinesSplitter() {
+    }
+
+    /**
+     * 切分data的[position, limit)，返回共享data内容的切片
+     */
+    public static List<ByteBuffer> split(ByteBuffer data, int chunks) {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("chunks must be positive: " + chunks);
+        }
+        int from = data.position();
+        int length = data.remaining();
+        List<ByteBuffer> result = new ArrayList<>(chunks);
+        int start = from;
+        for (int i = 1; i <= chunks; i++) {
+            int end = i == chunks ? from + length : Math.max(start, from + (int) ((long) length * i / chunks));
+            // 移到下一个换行符之后，切分点正好在行首时不动
+            while (end < from + length && end > start && data.get(end - 1) != '\n') {
+                end++;
+            }
+            ByteBuffer chunk = data.duplicate();
+            chunk.limit(end);
+            chunk.position(start);
+            result.add(chunk.slice());
+            start = end;
+        }
+        return result;
+    }
+
+    /**
+     * 文件的切分点：第i段为[boundaries[i], boundaries[i + 1])
+     */
+    public static long[] boundaries(FileChannel channel, int chunks) throws IOException {
+        if (chunks < 1) {
+            throw new IllegalArgumentException("chunks must be positive: " + chunks);
+        }
+        long size = channel.size();
+        long[] boundaries = new long[chunks + 1];
+        boundaries[chunks] = size;
+        ByteBuffer window = ByteBuffer.allocate(WINDOW);
+        for (int i = 1; i < chunks; i++) {
+            long target = Math.max(boundaries[i - 1], size / chunks * i);
+            boundaries[i] = target == boundaries[i - 1] ? target : nextLineStart(channel, target, size, window);
+        }
+        return boundaries;
+    }
+
+    /**
+     * 按切分点映射文件，每段不超过2GB
+     */
+    public static List<MappedByteBuffer> map(FileChannel channel, int chunks) throws IOException {
+        long minChunks = (channel.size() + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE;
+        // 超过2GB时多留一倍余量，切分点后移后单段仍不超过上限（除非存在超过1GB的行）
+        int n = minChunks <= 1 ? chunks : (int) Math.max(chunks, minChunks * 2);
+        long[] boundaries = boundaries(channel, n);
+        List<MappedByteBuffer> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long length = boundaries[i + 1] - boundaries[i];
+            if (length > MAX_CHUNK_SIZE) {
+                throw new IOException("line too long to map: chunk " + i + " is " + length + " bytes");
+            }
+            result.add(channel.map(FileChannel.MapMode.READ_ONLY, boundaries[i], length));
+        }
+        return result;
+    }
+
+    /**
+     * target之后（含）第一个行首的位置，即target - 1处开始的第一个换行符之后
+     */
+    private static long nextLineStart(FileChannel channel, long target, long size, ByteBuffer window)
+        throws IOException {
+        long position = target - 1;
+        while (position < size) {
+            window.clear();
+            int n = channel.read(window, position);
+            if (n <= 0) {
+                break;
+            }
+            for (int i = 0; i < n; i++) {
+                if (window.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += n;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,28 @@
+package com.tea.java.io.json;
+
+import java.io.IOException;
+
+/**
+ * <p>JSON格式错误
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class JsonSyntaxException extends IOException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long offset;
+
+    public JsonSyntaxException(String message, long offset) {
+        super(message + " at offset " + offset);
+        this.offset = offset;
+    }
+
+    /**
+     * 出错位置在输入中的字节偏移
+     */
+    public long getOffset() {
+        return offset;
+    }
+}
@@ -0,0 +1,27 @@
+package com.tea.java.io.json;
+
+/**
+ * <p>{@link JsonTokenizer#next()}返回的token类型
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public enum JsonToken {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    /**
+     * 对象中的字段名
+     */
+    NAME,
+    STRING,
+    NUMBER,
+    TRUE,
+    FALSE,
+    NULL,
+    /**
+     * 输入结束
+     */
+    END_DOCUMENT
+}
@@ -0,0 +1,432 @@
+package com.tea.java.io.json;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>拉取式（pull）JSON tokenizer，直接在UTF-8字节上工作
+ *
+ * <p>与FileReader + char[]逐层解码、复制不同，这里不做字符集解码：JSON的结构字符都是ASCII，
+ * UTF-8多字节字符的每个字节都不小于0x80，不会被误认为引号或反斜杠，因此可以直接扫描字节。
+ * 字符串、数字只记录在buffer中的起止位置，调用{@link #stringValue()}等方法时才构造对象；
+ * 被跳过的值（{@link #skipValue()}）和用{@link #contentEquals(byte[])}比较的字段名不产生任何String。
+ *
+ * <p>两种输入：
+ * <ul>
+ *     <li>{@link #JsonTokenizer(ByteBuffer)}：整个输入已在buffer中，如{@link java.nio.MappedByteBuffer}
+ *     或{@link JsonLinesSplitter}切出的一段</li>
+ *     <li>{@link #JsonTokenizer(ReadableByteChannel, ByteBuffer)}：从阻塞的channel边读边解析。buffer读完时把当前token
+ *     未处理完的部分移到开头再读入（refill），单个token比buffer大时换一块两倍大小的buffer</li>
+ * </ul>
+ *
+ * <p>多个顶层值依次出现（JSON Lines）时逐个返回，全部读完后返回{@link JsonToken#END_DOCUMENT}。
+ * 对逗号、冒号的位置不做严格校验，括号不匹配、字符串未结束、非法字面量会抛出{@link JsonSyntaxException}。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class JsonTokenizer {
+
+    private static final int OBJECT = 1;
+    private static final int ARRAY = 2;
+
+    private static final byte[] TRUE_BYTES = {'t', 'r', 'u', 'e'};
+    private static final byte[] FALSE_BYTES = {'f', 'a', 'l', 's', 'e'};
+    private static final byte[] NULL_BYTES = {'n', 'u', 'l', 'l'};
+
+    private final ReadableByteChannel channel;
+    private ByteBuffer buffer;
+    /** buffer中[pos, limit)为未处理的输入 */
+    private int pos;
+    private int limit;
+    /** buffer下标0对应的输入偏移 */
+    private long base;
+    private boolean eof;
+
+    private int[] stack = new int[32];
+    private int depth;
+    private boolean expectName;
+
+    private JsonToken token;
+    /** 当前token内容在buffer中的位置，字符串不含引号 */
+    private int start;
+    private int end;
+    private boolean escaped;
+    /** refill时需要保留的起点（当前token的开头），-1表示不需要保留 */
+    private int keep = -1;
+
+    public JsonTokenizer(ByteBuffer buffer) {
+        this.channel = null;
+        this.buffer = buffer;
+        this.pos = buffer.position();
+        this.limit = buffer.limit();
+        this.base = -buffer.position();
+        this.eof = true;
+    }
+
+    /**
+     * @param channel 阻塞模式的输入
+     * @param buffer  读缓冲，建议使用直接内存，内容会被覆盖
+     */
+    public JsonTokenizer(ReadableByteChannel channel, ByteBuffer buffer) {
+        if (buffer.capacity() == 0) {
+            throw new IllegalArgumentException("buffer capacity must be positive");
+        }
+        this.channel = channel;
+        this.buffer = buffer;
+        buffer.clear();
+        this.pos = 0;
+        this.limit = 0;
+    }
+
+    public JsonToken next() throws IOException {
+        keep = -1;
+        escaped = false;
+        while (true) {
+            int c = peekNonWhitespace();
+            if (c < 0) {
+                if (depth > 0) {
+                    throw syntax("unexpected end of input");
+                }
+                return token = JsonToken.END_DOCUMENT;
+            }
+            switch (c) {
+                case '{':
+                    pos++;
+                    push(OBJECT);
+                    expectName = true;
+                    return token = JsonToken.BEGIN_OBJECT;
+                case '}':
+                    pop(OBJECT);
+                    pos++;
+                    expectName = false;
+                    return token = JsonToken.END_OBJECT;
+                case '[':
+                    pos++;
+                    push(ARRAY);
+                    expectName = false;
+                    return token = JsonToken.BEGIN_ARRAY;
+                case ']':
+                    pop(ARRAY);
+                    pos++;
+                    return token = JsonToken.END_ARRAY;
+                case ',':
+                    pos++;
+                    expectName = depth > 0 && stack[depth - 1] == OBJECT;
+                    continue;
+                case ':':
+                    pos++;
+                    continue;
+                case '"':
+                    readString();
+                    if (expectName) {
+                        expectName = false;
+                        return token = JsonToken.NAME;
+                    }
+                    return token = JsonToken.STRING;
+                case 't':
+                    readLiteral(TRUE_BYTES);
+                    return token = JsonToken.TRUE;
+                case 'f':
+                    readLiteral(FALSE_BYTES);
+                    return token = JsonToken.FALSE;
+                case 'n':
+                    readLiteral(NULL_BYTES);
+                    return token = JsonToken.NULL;
+                default:
+                    if (c == '-' || c >= '0' && c <= '9') {
+                        readNumber();
+                        return token = JsonToken.NUMBER;
+                    }
+                    throw syntax("unexpected character '" + (char) c + "'");
+            }
+        }
+    }
+
+    /**
+     * 跳过下一个值（在NAME之后调用即跳过该字段的值），对象、数组整体跳过，不构造任何String
+     */
+    public void skipValue() throws IOException {
+        JsonToken t = next();
+        if (t == JsonToken.NAME) {
+            t = next();
+        }
+        if (t != JsonToken.BEGIN_OBJECT && t != JsonToken.BEGIN_ARRAY) {
+            return;
+        }
+        int target = depth - 1;
+        while (depth > target) {
+            if (next() == JsonToken.END_DOCUMENT) {
+                return;
+            }
+        }
+    }
+
+    public JsonToken token() {
+        return token;
+    }
+
+    /**
+     * 对象、数组的嵌套层数
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * 下一个未读字节在输入中的偏移
+     */
+    public long position() {
+        return base + pos;
+    }
+
+    /**
+     * 当前NAME、STRING的内容是否等于utf8，没有转义字符时逐字节比较，不构造String
+     */
+    public boolean contentEquals(byte[] utf8) {
+        if (escaped) {
+            return stringValue().equals(new String(utf8, StandardCharsets.UTF_8));
+        }
+        if (end - start != utf8.length) {
+            return false;
+        }
+        for (int i = 0; i < utf8.length; i++) {
+            if (buffer.get(start + i) != utf8[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * NAME、STRING为处理转义后的内容，NUMBER及字面量为原文
+     */
+    public String stringValue() {
+        String raw = new String(bytes(), StandardCharsets.UTF_8);
+        return escaped ? unescape(raw) : raw;
+    }
+
+    public long longValue() {
+        if (token != JsonToken.NUMBER) {
+            throw new IllegalStateException("not a number: " + token);
+        }
+        int i = start;
+        boolean negative = buffer.get(i) == '-';
+        if (negative) {
+            i++;
+        }
+        // 18位以内不会溢出，直接按字节累加
+        if (end - i <= 18) {
+            long value = 0;
+            for (; i < end; i++) {
+                int digit = buffer.get(i) - '0';
+                if (digit < 0 || digit > 9) {
+                    return (long) doubleValue();
+                }
+                value = value * 10 + digit;
+            }
+            return negative ? -value : value;
+        }
+        return isInteger() ? Long.parseLong(stringValue()) : (long) doubleValue();
+    }
+
+    public double doubleValue() {
+        if (token != JsonToken.NUMBER) {
+            throw new IllegalStateException("not a number: " + token);
+        }
+        return Double.parseDouble(stringValue());
+    }
+
+    public boolean booleanValue() {
+        if (token != JsonToken.TRUE && token != JsonToken.FALSE) {
+            throw new IllegalStateException("not a boolean: " + token);
+        }
+        return token == JsonToken.TRUE;
+    }
+
+    private boolean isInteger() {
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b == '.' || b == 'e' || b == 'E') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private byte[] bytes() {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return bytes;
+    }
+
+    private void readString() throws IOException {
+        keep = pos;
+        pos++;
+        start = pos;
+        while (true) {
+            if (pos >= limit && !refill()) {
+                throw syntax("unterminated string");
+            }
+            byte b = buffer.get(pos++);
+            if (b == '"') {
+                end = pos - 1;
+                return;
+            }
+            if (b == '\\') {
+                escaped = true;
+                if (pos >= limit && !refill()) {
+                    throw syntax("unterminated string");
+                }
+                pos++;
+            }
+        }
+    }
+
+    private void readNumber() throws IOException {
+        keep = pos;
+        start = pos;
+        while (pos < limit || refill()) {
+            byte b = buffer.get(pos);
+            if (!(b >= '0' && b <= '9' || b == '-' || b == '+' || b == '.' || b == 'e' || b == 'E')) {
+                break;
+            }
+            pos++;
+        }
+        end = pos;
+    }
+
+    private void readLiteral(byte[] expected) throws IOException {
+        keep = pos;
+        start = pos;
+        for (byte b : expected) {
+            if (pos >= limit && !refill() || buffer.get(pos) != b) {
+                throw syntax("invalid literal");
+            }
+            pos++;
+        }
+        end = pos;
+    }
+
+    private int peekNonWhitespace() throws IOException {
+        while (pos < limit || refill()) {
+            byte b = buffer.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b & 0xff;
+            }
+            pos++;
+        }
+        return -1;
+    }
+
+    /**
+     * 读入更多数据，之前读到的部分（当前token除外）丢弃
+     *
+     * @return 是否读到了新数据
+     */
+    private boolean refill() throws IOException {
+        if (eof) {
+            return false;
+        }
+        int from = keep >= 0 ? keep : pos;
+        if (from > 0) {
+            buffer.limit(limit);
+            buffer.position(from);
+            buffer.compact();
+            pos -= from;
+            start -= from;
+            end -= from;
+            if (keep >= 0) {
+                keep -= from;
+            }
+            limit -= from;
+            base += from;
+        } else if (limit == buffer.capacity()) {
+            // 一个token占满了整个buffer
+            ByteBuffer larger = buffer.isDirect()
+                ? ByteBuffer.allocateDirect(buffer.capacity() * 2) : ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.limit(limit);
+            buffer.position(0);
+            larger.put(buffer);
+            buffer = larger;
+        }
+        buffer.limit(buffer.capacity());
+        buffer.position(limit);
+        int n;
+        do {
+            n = channel.read(buffer);
+        } while (n == 0);
+        if (n < 0) {
+            eof = true;
+            return false;
+        }
+        limit += n;
+        return true;
+    }
+
+    private void push(int type) {
+        if (depth == stack.length) {
+            int[] larger = new int[depth * 2];
+            System.arraycopy(stack, 0, larger, 0, depth);
+            stack = larger;
+        }
+        stack[depth++] = type;
+    }
+
+    private void pop(int type) throws JsonSyntaxException {
+        if (depth == 0 || stack[depth - 1] != type) {
+            throw syntax("mismatched " + (type == OBJECT ? "'}'" : "']'"));
+        }
+        depth--;
+    }
+
+    private JsonSyntaxException syntax(String message) {
+        return new JsonSyntaxException(message, position());
+    }
+
+    private static String unescape(String raw) {
+        StringBuilder sb = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 >= raw.length()) {
+                sb.append(c);
+                continue;
+            }
+            char e = raw.charAt(++i);
+            switch (e) {
+                case 'b':
+                    sb.append('\b');
+                    break;
+                case 'f':
+                    sb.append('\f');
+                    break;
+                case 'n':
+                    sb.append('\n');
+                    break;
+                case 'r':
+                    sb.append('\r');
+                    break;
+                case 't':
+                    sb.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 < raw.length()) {
+                        sb.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                        i += 4;
+                        break;
+                    }
+                    sb.append(e);
+                    break;
+                default:
+                    // \" \\ \/
+                    sb.append(e);
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,417 @@
+package com.tea.java.io.mmap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * <p>基于内存映射文件的追加日志（write-ahead log）
+ *
+ * <p>日志由目录下的多个segment文件组成（00000000000000000000.log ...，文件名为该segment第一个字节的全局偏移），
+ * 每个segment映射为一块{@link MappedByteBuffer}。单个映射最大2GB，日志整体通过不断滚动到新segment突破这个限制，
+ * 记录的偏移（offset）是long。
+ *
+ * <p>记录格式：length(4) + crc32(4，覆盖length和内容) + 内容，整体按8字节对齐。
+ * segment剩余空间放不下一条记录时，写入一条length为-1的填充记录占满剩余部分，滚动到下一个segment。
+ *
+ * <p>并发追加不加锁：
+ * <ul>
+ *     <li>预留：每个segment有一个tail，写入线程CAS把tail推进记录的长度，得到独占的一段空间，各自并行写入映射内存</li>
+ *     <li>提交：每个segment有一个committed，写完的线程等到committed推进到自己的起点，再把它推进到自己的终点。
+ *     读者只读committed之前的数据，因此只会看到完整的记录，且与预留顺序一致，不会出现空洞</li>
+ *     <li>滚动：CAS预留失败（剩余空间不够）的线程中，只有把tail推到segment末尾的那一个负责写填充记录、创建新segment，
+ *     其余线程等待新segment出现后重试</li>
+ * </ul>
+ *
+ * <p>读取不复制：{@link #read(long)}和{@link Cursor#next()}返回指向映射内存的只读ByteBuffer切片，在日志关闭前有效。
+ *
+ * <p>持久化：写入映射内存后数据在page cache中，进程崩溃不会丢失，断电会丢失未刷盘的部分。
+ * flushIntervalMillis大于0时后台线程按固定间隔{@link #force()}；否则由调用者控制，
+ * 如每批写完调用force()，或使用{@link #appendBatch(List)}。
+ *
+ * <p>重启时扫描所有segment，遇到长度为0（未写入部分）或crc不匹配（写了一半的记录）即认为该segment到此结束，
+ * 之后总是新开一个segment写入，不在可能残缺的旧segment后面追加。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class MappedRecordLog implements Closeable {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    static final int HEADER_SIZE = 8;
+    static final int ALIGNMENT = 8;
+    private static final int PADDING = -1;
+    private static final String SUFFIX = ".log";
+
+    private static final class Segment {
+        final long baseOffset;
+        final int capacity;
+        final MappedByteBuffer buffer;
+        final FileChannel channel;
+        /** 已预留到的位置 */
+        final AtomicLong tail;
+        /** 已提交到的位置，读者只读这之前的数据 */
+        final AtomicLong committed;
+        /** 已刷盘到的位置，force()返回后才推进；刷盘在本对象的锁内进行 */
+        final AtomicLong flushed;
+        /** 写满（或重启前的旧segment），committed不再变化 */
+        volatile boolean sealed;
+
+        Segment(long baseOffset, MappedByteBuffer buffer, FileChannel channel, int position) {
+            this.baseOffset = baseOffset;
+            this.capacity = buffer.capacity();
+            this.buffer = buffer;
+            this.channel = channel;
+            this.tail = new AtomicLong(position);
+            this.committed = new AtomicLong(position);
+            this.flushed = new AtomicLong(position);
+        }
+    }
+
+    private final File directory;
+    private final int segmentSize;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ScheduledExecutorService flusher;
+    private volatile Segment active;
+    private volatile boolean closed;
+
+    public MappedRecordLog(File directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, 0);
+    }
+
+    /**
+     * @param directory           segment文件所在目录，不存在时创建
+     * @param segmentSize         单个segment文件大小（字节），8的倍数
+     * @param flushIntervalMillis 后台刷盘间隔，不大于0时不自动刷盘
+     */
+    public MappedRecordLog(File directory, int segmentSize, long flushIntervalMillis) throws IOException {
+        if (segmentSize < 2 * HEADER_SIZE || segmentSize % ALIGNMENT != 0) {
+            throw new IllegalArgumentException("segmentSize must be a multiple of 8 and at least 16: " + segmentSize);
+        }
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("cannot create directory " + directory);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        long nextOffset = recover();
+        this.active = createSegment(nextOffset);
+        if (flushIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "mapped-record-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::force, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * 追加record的remaining部分，不改变record的position
+     *
+     * @return 记录的偏移，用于{@link #read(long)}
+     */
+    public long append(ByteBuffer record) {
+        int length = record.remaining();
+        int size = align(HEADER_SIZE + length);
+        if (size > segmentSize) {
+            throw new IllegalArgumentException("record too large for segment: " + length);
+        }
+        while (true) {
+            if (closed) {
+                throw new IllegalStateException("log closed");
+            }
+            Segment segment = active;
+            long start = segment.tail.get();
+            if (start + size <= segment.capacity) {
+                if (segment.tail.compareAndSet(start, start + size)) {
+                    write(segment, (int) start, record, length);
+                    commit(segment, start, start + size);
+                    return segment.baseOffset + start;
+                }
+            } else if (start <= segment.capacity) {
+                // 剩余空间不够，把tail推过末尾（capacity + 1表示已有线程在滚动），抢到的线程负责滚动
+                if (segment.tail.compareAndSet(start, segment.capacity + 1L)) {
+                    roll(segment, start);
+                }
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    public long append(byte[] record) {
+        return append(ByteBuffer.wrap(record));
+    }
+
+    /**
+     * 追加一批记录后刷盘，返回时这批记录已持久化
+     *
+     * @return 每条记录的偏移
+     */
+    public long[] appendBatch(List<ByteBuffer> records) {
+        long[] offsets = new long[records.size()];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = append(records.get(i));
+        }
+        force();
+        return offsets;
+    }
+
+    /**
+     * @param offset {@link #append}返回的偏移
+     * @return 记录内容的只读切片，offset处没有已提交的记录时返回null
+     */
+    public ByteBuffer read(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            return null;
+        }
+        Segment segment = entry.getValue();
+        long position = offset - segment.baseOffset;
+        if (position + HEADER_SIZE > segment.committed.get()) {
+            return null;
+        }
+        int length = segment.buffer.getInt((int) position);
+        return length < 0 ? null : slice(segment, (int) position, length);
+    }
+
+    /**
+     * 从最早的记录开始读
+     */
+    public Cursor cursor() {
+        return cursor(segments.firstKey());
+    }
+
+    /**
+     * @param offset 某条记录的偏移，或segment的起点
+     */
+    public Cursor cursor(long offset) {
+        return new Cursor(offset);
+    }
+
+    /**
+     * 顺序读取，单线程使用；追上写入位置后next()返回null，之后有新的提交时可以继续读
+     */
+    public final class Cursor {
+
+        private Segment segment;
+        private long position;
+
+        private Cursor(long offset) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+            if (entry == null) {
+                throw new IllegalArgumentException("offset before the log start: " + offset);
+            }
+            this.segment = entry.getValue();
+            this.position = offset - segment.baseOffset;
+        }
+
+        /**
+         * @return 下一条记录内容的只读切片，暂时没有新记录时返回null
+         */
+        public ByteBuffer next() {
+            while (true) {
+                if (position < segment.committed.get()) {
+                    int length = segment.buffer.getInt((int) position);
+                    if (length != PADDING) {
+                        ByteBuffer record = slice(segment, (int) position, length);
+                        position += align(HEADER_SIZE + length);
+                        return record;
+                    }
+                    position = segment.capacity;
+                    continue;
+                }
+                if (!segment.sealed) {
+                    return null;
+                }
+                // sealed在最后一次提交之后设置，此时committed已不再变化，再读一次确认读完
+                if (position < segment.committed.get()) {
+                    continue;
+                }
+                Map.Entry<Long, Segment> next = segments.higherEntry(segment.baseOffset);
+                if (next == null) {
+                    return null;
+                }
+                segment = next.getValue();
+                position = 0;
+            }
+        }
+
+        /**
+         * 当前读到的位置，可以传给{@link #cursor(long)}从这里继续读；在segment末尾时指向填充记录而不是下一个segment
+         */
+        public long offset() {
+            return segment.baseOffset + position;
+        }
+    }
+
+    /**
+     * 把已提交的数据刷到磁盘，返回时调用前已提交的数据都已持久化
+     *
+     * <p>同一个segment的刷盘串行执行：另一个线程（如后台刷盘线程）正在刷时等它完成，
+     * 它刷到的位置不够时自己再刷一次。flushed在force完成后才推进，不能提前推进，
+     * 否则并发的调用者看到flushed已到达committed会直接返回，而数据还没有落盘。
+     */
+    public void force() {
+        for (Segment segment : segments.values()) {
+            if (segment.committed.get() <= segment.flushed.get()) {
+                continue;
+            }
+            synchronized (segment) {
+                long committed = segment.committed.get();
+                if (committed > segment.flushed.get()) {
+                    segment.buffer.force();
+                    segment.flushed.set(committed);
+                }
+            }
+        }
+    }
+
+    /**
+     * offset处的记录是否已刷盘
+     */
+    boolean isFlushed(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        return entry != null && offset - entry.getKey() < entry.getValue().flushed.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        force();
+        for (Segment segment : segments.values()) {
+            segment.channel.close();
+        }
+    }
+
+    private static void write(Segment segment, int position, ByteBuffer record, int length) {
+        ByteBuffer src = record.duplicate();
+        CRC32 crc = new CRC32();
+        crc.update(lengthBytes(length));
+        crc.update(src.duplicate());
+
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(position + HEADER_SIZE);
+        buffer.put(src);
+        buffer.putInt(position, length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+    }
+
+    /**
+     * 按预留顺序提交：等前面的记录都提交后再推进committed
+     */
+    private static void commit(Segment segment, long start, long end) {
+        while (segment.committed.get() != start) {
+            Thread.yield();
+        }
+        segment.committed.set(end);
+    }
+
+    private void roll(Segment segment, long start) {
+        if (start < segment.capacity) {
+            segment.buffer.putInt((int) start, PADDING);
+        }
+        commit(segment, start, segment.capacity);
+        segment.sealed = true;
+        active = createSegment(segment.baseOffset + segment.capacity);
+    }
+
+    private static ByteBuffer slice(Segment segment, int position, int length) {
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.limit(position + HEADER_SIZE + length);
+        buffer.position(position + HEADER_SIZE);
+        return buffer.slice().asReadOnlyBuffer();
+    }
+
+    private Segment createSegment(long baseOffset) {
+        File file = new File(directory, String.format("%020d%s", baseOffset, SUFFIX));
+        try {
+            FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            Segment segment = new Segment(baseOffset, buffer, channel, 0);
+            segments.put(baseOffset, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return 新segment的起始偏移
+     */
+    private long recover() throws IOException {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        long nextOffset = 0;
+        if (files == null) {
+            return nextOffset;
+        }
+        for (File file : files) {
+            long baseOffset = Long.parseLong(file.getName().substring(0, file.getName().length() - SUFFIX.length()));
+            FileChannel channel = new RandomAccessFile(file, "r").getChannel();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Segment segment = new Segment(baseOffset, buffer, channel, scan(buffer));
+            segment.sealed = true;
+            segments.put(baseOffset, segment);
+            nextOffset = Math.max(nextOffset, baseOffset + segment.capacity);
+        }
+        return nextOffset;
+    }
+
+    /**
+     * @return 最后一条完整记录的结束位置
+     */
+    private static int scan(ByteBuffer buffer) {
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            if (length == PADDING) {
+                return buffer.limit();
+            }
+            if (length < 0 || position + HEADER_SIZE + (long) length > buffer.limit()) {
+                return position;
+            }
+            ByteBuffer body = buffer.duplicate();
+            body.limit(position + HEADER_SIZE + length);
+            body.position(position + HEADER_SIZE);
+            CRC32 crc = new CRC32();
+            crc.update(lengthBytes(length));
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                return position;
+            }
+            position += align(HEADER_SIZE + length);
+        }
+        return position;
+    }
+
+    private static byte[] lengthBytes(int length) {
+        return new byte[]{(byte) (length >>> 24), (byte) (length >>> 16), (byte) (length >>> 8), (byte) length};
+    }
+
+    static int align(int size) {
+        return (size + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
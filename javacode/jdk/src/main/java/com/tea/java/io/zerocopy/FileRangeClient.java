@@ -0,0 +1,94 @@
+package com.tea.java.io.zerocopy;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * <p>{@link ZeroCopyFileServer}的阻塞客户端，一个连接上顺序发送请求
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class FileRangeClient implements Closeable {
+
+    private final SocketChannel channel;
+    private final ByteBuffer header = ByteBuffer.allocate(ZeroCopyFileServer.HEADER_SIZE);
+    private final ByteBuffer buffer;
+
+    public FileRangeClient(InetSocketAddress address) throws IOException {
+        this(address, FileTransfer.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize 接收缓冲大小
+     */
+    public FileRangeClient(InetSocketAddress address, int bufferSize) throws IOException {
+        this.channel = SocketChannel.open(address);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * 请求path的[offset, offset + length)
+     *
+     * @param sink 接收内容，为null时丢弃
+     * @return 实际返回的字节数，区间超出文件末尾时小于length
+     */
+    public long fetch(String path, long offset, long length, WritableByteChannel sink) throws IOException {
+        ByteBuffer request = ByteBuffer.wrap((path + " " + offset + " " + length + "\n").getBytes(StandardCharsets.US_ASCII));
+        while (request.hasRemaining()) {
+            channel.write(request);
+        }
+
+        header.clear();
+        readFully(header);
+        header.flip();
+        int status = header.getInt();
+        long bodyLength = header.getLong();
+        if (status == ZeroCopyFileServer.NOT_FOUND) {
+            throw new FileNotFoundException(path);
+        }
+        if (status != ZeroCopyFileServer.OK) {
+            throw new IOException("bad request: " + path + " " + offset + " " + length);
+        }
+
+        long remaining = bodyLength;
+        while (remaining > 0) {
+            buffer.clear();
+            if (remaining < buffer.capacity()) {
+                buffer.limit((int) remaining);
+            }
+            int n = channel.read(buffer);
+            if (n < 0) {
+                throw new EOFException("connection closed, " + remaining + " bytes missing");
+            }
+            remaining -= n;
+            if (sink != null) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    sink.write(buffer);
+                }
+            }
+        }
+        return bodyLength;
+    }
+
+    private void readFully(ByteBuffer target) throws IOException {
+        while (target.hasRemaining()) {
+            if (channel.read(target) < 0) {
+                throw new EOFException("connection closed");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,244 @@
+package com.tea.java.io.zerocopy;
+
+import com.tea.java.io.buffer.DirectBufferPool;
+import com.tea.java.io.buffer.PooledBuffer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>文件复制，按文件大小选择复制方式
+ *
+ * <ul>
+ *     <li>{@link Strategy#HEAP}：堆内ByteBuffer读写。FileChannel读写堆内buffer时JDK会先复制到一块临时的直接内存，
+ *     多一次复制，但小文件上这点开销可以忽略，也不占用直接内存</li>
+ *     <li>{@link Strategy#DIRECT}：直接内存ByteBuffer读写，省掉堆内外的复制，数据仍要在内核和用户空间之间往返一次。
+ *     buffer从{@link DirectBufferPool}借出，复制完归还，不必每次分配直接内存</li>
+ *     <li>{@link Strategy#TRANSFER_TO}：FileChannel#transferTo，Linux上为sendfile/copy_file_range，数据不进入用户空间。
+ *     每次调用的开销（系统调用、建立映射）较大，适合大文件</li>
+ * </ul>
+ *
+ * <p>transferTo不保证一次传完：返回值可能小于count，需要循环；单次调用在Linux上最多约2GB（sendfile的限制为0x7ffff000字节），
+ * 因此每次最多请求{@link #MAX_TRANSFER_PER_CALL}字节。
+ *
+ * <p>每种方式累计复制的字节数和耗时，通过{@link #stats(Strategy)}查看吞吐量。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class FileTransfer {
+
+    public enum Strategy {
+        HEAP,
+        DIRECT,
+        TRANSFER_TO
+    }
+
+    /**
+     * 小于该大小用堆内buffer
+     */
+    public static final long DEFAULT_DIRECT_THRESHOLD = 64 * 1024;
+
+    /**
+     * 不小于该大小用transferTo
+     */
+    public static final long DEFAULT_TRANSFER_TO_THRESHOLD = 8 * 1024 * 1024;
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 单次transferTo请求的最大字节数，与Linux sendfile单次上限一致
+     */
+    public static final long MAX_TRANSFER_PER_CALL = 0x7ffff000L;
+
+    private final long directThreshold;
+    private final long transferToThreshold;
+    private final int bufferSize;
+    private final long maxTransferPerCall;
+    private final DirectBufferPool bufferPool;
+    private final Map<Strategy, Stats> stats = new EnumMap<>(Strategy.class);
+
+    public FileTransfer() {
+        this(DEFAULT_DIRECT_THRESHOLD, DEFAULT_TRANSFER_TO_THRESHOLD, DEFAULT_BUFFER_SIZE, MAX_TRANSFER_PER_CALL);
+    }
+
+    /**
+     * @param directThreshold     不小于该大小时用直接内存
+     * @param transferToThreshold 不小于该大小时用transferTo
+     * @param bufferSize          HEAP、DIRECT方式每次读写的大小
+     * @param maxTransferPerCall  单次transferTo请求的最大字节数
+     */
+    public FileTransfer(long directThreshold, long transferToThreshold, int bufferSize, long maxTransferPerCall) {
+        this(directThreshold, transferToThreshold, bufferSize, maxTransferPerCall, new DirectBufferPool());
+    }
+
+    /**
+     * @param bufferPool DIRECT方式buffer的来源，可以由多个FileTransfer共用
+     */
+    public FileTransfer(long directThreshold, long transferToThreshold, int bufferSize, long maxTransferPerCall,
+                        DirectBufferPool bufferPool) {
+        if (directThreshold > transferToThreshold) {
+            throw new IllegalArgumentException("directThreshold(" + directThreshold
+                + ") > transferToThreshold(" + transferToThreshold + ")");
+        }
+        if (bufferSize <= 0 || maxTransferPerCall <= 0) {
+            throw new IllegalArgumentException("bufferSize and maxTransferPerCall must be positive");
+        }
+        this.directThreshold = directThreshold;
+        this.transferToThreshold = transferToThreshold;
+        this.bufferSize = bufferSize;
+        this.maxTransferPerCall = maxTransferPerCall;
+        this.bufferPool = bufferPool;
+        for (Strategy strategy : Strategy.values()) {
+            stats.put(strategy, new Stats());
+        }
+    }
+
+    public Strategy choose(long size) {
+        if (size >= transferToThreshold) {
+            return Strategy.TRANSFER_TO;
+        }
+        return size >= directThreshold ? Strategy.DIRECT : Strategy.HEAP;
+    }
+
+    /**
+     * 复制source到target，target已存在时覆盖
+     *
+     * @return 复制的字节数
+     */
+    public long copy(Path source, Path target) throws IOException {
+        return copy(source, target, null);
+    }
+
+    /**
+     * @param strategy 指定复制方式，null表示按文件大小选择
+     */
+    public long copy(Path source, Path target, Strategy strategy) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE,
+                 StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            return transfer(in, 0, size, out, strategy == null ? choose(size) : strategy);
+        }
+    }
+
+    /**
+     * 把in的[position, position + count)全部写入out，out须为阻塞模式
+     *
+     * @return 写入的字节数，in在此之前结束时小于count
+     */
+    public long transfer(FileChannel in, long position, long count, WritableByteChannel out, Strategy strategy)
+        throws IOException {
+        long start = System.nanoTime();
+        long transferred;
+        switch (strategy) {
+            case TRANSFER_TO:
+                transferred = transferTo(in, position, count, out);
+                break;
+            case DIRECT:
+                try (PooledBuffer buffer = bufferPool.acquire(bufferSize)) {
+                    transferred = copy(in, position, count, out, buffer.buffer(), bufferSize);
+                }
+                break;
+            default:
+                transferred = copy(in, position, count, out, ByteBuffer.allocate(bufferSize), bufferSize);
+                break;
+        }
+        stats.get(strategy).record(transferred, System.nanoTime() - start);
+        return transferred;
+    }
+
+    private long transferTo(FileChannel in, long position, long count, WritableByteChannel out) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            long n = in.transferTo(position + transferred, Math.min(count - transferred, maxTransferPerCall), out);
+            if (n <= 0) {
+                // 0表示已到文件末尾（文件在复制过程中被截断）
+                if (position + transferred >= in.size()) {
+                    break;
+                }
+                continue;
+            }
+            transferred += n;
+        }
+        return transferred;
+    }
+
+    /**
+     * @param chunk 每次最多读的字节数，不超过buffer的容量
+     */
+    private static long copy(FileChannel in, long position, long count, WritableByteChannel out, ByteBuffer buffer,
+                             int chunk) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            buffer.clear();
+            buffer.limit((int) Math.min(count - transferred, chunk));
+            int n = in.read(buffer, position + transferred);
+            if (n < 0) {
+                break;
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            transferred += n;
+        }
+        return transferred;
+    }
+
+    public DirectBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    public Stats stats(Strategy strategy) {
+        return stats.get(strategy);
+    }
+
+    /**
+     * 某种复制方式累计的次数、字节数和耗时
+     */
+    public static final class Stats {
+
+        private final LongAdder transfers = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long transferred, long elapsedNanos) {
+            transfers.increment();
+            bytes.add(transferred);
+            nanos.add(elapsedNanos);
+        }
+
+        public long transfers() {
+            return transfers.sum();
+        }
+
+        public long bytes() {
+            return bytes.sum();
+        }
+
+        public long nanos() {
+            return nanos.sum();
+        }
+
+        /**
+         * 累计字节数 / 累计耗时，没有复制过时为0
+         */
+        public double bytesPerSecond() {
+            long elapsed = nanos.sum();
+            return elapsed == 0 ? 0 : bytes.sum() * 1e9 / elapsed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("transfers=%d, bytes=%d, %.1f MB/s", transfers(), bytes(), bytesPerSecond() / (1 << 20));
+        }
+    }
+}
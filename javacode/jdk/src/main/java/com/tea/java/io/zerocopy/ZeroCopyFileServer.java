@@ -0,0 +1,466 @@
+package com.tea.java.io.zerocopy;
+
+import com.tea.java.io.buffer.DirectBufferPool;
+import com.tea.java.io.buffer.PooledBuffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>基于Selector的文件服务器，按字节区间返回root目录下的文件
+ *
+ * <p>协议（{@link FileRangeClient}为对应的客户端）：
+ * <ul>
+ *     <li>请求：一行ASCII文本 "path offset length\n"，path为相对root的路径，区间超出文件末尾时截断到末尾。
+ *     同一连接上可以连续发送多个请求，按顺序响应</li>
+ *     <li>响应：status(4) + length(8) + length字节的内容，status见{@link #OK}、{@link #NOT_FOUND}、{@link #BAD_REQUEST}</li>
+ * </ul>
+ *
+ * <p>发送方式由{@link FileTransfer.Strategy}指定：
+ * <ul>
+ *     <li>TRANSFER_TO：FileChannel#transferTo直接写socket，Linux上为sendfile，数据在内核中从page cache到socket缓冲区，
+ *     不经过用户空间（见book/io/zero_copy）</li>
+ *     <li>HEAP/DIRECT：先read到ByteBuffer再write到socket，数据在内核与用户空间之间复制两次，HEAP还要多一次堆内外复制</li>
+ * </ul>
+ *
+ * <p>DIRECT方式每个连接的发送缓冲从{@link DirectBufferPool}借出，连接关闭时归还，短连接多时不必反复分配直接内存。
+ *
+ * <p>单线程事件循环，socket为非阻塞模式：socket缓冲区满时transferTo/write只写出一部分甚至返回0，
+ * 此时记下进度，注册OP_WRITE，等可写时从断点继续（背压），不阻塞其它连接；写完再回到OP_READ处理下一个请求。
+ *
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ZeroCopyFileServer implements Closeable {
+
+    public static final int OK = 0;
+    public static final int NOT_FOUND = 1;
+    public static final int BAD_REQUEST = 2;
+
+    static final int HEADER_SIZE = 12;
+    static final int MAX_REQUEST_LINE = 4096;
+
+    private final Path root;
+    /** 解析了符号链接的root，用来判断请求的文件是否在root之内 */
+    private final Path realRoot;
+    private final FileTransfer.Strategy strategy;
+    private final int bufferSize;
+    private final DirectBufferPool bufferPool;
+    private final Selector selector;
+    private final ServerSocketChannel serverChannel;
+    private final Thread eventLoop;
+    private volatile boolean closed;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder acceptFailures = new LongAdder();
+
+    /**
+     * 每个连接的状态
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(MAX_REQUEST_LINE);
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        /** HEAP/DIRECT方式的发送缓冲 */
+        final ByteBuffer buffer;
+        /** DIRECT方式发送缓冲所属的PooledBuffer */
+        final PooledBuffer pooled;
+        FileChannel file;
+        long position;
+        long remaining;
+        boolean responding;
+
+        Connection(SocketChannel channel, ByteBuffer buffer, PooledBuffer pooled) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.pooled = pooled;
+        }
+    }
+
+    public ZeroCopyFileServer(Path root, InetSocketAddress address) throws IOException {
+        this(root, address, FileTransfer.Strategy.TRANSFER_TO, FileTransfer.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param root       可访问的根目录
+     * @param address    监听地址，端口为0时随机分配，见{@link #port()}
+     * @param strategy   发送方式
+     * @param bufferSize HEAP/DIRECT方式每个连接的发送缓冲大小
+     */
+    public ZeroCopyFileServer(Path root, InetSocketAddress address, FileTransfer.Strategy strategy, int bufferSize)
+        throws IOException {
+        this(root, address, strategy, bufferSize, new DirectBufferPool());
+    }
+
+    /**
+     * @param bufferPool DIRECT方式发送缓冲的来源
+     */
+    public ZeroCopyFileServer(Path root, InetSocketAddress address, FileTransfer.Strategy strategy, int bufferSize,
+                              DirectBufferPool bufferPool) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        this.realRoot = this.root.toRealPath();
+        this.strategy = strategy;
+        this.bufferSize = bufferSize;
+        this.bufferPool = bufferPool;
+        this.selector = Selector.open();
+        this.serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(address);
+        serverChannel.configureBlocking(false);
+        serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+        this.eventLoop = new Thread(this::run, "zero-copy-file-server");
+        eventLoop.setDaemon(true);
+    }
+
+    public ZeroCopyFileServer start() {
+        eventLoop.start();
+        return this;
+    }
+
+    public int port() throws IOException {
+        return ((InetSocketAddress) serverChannel.getLocalAddress()).getPort();
+    }
+
+    public DirectBufferPool bufferPool() {
+        return bufferPool;
+    }
+
+    public long requests() {
+        return requests.sum();
+    }
+
+    public long bytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * 接受或注册新连接失败的次数，如文件描述符耗尽。失败不影响之后的连接
+     */
+    public long acceptFailures() {
+        return acceptFailures.sum();
+    }
+
+    /**
+     * 事件循环线程累计使用的CPU时间（纳秒），不支持时返回-1
+     */
+    public long eventLoopCpuNanos() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return threads.isThreadCpuTimeSupported() ? threads.getThreadCpuTime(eventLoop.getId()) : -1;
+    }
+
+    /**
+     * 停止事件循环并关闭所有连接
+     *
+     * <p>连接和发送缓冲只由事件循环线程操作，关闭也在它退出循环后由它完成，
+     * 避免事件循环仍在发送时在调用线程上关闭连接、把仍在使用的buffer归还到池中。
+     * 事件循环没有启动时由调用线程关闭
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (eventLoop.getState() == Thread.State.NEW) {
+            shutdown();
+            return;
+        }
+        selector.wakeup();
+        try {
+            eventLoop.join();
+        } catch (InterruptedException e) {
+            // 事件循环退出后仍会自行关闭
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void shutdown() throws IOException {
+        for (SelectionKey key : selector.keys()) {
+            if (key.attachment() instanceof Connection) {
+                closeConnection(key, (Connection) key.attachment());
+            }
+        }
+        serverChannel.close();
+        selector.close();
+    }
+
+    private void run() {
+        try {
+            loop();
+        } finally {
+            try {
+                shutdown();
+            } catch (IOException ignored) {
+                // 关闭失败无需处理
+            }
+        }
+    }
+
+    private void loop() {
+        while (!closed) {
+            try {
+                selector.select();
+            } catch (IOException e) {
+                return;
+            }
+            Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+            while (it.hasNext()) {
+                SelectionKey key = it.next();
+                it.remove();
+                if (!key.isValid()) {
+                    continue;
+                }
+                if (key.isAcceptable()) {
+                    // OP_ACCEPT的key没有attachment，不能按连接处理，失败时也要保留注册
+                    accept();
+                    continue;
+                }
+                Connection connection = (Connection) key.attachment();
+                try {
+                    if (key.isWritable()) {
+                        if (write(connection)) {
+                            process(key, connection);
+                        }
+                    } else if (key.isReadable()) {
+                        if (connection.channel.read(connection.in) < 0) {
+                            closeConnection(key, connection);
+                        } else {
+                            process(key, connection);
+                        }
+                    }
+                } catch (IOException | RuntimeException e) {
+                    // 客户端断开、处理请求出错等，只影响这一个连接
+                    closeConnection(key, connection);
+                }
+            }
+        }
+    }
+
+    /**
+     * 接受所有等待中的连接。失败只计数，OP_ACCEPT保持注册，下次select时重试
+     */
+    private void accept() {
+        while (true) {
+            SocketChannel channel;
+            try {
+                channel = serverChannel.accept();
+            } catch (IOException | RuntimeException e) {
+                // 如文件描述符耗尽（EMFILE），连接留在backlog中
+                acceptFailures.increment();
+                return;
+            }
+            if (channel == null) {
+                return;
+            }
+            PooledBuffer pooled = null;
+            try {
+                channel.configureBlocking(false);
+                ByteBuffer buffer = null;
+                if (strategy == FileTransfer.Strategy.DIRECT) {
+                    pooled = bufferPool.acquire(bufferSize);
+                    buffer = pooled.buffer();
+                } else if (strategy == FileTransfer.Strategy.HEAP) {
+                    buffer = ByteBuffer.allocate(bufferSize);
+                }
+                if (buffer != null) {
+                    buffer.limit(0);
+                }
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel, buffer, pooled));
+            } catch (IOException | RuntimeException e) {
+                acceptFailures.increment();
+                if (pooled != null) {
+                    pooled.release();
+                }
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // 关闭失败无需处理
+                }
+            }
+        }
+    }
+
+    /**
+     * 依次处理已读到的请求，直到请求读完或socket写不动
+     */
+    private void process(SelectionKey key, Connection connection) throws IOException {
+        while (true) {
+            String line = nextLine(connection.in);
+            if (line == null) {
+                if (!connection.in.hasRemaining()) {
+                    // 请求行过长
+                    closeConnection(key, connection);
+                    return;
+                }
+                key.interestOps(SelectionKey.OP_READ);
+                return;
+            }
+            requests.increment();
+            respond(connection, line);
+            if (!write(connection)) {
+                key.interestOps(SelectionKey.OP_WRITE);
+                return;
+            }
+        }
+    }
+
+    /**
+     * 从in中取出一行（in处于写模式），没有完整的一行时返回null
+     */
+    private static String nextLine(ByteBuffer in) {
+        for (int i = 0; i < in.position(); i++) {
+            if (in.get(i) == '\n') {
+                byte[] bytes = new byte[i];
+                in.flip();
+                in.get(bytes);
+                in.get();
+                in.compact();
+                return new String(bytes, StandardCharsets.US_ASCII).trim();
+            }
+        }
+        return null;
+    }
+
+    private void respond(Connection connection, String line) {
+        int status = BAD_REQUEST;
+        long length = 0;
+        String[] parts = line.split(" ");
+        if (parts.length == 3) {
+            try {
+                Path path = root.resolve(parts[0]);
+                long offset = Long.parseLong(parts[1]);
+                long requested = Long.parseLong(parts[2]);
+                if (offset < 0 || requested < 0) {
+                    status = BAD_REQUEST;
+                } else {
+                    // 解析符号链接后再判断，root内指向root外的链接同样拒绝；文件不存在时抛NoSuchFileException
+                    path = path.toRealPath();
+                    if (!path.startsWith(realRoot) || !Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                        throw new NoSuchFileException(parts[0]);
+                    }
+                    // 打开时不再跟随链接，避免判断后路径被替换成链接
+                    FileChannel file = FileChannel.open(path, StandardOpenOption.READ, LinkOption.NOFOLLOW_LINKS);
+                    long size = file.size();
+                    connection.file = file;
+                    connection.position = Math.min(offset, size);
+                    length = Math.min(requested, size - connection.position);
+                    status = OK;
+                }
+            } catch (NumberFormatException | InvalidPathException e) {
+                status = BAD_REQUEST;
+            } catch (IOException e) {
+                status = NOT_FOUND;
+            }
+        }
+        connection.remaining = length;
+        connection.header.clear();
+        connection.header.putInt(status).putLong(length).flip();
+        connection.responding = true;
+    }
+
+    /**
+     * 继续发送当前响应
+     *
+     * @return 是否已发送完
+     */
+    private boolean write(Connection connection) throws IOException {
+        if (!connection.responding) {
+            return true;
+        }
+        if (connection.header.hasRemaining()) {
+            connection.channel.write(connection.header);
+            if (connection.header.hasRemaining()) {
+                return false;
+            }
+        }
+        boolean done = strategy == FileTransfer.Strategy.TRANSFER_TO
+            ? transferTo(connection) : copy(connection);
+        if (done) {
+            if (connection.file != null) {
+                connection.file.close();
+                connection.file = null;
+            }
+            connection.responding = false;
+        }
+        return done;
+    }
+
+    private boolean transferTo(Connection connection) throws IOException {
+        while (connection.remaining > 0) {
+            long n = connection.file.transferTo(connection.position,
+                Math.min(connection.remaining, FileTransfer.MAX_TRANSFER_PER_CALL), connection.channel);
+            if (n <= 0) {
+                if (connection.position >= connection.file.size()) {
+                    throw new IOException("file truncated while sending");
+                }
+                // socket缓冲区已满
+                return false;
+            }
+            connection.position += n;
+            connection.remaining -= n;
+            bytesSent.add(n);
+        }
+        return true;
+    }
+
+    private boolean copy(Connection connection) throws IOException {
+        ByteBuffer buffer = connection.buffer;
+        while (true) {
+            if (buffer.hasRemaining()) {
+                bytesSent.add(connection.channel.write(buffer));
+                if (buffer.hasRemaining()) {
+                    return false;
+                }
+            }
+            if (connection.remaining == 0) {
+                return true;
+            }
+            // 池中buffer的容量按规格向上取整，每次最多读bufferSize
+            buffer.clear();
+            buffer.limit((int) Math.min(connection.remaining, bufferSize));
+            int n = connection.file.read(buffer, connection.position);
+            if (n < 0) {
+                throw new IOException("file truncated while sending");
+            }
+            buffer.flip();
+            connection.position += n;
+            connection.remaining -= n;
+        }
+    }
+
+    private static void closeConnection(SelectionKey key, Connection connection) {
+        key.cancel();
+        if (connection == null) {
+            return;
+        }
+        if (connection.pooled != null) {
+            connection.pooled.release();
+        }
+        try {
+            if (connection.file != null) {
+                connection.file.close();
+            }
+            connection.channel.close();
+        } catch (IOException ignored) {
+            // 关闭失败无需处理
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tea.java.algorithm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class PartialSortTest {
+
+    private final Random random = new Random(2026);
+
+    @Test
+    public void testNthElement() {
+        PartialSort partialSort = new PartialSort();
+        for (int size : new int[]{1, 2, 17, 1000, 100_000}) {
+            for (int bound : new int[]{1, 10, Integer.MAX_VALUE}) {
+                int[] arr = random.ints(size, 0, bound).toArray();
+                int[] target = arr.clone();
+                Arrays.sort(target);
+                for (int n : new int[]{0, size / 2, size - 1}) {
+                    int[] copy = arr.clone();
+                    partialSort.nthElement(copy, n);
+                    Assert.assertEquals(target[n], copy[n]);
+                    for (int i = 0; i < size; i++) {
+                        Assert.assertTrue(i < n ? copy[i] <= copy[n] : copy[i] >= copy[n]);
+                    }
+                }
+
+                Integer[] boxed = Arrays.stream(arr).boxed().toArray(Integer[]::new);
+                int n = size / 3;
+                partialSort.nthElement(boxed, n);
+                Assert.assertEquals(target[n], (int) boxed[n]);
+            }
+        }
+
+        // 已排序、逆序的输入
+        int[] sorted = IntStream.range(0, 100_000).toArray();
+        partialSort.nthElement(sorted, 12345);
+        Assert.assertEquals(12345, sorted[12345]);
+        int[] reversed = IntStream.range(0, 100_000).map(i -> 100_000 - i).toArray();
+        partialSort.nthElement(reversed, 99_999);
+        Assert.assertEquals(100_000, reversed[99_999]);
+    }
+
+    @Test
+    public void testPartialSort() {
+        PartialSort partialSort = new PartialSort();
+        int[] arr = random.ints(100_000).toArray();
+        int[] target = arr.clone();
+        Arrays.sort(target);
+        for (int k : new int[]{0, 1, 10, 1000, 100_000, 200_000}) {
+            int[] copy = arr.clone();
+            partialSort.partialSort(copy, k);
+            int m = Math.min(k, arr.length);
+            Assert.assertArrayEquals(Arrays.copyOf(target, m), Arrays.copyOf(copy, m));
+        }
+
+        String[] strings = random.ints(10_000, 0, 1000).mapToObj(i -> "s" + i).toArray(String[]::new);
+        String[] stringTarget = strings.clone();
+        Arrays.sort(stringTarget, Comparator.reverseOrder());
+        partialSort.partialSort(strings, 100, Comparator.reverseOrder());
+        Assert.assertArrayEquals(Arrays.copyOf(stringTarget, 100), Arrays.copyOf(strings, 100));
+    }
+
+    @Test
+    public void testTopK() {
+        PartialSort partialSort = new PartialSort();
+        // 流式输入，不先收集到数组
+        PrimitiveIterator.OfInt source = new Random(1).ints(1_000_000).iterator();
+        List<Integer> top = partialSort.topK(source, 10, Comparator.<Integer>reverseOrder());
+        int[] target = new Random(1).ints(1_000_000).sorted().toArray();
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(target[target.length - 1 - i], (int) top.get(i));
+        }
+
+        List<Integer> list = random.ints(10_000).boxed().collect(Collectors.toList());
+        List<Integer> expected = list.stream().sorted().limit(100).collect(Collectors.toList());
+        Assert.assertEquals(expected, partialSort.topK(list.spliterator(), 100, Comparator.naturalOrder()));
+
+        Assert.assertTrue(partialSort.topK(list.iterator(), 0, Comparator.<Integer>naturalOrder()).isEmpty());
+        Assert.assertEquals(list.size(), partialSort.topK(list.iterator(), 20_000, Comparator.<Integer>naturalOrder()).size());
+    }
+
+    @Test
+    public void testTopKStable() {
+        // 按key比较，相等时保留先到的，与稳定排序取前K个一致
+        List<int[]> pairs = IntStream.range(0, 10_000)
+                .mapToObj(i -> new int[]{random.nextInt(20), i})
+                .collect(Collectors.toList());
+        Comparator<int[]> byKey = Comparator.comparingInt(p -> p[0]);
+        List<int[]> expected = pairs.stream().sorted(byKey).limit(700).collect(Collectors.toList());
+        Iterator<int[]> it = pairs.iterator();
+        List<int[]> actual = new PartialSort().topK(it, 700, byKey);
+        Assert.assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.tea.java.algorithm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class SortStrategyTest {
+
+    @Test
+    public void testChoose() {
+        SortStrategy serial = new SortStrategy(1);
+        Assert.assertEquals(SortStrategy.Algorithm.DUAL_PIVOT_QUICK, serial.choose(1 << 20, int.class, true));
+        Assert.assertEquals(SortStrategy.Algorithm.INTRO, serial.choose(100, String.class, false));
+        Assert.assertEquals(SortStrategy.Algorithm.NATURAL_MERGE, serial.choose(1 << 20, String.class, true));
+
+        SortStrategy parallel = new SortStrategy(8);
+        Assert.assertEquals(SortStrategy.Algorithm.PARALLEL_MERGE, parallel.choose(1 << 20, int.class, false));
+        Assert.assertEquals(SortStrategy.Algorithm.DUAL_PIVOT_QUICK, parallel.choose(1 << 20, long.class, false));
+        Assert.assertEquals(SortStrategy.Algorithm.DUAL_PIVOT_QUICK, parallel.choose(1000, int.class, false));
+        Assert.assertEquals(SortStrategy.Algorithm.PARALLEL_MERGE, parallel.choose(1 << 20, String.class, true));
+        Assert.assertEquals(SortStrategy.Algorithm.INTRO, parallel.choose(1 << 20, String.class, false));
+    }
+
+    @Test
+    public void testSort() {
+        Random random = new Random(2026);
+        int[] ints = random.ints(10_000).toArray();
+        int[] target = ints.clone();
+        Arrays.sort(target);
+        new SortStrategy().sort(ints);
+        Assert.assertArrayEquals(target, ints);
+
+        String[] strings = random.ints(10_000, 0, 100).mapToObj(i -> "s" + i).toArray(String[]::new);
+        String[] stringTarget = strings.clone();
+        Arrays.sort(stringTarget, Comparator.naturalOrder());
+        new SortStrategy().sort(strings, Comparator.naturalOrder(), false);
+        Assert.assertArrayEquals(stringTarget, strings);
+    }
+}
@@ -0,0 +1,96 @@
+package com.tea.java.algorithm.externalsort;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ExternalMergeSortTest {
+
+    /** key(8字节，大端) + 输入中的序号(8字节) */
+    private static final int RECORD_SIZE = 16;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private Path writeRecords(int count, int keyBound) throws Exception {
+        Random random = new Random(2026);
+        ByteBuffer buffer = ByteBuffer.allocate(count * RECORD_SIZE);
+        for (int i = 0; i < count; i++) {
+            buffer.putLong(random.nextInt(keyBound));
+            buffer.putLong(i);
+        }
+        Path input = folder.newFile("input.bin").toPath();
+        Files.write(input, buffer.array());
+        return input;
+    }
+
+    private static void assertSortedAndStable(Path output, int count) throws Exception {
+        ByteBuffer sorted = ByteBuffer.wrap(Files.readAllBytes(output));
+        Assert.assertEquals(count * RECORD_SIZE, sorted.capacity());
+        boolean[] seen = new boolean[count];
+        long lastKey = -1;
+        long lastSeq = -1;
+        for (int i = 0; i < count; i++) {
+            long key = sorted.getLong();
+            long seq = sorted.getLong();
+            Assert.assertTrue(key >= lastKey);
+            if (key == lastKey) {
+                Assert.assertTrue(seq > lastSeq);
+            }
+            Assert.assertFalse(seen[(int) seq]);
+            seen[(int) seq] = true;
+            lastKey = key;
+            lastSeq = seq;
+        }
+    }
+
+    @Test
+    public void testSortManyRuns() throws Exception {
+        int count = 200_000;
+        Path input = writeRecords(count, 10_000);
+        Path output = folder.getRoot().toPath().resolve("output.bin");
+        File tempDir = folder.newFolder("runs");
+
+        // 每条记录16字节 + 下标8字节，每个run 64KB / 24 = 2730条，共74个run；
+        // 每次最多归并64KB / (2 * 4KB) = 8路，需要多轮归并
+        ExternalMergeSort sorter = new ExternalMergeSort(RECORD_SIZE, RecordComparator.lexicographic(0, 8),
+            64 << 10, 4 << 10, tempDir);
+        sorter.sort(input, output);
+
+        Assert.assertEquals(2730, sorter.chunkRecords());
+        Assert.assertEquals(74, sorter.runCount);
+        assertSortedAndStable(output, count);
+        Assert.assertEquals(0, tempDir.list().length);
+    }
+
+    @Test
+    public void testSingleRun() throws Exception {
+        Path input = writeRecords(1000, 10);
+        Path output = folder.getRoot().toPath().resolve("output.bin");
+        ExternalMergeSort sorter = new ExternalMergeSort(RECORD_SIZE, RecordComparator.lexicographic(0, 8),
+            1 << 20, folder.getRoot());
+        sorter.sort(input, output);
+
+        Assert.assertEquals(1, sorter.runCount);
+        assertSortedAndStable(output, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartialRecord() throws Exception {
+        Path input = folder.newFile("broken.bin").toPath();
+        Files.write(input, new byte[RECORD_SIZE + 1]);
+        new ExternalMergeSort(RECORD_SIZE, RecordComparator.lexicographic(0, 8), 1 << 20, folder.getRoot())
+            .sort(input, folder.getRoot().toPath().resolve("output.bin"));
+    }
+}
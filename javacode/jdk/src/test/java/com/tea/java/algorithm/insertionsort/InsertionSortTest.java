@@ -5,6 +5,8 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
 
 /**
  * @author teaho2015@gmail.com
@@ -23,4 +25,51 @@ public class InsertionSortTest {
         Assert.assertTrue(Arrays.deepEquals(arr, target));
 
     }
+
+    @Test
+    public void testBinaryInsertionSort() {
+        Integer[] arr = new Integer[]{ 12, 6, 135, 9, 10, 15, 2, 22};
+        new BinaryInsertionSort().sort(arr, 1, 7);
+        Assert.assertArrayEquals(new Integer[]{12, 2, 6, 9, 10, 15, 135, 22}, arr);
+
+        Random random = new Random(2026);
+        int[] ints = random.ints(500, 0, 50).toArray();
+        int[] target = ints.clone();
+        Arrays.sort(target, 100, 400);
+        new BinaryInsertionSort().sort(ints, 100, 400);
+        Assert.assertArrayEquals(target, ints);
+        assertStable((arr2, c) -> new BinaryInsertionSort().sort(arr2, 0, arr2.length, c));
+    }
+
+    @Test
+    public void testSentinelInsertionSort() {
+        Integer[] arr = new Integer[]{ 12, 6, 135, 9, 10, 15, 2, 22};
+        new SentinelInsertionSort().sort(arr);
+        Assert.assertArrayEquals(new Integer[]{2, 6, 9, 10, 12, 15, 22, 135}, arr);
+
+        Random random = new Random(2026);
+        long[] longs = random.longs(500, 0, 50).toArray();
+        long[] target = longs.clone();
+        Arrays.sort(target, 100, 400);
+        new SentinelInsertionSort().sort(longs, 100, 400);
+        Assert.assertArrayEquals(target, longs);
+        assertStable((arr2, c) -> new SentinelInsertionSort().sort(arr2, 0, arr2.length, c));
+    }
+
+    private interface PairSorter {
+        void sort(int[][] arr, Comparator<int[]> c);
+    }
+
+    private static void assertStable(PairSorter sorter) {
+        Random random = new Random(2026);
+        int[][] arr = new int[300][];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = new int[]{random.nextInt(10), i};
+        }
+        sorter.sort(arr, Comparator.comparingInt(pair -> pair[0]));
+        for (int i = 1; i < arr.length; i++) {
+            Assert.assertTrue(arr[i - 1][0] < arr[i][0]
+                || arr[i - 1][0] == arr[i][0] && arr[i - 1][1] < arr[i][1]);
+        }
+    }
 }
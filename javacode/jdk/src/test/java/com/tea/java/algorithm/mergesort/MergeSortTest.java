@@ -1,8 +1,10 @@
 package com.tea.java.algorithm.mergesort;
 
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.Arrays;
+import java.util.Random;
 
 /**
  * @author teaho2015@gmail.com
@@ -28,4 +30,26 @@ public class MergeSortTest {
         System.out.println(Arrays.toString(arr));
     }
 
+    @Test
+    public void testInsertionCutoff() {
+        Random random = new Random(2026);
+        for (int cutoff : new int[]{0, 1, 2, 7, 16, 64}) {
+            Integer[] arr = random.ints(1000, 0, 100).boxed().toArray(Integer[]::new);
+            Integer[] target = arr.clone();
+            Arrays.sort(target);
+            Integer[] arr2 = arr.clone();
+            new MergeSort1(cutoff).sort(arr);
+            new MergeSort2(cutoff).sort(arr2);
+            Assert.assertArrayEquals(target, arr);
+            Assert.assertArrayEquals(target, arr2);
+
+            if (cutoff >= 2) {
+                int[] ints = random.ints(1000).toArray();
+                int[] intTarget = ints.clone();
+                Arrays.sort(intTarget);
+                new TunedMergeSort(cutoff).sort(ints);
+                Assert.assertArrayEquals(intTarget, ints);
+            }
+        }
+    }
 }
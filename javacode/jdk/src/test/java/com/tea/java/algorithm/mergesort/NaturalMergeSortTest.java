@@ -0,0 +1,116 @@
+package com.tea.java.algorithm.mergesort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class NaturalMergeSortTest {
+
+    private final Random random = new Random(2026);
+
+    @Test
+    public void testNaturalMergeSort() {
+        Integer[] arr = new Integer[]{12, 6, 135, 9, 10, 15, 2, 22};
+        new NaturalMergeSort().sort(arr);
+        Assert.assertArrayEquals(new Integer[]{2, 6, 9, 10, 12, 15, 22, 135}, arr);
+    }
+
+    @Test
+    public void testRandomInputs() {
+        for (int size : new int[]{0, 1, 2, 31, 32, 33, 64, 1000, 100_000}) {
+            for (int bound : new int[]{3, 100, Integer.MAX_VALUE}) {
+                Integer[] arr = random.ints(size, 0, bound).boxed().toArray(Integer[]::new);
+                Integer[] target = arr.clone();
+                Arrays.sort(target);
+                new NaturalMergeSort().sort(arr);
+                Assert.assertArrayEquals(target, arr);
+            }
+        }
+    }
+
+    /**
+     * 多段有序拼接、有序数组中少量乱序，这类输入会走到galloping
+     */
+    @Test
+    public void testPartiallySortedInputs() {
+        Integer[] arr = new Integer[200_000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = (i % 5000) * 7 + random.nextInt(3);
+        }
+        for (int i = 0; i < 100; i++) {
+            arr[random.nextInt(arr.length)] = random.nextInt(40_000);
+        }
+        Integer[] target = arr.clone();
+        Arrays.sort(target);
+        new NaturalMergeSort().sort(arr);
+        Assert.assertArrayEquals(target, arr);
+
+        arr = new Integer[100_000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = i < 50_000 ? 100_000 - i : i;
+        }
+        target = arr.clone();
+        Arrays.sort(target);
+        new NaturalMergeSort().sort(arr, 0, arr.length, Comparator.naturalOrder());
+        Assert.assertArrayEquals(target, arr);
+    }
+
+    /**
+     * 有序和严格逆序的输入都只需要N-1次比较
+     */
+    @Test
+    public void testLinearOnSortedInput() {
+        int n = 100_000;
+        AtomicLong comparisons = new AtomicLong();
+        Comparator<Integer> counting = (a, b) -> {
+            comparisons.incrementAndGet();
+            return Integer.compare(a, b);
+        };
+
+        Integer[] ascending = new Integer[n];
+        Arrays.setAll(ascending, i -> i);
+        new NaturalMergeSort().sort(ascending, counting);
+        Assert.assertEquals(n - 1, comparisons.get());
+
+        comparisons.set(0);
+        Integer[] descending = new Integer[n];
+        Arrays.setAll(descending, i -> n - i);
+        new NaturalMergeSort().sort(descending, counting);
+        Assert.assertEquals(n - 1, comparisons.get());
+        Assert.assertEquals(1, (int) descending[0]);
+
+        // 追加少量新元素的事件流
+        comparisons.set(0);
+        Integer[] nearly = new Integer[n];
+        Arrays.setAll(nearly, i -> i < n - 10 ? i * 2 : random.nextInt(2 * n));
+        new NaturalMergeSort().sort(nearly, counting);
+        Assert.assertTrue("comparisons: " + comparisons.get(), comparisons.get() < 2L * n);
+        for (int i = 1; i < n; i++) {
+            Assert.assertTrue(nearly[i - 1] <= nearly[i]);
+        }
+    }
+
+    @Test
+    public void testStable() {
+        int[][] arr = new int[100_000][];
+        for (int i = 0; i < arr.length; i++) {
+            // 分段有序的key，制造长run和大量相等元素
+            arr[i] = new int[]{(i % 1000) / 10 + random.nextInt(2), i};
+        }
+        new NaturalMergeSort().sort(arr, Comparator.comparingInt(pair -> pair[0]));
+        for (int i = 1; i < arr.length; i++) {
+            Assert.assertTrue(arr[i - 1][0] <= arr[i][0]);
+            if (arr[i - 1][0] == arr[i][0]) {
+                Assert.assertTrue(arr[i - 1][1] < arr[i][1]);
+            }
+        }
+    }
+}
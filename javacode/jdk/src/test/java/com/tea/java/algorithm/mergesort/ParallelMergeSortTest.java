@@ -0,0 +1,73 @@
+package com.tea.java.algorithm.mergesort;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ParallelMergeSortTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final Random random = new Random(2026);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testSortInt() {
+        // 粒度取小值，让fork和并行merge都被走到
+        ParallelMergeSort sorter = new ParallelMergeSort(POOL, 64);
+        for (int size : new int[]{0, 1, 64, 65, 1000, 100_000}) {
+            int[] arr = random.ints(size, -500, 500).toArray();
+            int[] target = arr.clone();
+            Arrays.sort(target);
+            sorter.sort(arr);
+            Assert.assertArrayEquals(target, arr);
+        }
+
+        int[] arr = random.ints(10_000).toArray();
+        int[] target = arr.clone();
+        Arrays.sort(target, 1000, 9000);
+        sorter.sort(arr, 1000, 9000);
+        Assert.assertArrayEquals(target, arr);
+    }
+
+    @Test
+    public void testSortComparable() {
+        Integer[] arr = new Integer[]{12, 6, 135, 9, 10, 15, 2, 22};
+        new ParallelMergeSort(POOL, 2).sort(arr);
+        Assert.assertArrayEquals(new Integer[]{2, 6, 9, 10, 12, 15, 22, 135}, arr);
+    }
+
+    @Test
+    public void testComparatorStable() {
+        int[][] arr = new int[100_000][];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = new int[]{random.nextInt(100), i};
+        }
+        new ParallelMergeSort(POOL, 128).sort(arr, Comparator.comparingInt(pair -> pair[0]));
+        for (int i = 1; i < arr.length; i++) {
+            Assert.assertTrue(arr[i - 1][0] <= arr[i][0]);
+            if (arr[i - 1][0] == arr[i][0]) {
+                Assert.assertTrue(arr[i - 1][1] < arr[i][1]);
+            }
+        }
+        // 只排序其中一段，辅助数组与原数组下标相差一个偏移量
+        Integer[] boxed = random.ints(100_000, -500, 500).boxed().toArray(Integer[]::new);
+        Integer[] target = boxed.clone();
+        Arrays.sort(target, 1234, 98_765);
+        new ParallelMergeSort(POOL, 128).sort(boxed, 1234, 98_765, Comparator.naturalOrder());
+        Assert.assertArrayEquals(target, boxed);
+    }
+}
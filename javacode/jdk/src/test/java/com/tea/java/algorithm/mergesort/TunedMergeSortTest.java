@@ -0,0 +1,101 @@
+package com.tea.java.algorithm.mergesort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class TunedMergeSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 31, 32, 33, 100, 1000, 100_000};
+
+    private final Random random = new Random(2026);
+
+    @Test
+    public void testSortInt() {
+        for (int size : SIZES) {
+            int[] arr = random.ints(size, -1000, 1000).toArray();
+            int[] target = arr.clone();
+            Arrays.sort(target);
+            new TunedMergeSort().sort(arr);
+            Assert.assertArrayEquals(target, arr);
+        }
+
+        int[] sorted = new int[10_000];
+        Arrays.setAll(sorted, i -> i);
+        int[] arr = sorted.clone();
+        new TunedMergeSort().sort(arr);
+        Assert.assertArrayEquals(sorted, arr);
+    }
+
+    @Test
+    public void testSortLong() {
+        for (int size : SIZES) {
+            long[] arr = random.longs(size).toArray();
+            long[] target = arr.clone();
+            Arrays.sort(target);
+            new TunedMergeSort().sort(arr);
+            Assert.assertArrayEquals(target, arr);
+        }
+    }
+
+    @Test
+    public void testSortDouble() {
+        for (int size : SIZES) {
+            double[] arr = random.doubles(size, -1, 1).toArray();
+            for (int i = 0; i < size; i += 7) {
+                arr[i] = i % 3 == 0 ? Double.NaN : i % 3 == 1 ? -0.0 : 0.0;
+            }
+            if (size > 2) {
+                arr[1] = Double.NEGATIVE_INFINITY;
+                arr[2] = Double.POSITIVE_INFINITY;
+            }
+            double[] target = arr.clone();
+            Arrays.sort(target);
+            new TunedMergeSort().sort(arr);
+            Assert.assertArrayEquals(target, arr, 0);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(Double.doubleToLongBits(target[i]), Double.doubleToLongBits(arr[i]));
+            }
+        }
+    }
+
+    @Test
+    public void testSortRange() {
+        int[] arr = random.ints(1000).toArray();
+        int[] target = arr.clone();
+        Arrays.sort(target, 100, 900);
+        new TunedMergeSort().sort(arr, 100, 900);
+        Assert.assertArrayEquals(target, arr);
+
+        Integer[] boxed = {12, 6, 135, 9, 10, 15, 2, 22};
+        new TunedMergeSort().sort(boxed, 2, 6, Comparator.naturalOrder());
+        Assert.assertArrayEquals(new Integer[]{12, 6, 9, 10, 15, 135, 2, 22}, boxed);
+    }
+
+    @Test
+    public void testComparatorStable() {
+        int[][] arr = new int[10_000][];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = new int[]{random.nextInt(50), i};
+        }
+        new TunedMergeSort().sort(arr, Comparator.comparingInt(pair -> pair[0]));
+        for (int i = 1; i < arr.length; i++) {
+            Assert.assertTrue(arr[i - 1][0] <= arr[i][0]);
+            if (arr[i - 1][0] == arr[i][0]) {
+                Assert.assertTrue(arr[i - 1][1] < arr[i][1]);
+            }
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalRange() {
+        new TunedMergeSort().sort(new int[10], 5, 4);
+    }
+}
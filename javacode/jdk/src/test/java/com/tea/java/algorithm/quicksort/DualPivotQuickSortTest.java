@@ -0,0 +1,65 @@
+package com.tea.java.algorithm.quicksort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class DualPivotQuickSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 46, 47, 48, 1000, 100_000};
+
+    private final Random random = new Random(2026);
+
+    @Test
+    public void testSortInt() {
+        for (int size : SIZES) {
+            for (int bound : new int[]{1, 3, 100, Integer.MAX_VALUE}) {
+                int[] arr = random.ints(size, 0, bound).toArray();
+                int[] target = arr.clone();
+                Arrays.sort(target);
+                new DualPivotQuickSort().sort(arr);
+                Assert.assertArrayEquals(target, arr);
+            }
+        }
+
+        int[] arr = new int[10_000];
+        Arrays.setAll(arr, i -> arr.length - i);
+        int[] target = arr.clone();
+        Arrays.sort(target, 100, 9000);
+        new DualPivotQuickSort().sort(arr, 100, 9000);
+        Assert.assertArrayEquals(target, arr);
+    }
+
+    @Test
+    public void testSortLong() {
+        for (int size : SIZES) {
+            long[] arr = random.longs(size).toArray();
+            long[] target = arr.clone();
+            Arrays.sort(target);
+            new DualPivotQuickSort().sort(arr);
+            Assert.assertArrayEquals(target, arr);
+        }
+    }
+
+    @Test
+    public void testSortDouble() {
+        for (int size : SIZES) {
+            double[] arr = random.doubles(size, -1, 1).toArray();
+            for (int i = 0; i < size; i += 5) {
+                arr[i] = i % 3 == 0 ? Double.NaN : i % 3 == 1 ? -0.0 : 0.0;
+            }
+            double[] target = arr.clone();
+            Arrays.sort(target);
+            new DualPivotQuickSort().sort(arr);
+            for (int i = 0; i < size; i++) {
+                Assert.assertEquals(Double.doubleToLongBits(target[i]), Double.doubleToLongBits(arr[i]));
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tea.java.algorithm.quicksort;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class IntroSortTest {
+
+    private final Random random = new Random(2026);
+
+    @Test
+    public void testIntroSort() {
+        Integer[] arr = new Integer[]{12, 6, 135, 9, 10, 15, 2, 22};
+        new IntroSort().sort(arr);
+        Assert.assertArrayEquals(new Integer[]{2, 6, 9, 10, 12, 15, 22, 135}, arr);
+
+        for (int size : new int[]{0, 1, 16, 17, 1000, 100_000}) {
+            for (int bound : new int[]{1, 3, Integer.MAX_VALUE}) {
+                int[] ints = random.ints(size, 0, bound).toArray();
+                int[] target = ints.clone();
+                Arrays.sort(target);
+                new IntroSort().sort(ints);
+                Assert.assertArrayEquals(target, ints);
+
+                Integer[] boxed = random.ints(size, 0, bound).boxed().toArray(Integer[]::new);
+                Integer[] boxedTarget = boxed.clone();
+                Arrays.sort(boxedTarget);
+                new IntroSort().sort(boxed, Comparator.naturalOrder());
+                Assert.assertArrayEquals(boxedTarget, boxed);
+            }
+        }
+    }
+
+    /**
+     * McIlroy的对抗输入：比较时才决定元素的值，尽量让每次切分都失衡。
+     * 纯快速排序会退化为O(N^2)次比较，深度限制后改用堆排序，比较次数仍是O(NlgN)
+     */
+    @Test
+    public void testWorstCaseBounded() {
+        int n = 20_000;
+        int gas = n;
+        int[] values = new int[n];
+        Arrays.fill(values, gas);
+        int[] state = new int[2];
+        long[] comparisons = new long[1];
+        Comparator<Integer> adversary = (x, y) -> {
+            comparisons[0]++;
+            // state[0]为已确定值的个数，state[1]为候选轴
+            if (values[x] == gas && values[y] == gas) {
+                if (x == state[1]) {
+                    values[x] = state[0]++;
+                } else {
+                    values[y] = state[0]++;
+                }
+            }
+            if (values[x] == gas) {
+                state[1] = x;
+            } else if (values[y] == gas) {
+                state[1] = y;
+            }
+            return Integer.compare(values[x], values[y]);
+        };
+        Integer[] indexes = new Integer[n];
+        Arrays.setAll(indexes, i -> i);
+        new IntroSort().sort(indexes, adversary);
+
+        double nlgn = n * (Math.log(n) / Math.log(2));
+        Assert.assertTrue("comparisons: " + comparisons[0], comparisons[0] < 4 * nlgn);
+        for (int i = 1; i < n; i++) {
+            Assert.assertTrue(values[indexes[i - 1]] <= values[indexes[i]]);
+        }
+    }
+}
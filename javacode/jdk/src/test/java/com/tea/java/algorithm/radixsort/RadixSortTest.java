@@ -0,0 +1,115 @@
+package com.tea.java.algorithm.radixsort;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class RadixSortTest {
+
+    private static final int[] SIZES = {0, 1, 2, 63, 64, 65, 1000, 100_000};
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    private final Random random = new Random(2026);
+
+    @AfterClass
+    public static void tearDown() {
+        POOL.shutdown();
+    }
+
+    @Test
+    public void testRadixSort() {
+        int[] arr = new int[]{12, 6, 135, 9, 10, 15, 2, 22};
+        new RadixSort().sort(arr);
+        Assert.assertArrayEquals(new int[]{2, 6, 9, 10, 12, 15, 22, 135}, arr);
+    }
+
+    @Test
+    public void testSortInt() {
+        // 小范围的值高位字节全部相同，对应的趟会被跳过；bound为1时所有趟都被跳过
+        int[][] ranges = {{0, 1}, {0, 256}, {-1000, 1000}, {1 << 20, (1 << 20) + 300},
+                {Integer.MIN_VALUE, Integer.MAX_VALUE}};
+        for (RadixSort radixSort : sorters()) {
+            for (int size : SIZES) {
+                for (int[] range : ranges) {
+                    int[] arr = random.ints(size, range[0], range[1]).toArray();
+                    int[] target = arr.clone();
+                    Arrays.sort(target);
+                    radixSort.sort(arr);
+                    Assert.assertArrayEquals(target, arr);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSortIntSign() {
+        int[] arr = new int[1000];
+        for (int i = 0; i < arr.length; i++) {
+            arr[i] = i % 4 == 0 ? Integer.MIN_VALUE : i % 4 == 1 ? Integer.MAX_VALUE : i % 4 == 2 ? -1 : 0;
+        }
+        int[] target = arr.clone();
+        Arrays.sort(target);
+        for (RadixSort radixSort : sorters()) {
+            int[] copy = arr.clone();
+            radixSort.sort(copy);
+            Assert.assertArrayEquals(target, copy);
+        }
+    }
+
+    @Test
+    public void testSortLong() {
+        long[][] ranges = {{0, 1}, {-100, 100}, {1_700_000_000_000L, 1_700_086_400_000L},
+                {Long.MIN_VALUE, Long.MAX_VALUE}};
+        for (RadixSort radixSort : sorters()) {
+            for (int size : SIZES) {
+                for (long[] range : ranges) {
+                    long[] arr = random.longs(size, range[0], range[1]).toArray();
+                    long[] target = arr.clone();
+                    Arrays.sort(target);
+                    radixSort.sort(arr);
+                    Assert.assertArrayEquals(target, arr);
+                }
+            }
+        }
+
+        long[] arr = {Long.MAX_VALUE, -1, 0, Long.MIN_VALUE, 1, Long.MIN_VALUE + 1};
+        long[] target = arr.clone();
+        Arrays.sort(target);
+        new RadixSort().sort(arr);
+        Assert.assertArrayEquals(target, arr);
+    }
+
+    @Test
+    public void testSortRange() {
+        for (RadixSort radixSort : sorters()) {
+            int[] arr = new int[10_000];
+            Arrays.setAll(arr, i -> arr.length - i);
+            int[] target = arr.clone();
+            Arrays.sort(target, 100, 9000);
+            radixSort.sort(arr, 100, 9000);
+            Assert.assertArrayEquals(target, arr);
+
+            long[] longs = random.longs(10_000).toArray();
+            long[] longTarget = longs.clone();
+            Arrays.sort(longTarget, 3, 9999);
+            radixSort.sort(longs, 3, 9999);
+            Assert.assertArrayEquals(longTarget, longs);
+        }
+    }
+
+    /**
+     * 串行，以及粒度很小、小数组也会分块的并行
+     */
+    private static RadixSort[] sorters() {
+        return new RadixSort[]{new RadixSort(), new RadixSort(POOL, 7), new RadixSort(POOL)};
+    }
+}
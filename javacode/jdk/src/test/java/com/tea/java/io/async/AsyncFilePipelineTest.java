@@ -0,0 +1,177 @@
+package com.tea.java.io.async;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class AsyncFilePipelineTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCopyWithChecksum() throws Exception {
+        try (AsyncFilePipeline pipeline = new AsyncFilePipeline(AsyncFilePipeline.ExecutorMode.PLATFORM,
+            4096, 8, 4)) {
+            for (int size : new int[]{0, 1, 4095, 4096, 4097, 1 << 20}) {
+                byte[] data = random(size, size);
+                Path source = write("source-" + size, data);
+                Path target = folder.getRoot().toPath().resolve("target-" + size);
+                ChecksumStage checksum = new ChecksumStage();
+                AsyncFilePipeline.Result result = pipeline.process(source, target, checksum).get(30, TimeUnit.SECONDS);
+                Assert.assertEquals(size, result.bytesRead());
+                Assert.assertEquals(size, result.bytesWritten());
+                Assert.assertArrayEquals(data, Files.readAllBytes(target));
+                Assert.assertEquals(ChecksumStage.checksum(data), checksum.getValue());
+                Assert.assertEquals(size, checksum.bytes());
+            }
+            Assert.assertTrue(pipeline.peakInFlight() <= 8);
+            Assert.assertTrue(pipeline.allocatedBuffers() <= 8);
+            Assert.assertEquals(0, pipeline.inFlight());
+        }
+    }
+
+    @Test
+    public void testDeflate() throws Exception {
+        // 可压缩的数据：重复的文本
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            sb.append("line ").append(i % 100).append('\n');
+        }
+        byte[] data = sb.toString().getBytes("UTF-8");
+        Path source = write("text", data);
+        Path target = folder.getRoot().toPath().resolve("text.z");
+        try (AsyncFilePipeline pipeline = new AsyncFilePipeline(AsyncFilePipeline.ExecutorMode.PLATFORM,
+            8192, 4, 2)) {
+            ChecksumStage before = new ChecksumStage();
+            ChecksumStage after = new ChecksumStage();
+            AsyncFilePipeline.Result result = pipeline.process(source, target, before, new DeflateStage(), after)
+                .get(30, TimeUnit.SECONDS);
+            Assert.assertEquals(data.length, result.bytesRead());
+            Assert.assertTrue(result.bytesWritten() < data.length / 10);
+            Assert.assertEquals(ChecksumStage.checksum(data), before.getValue());
+
+            byte[] compressed = Files.readAllBytes(target);
+            Assert.assertEquals(ChecksumStage.checksum(compressed), after.getValue());
+            Assert.assertArrayEquals(data, inflate(compressed));
+        }
+    }
+
+    /**
+     * 文件数远大于在途上限和线程数：所有文件都正确，在途块数不超过上限
+     */
+    @Test
+    public void testManyJobsPlatform() throws Exception {
+        manyJobs(AsyncFilePipeline.ExecutorMode.PLATFORM);
+    }
+
+    /**
+     * 只在JDK 21及以上运行。项目以JDK 17构建和测试，这里总是被跳过，
+     * VIRTUAL模式只有{@link #testVirtualUnsupported()}覆盖的回退行为经过验证，需要在JDK 21上单独运行本测试
+     */
+    @Test
+    public void testManyJobsVirtual() throws Exception {
+        Assume.assumeTrue(AsyncFilePipeline.virtualThreadsSupported());
+        manyJobs(AsyncFilePipeline.ExecutorMode.VIRTUAL);
+    }
+
+    @Test
+    public void testVirtualUnsupported() {
+        Assume.assumeTrue(!AsyncFilePipeline.virtualThreadsSupported());
+        try {
+            new AsyncFilePipeline(AsyncFilePipeline.ExecutorMode.VIRTUAL);
+            Assert.fail();
+        } catch (UnsupportedOperationException expected) {
+            // JDK 21以下
+        }
+    }
+
+    @Test
+    public void testMissingSource() throws Exception {
+        try (AsyncFilePipeline pipeline = new AsyncFilePipeline(AsyncFilePipeline.ExecutorMode.PLATFORM)) {
+            pipeline.copy(folder.getRoot().toPath().resolve("missing"), folder.getRoot().toPath().resolve("out"))
+                .get(30, TimeUnit.SECONDS);
+            Assert.fail();
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof NoSuchFileException);
+        }
+    }
+
+    private void manyJobs(AsyncFilePipeline.ExecutorMode mode) throws Exception {
+        int jobs = 200;
+        int maxInFlight = 16;
+        Path in = folder.newFolder("in-" + mode).toPath();
+        Path out = folder.newFolder("out-" + mode).toPath();
+        List<byte[]> data = new ArrayList<>();
+        List<ChecksumStage> checksums = new ArrayList<>();
+        List<CompletableFuture<AsyncFilePipeline.Result>> futures = new ArrayList<>();
+        try (AsyncFilePipeline pipeline = new AsyncFilePipeline(
+            AsyncFilePipeline.newExecutor(mode, 4), 1024, maxInFlight, 4)) {
+            for (int i = 0; i < jobs; i++) {
+                byte[] bytes = random(i, i * 97);
+                data.add(bytes);
+                Files.write(in.resolve(String.valueOf(i)), bytes);
+            }
+            for (int i = 0; i < jobs; i++) {
+                ChecksumStage checksum = new ChecksumStage();
+                checksums.add(checksum);
+                futures.add(pipeline.process(in.resolve(String.valueOf(i)), out.resolve(String.valueOf(i)), checksum));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(60, TimeUnit.SECONDS);
+            Assert.assertTrue(pipeline.peakInFlight() <= maxInFlight);
+            Assert.assertTrue(pipeline.allocatedBuffers() <= maxInFlight);
+            Assert.assertEquals(0, pipeline.bufferPool().outstandingBytes());
+            Assert.assertEquals(0, pipeline.bufferPool().leaks());
+        }
+        for (int i = 0; i < jobs; i++) {
+            Assert.assertTrue(Arrays.equals(data.get(i), Files.readAllBytes(out.resolve(String.valueOf(i)))));
+            Assert.assertEquals(ChecksumStage.checksum(data.get(i)), checksums.get(i).getValue());
+        }
+    }
+
+    private Path write(String name, byte[] data) throws IOException {
+        Path path = folder.newFile(name).toPath();
+        Files.write(path, data);
+        return path;
+    }
+
+    private static byte[] random(long seed, int size) {
+        byte[] data = new byte[size];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] inflate(byte[] compressed) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (InputStream in = new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                out.write(buffer, 0, n);
+            }
+        }
+        return out.toByteArray();
+    }
+}
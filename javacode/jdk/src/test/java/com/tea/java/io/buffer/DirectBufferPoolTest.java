@@ -0,0 +1,147 @@
+package com.tea.java.io.buffer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class DirectBufferPoolTest {
+
+    @Test
+    public void testSizeClass() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 1 << 20, 4, 4, false);
+        Assert.assertEquals(0, pool.sizeClass(0));
+        Assert.assertEquals(0, pool.sizeClass(4096));
+        Assert.assertEquals(1, pool.sizeClass(4097));
+        Assert.assertEquals(1, pool.sizeClass(8192));
+        Assert.assertEquals(8, pool.sizeClass(1 << 20));
+
+        for (int size : new int[]{0, 1, 4096, 5000, 65536, 1 << 20}) {
+            try (PooledBuffer pooled = pool.acquire(size)) {
+                ByteBuffer buffer = pooled.buffer();
+                Assert.assertTrue(buffer.isDirect());
+                Assert.assertEquals(0, buffer.position());
+                Assert.assertEquals(size, buffer.limit());
+                Assert.assertEquals(size <= 4096 ? 4096 : Integer.highestOneBit(size - 1) << 1, buffer.capacity());
+            }
+        }
+        // 大于maxSize不入池
+        try (PooledBuffer pooled = pool.acquire((1 << 20) + 1)) {
+            Assert.assertEquals((1 << 20) + 1, pooled.buffer().capacity());
+        }
+        Assert.assertEquals(1, pool.unpooled());
+        Assert.assertEquals(0, pool.outstandingBytes());
+    }
+
+    @Test
+    public void testReuse() {
+        DirectBufferPool pool = new DirectBufferPool(4096, 65536, 2, 2, true);
+        PooledBuffer first = pool.acquire(5000);
+        ByteBuffer buffer = first.buffer();
+        buffer.putInt(42);
+        Assert.assertEquals(8192, pool.outstandingBytes());
+        Assert.assertEquals(1, pool.outstandingBuffers());
+        Assert.assertTrue(first.release());
+        Assert.assertFalse(first.release());
+        Assert.assertEquals(0, pool.outstandingBytes());
+
+        // 同一线程、同一规格取回同一个buffer，且已重置position/limit
+        PooledBuffer second = pool.acquire(6000);
+        Assert.assertSame(buffer, second.buffer());
+        Assert.assertEquals(0, second.buffer().position());
+        Assert.assertEquals(6000, second.buffer().limit());
+        second.release();
+        Assert.assertEquals(1, pool.misses());
+        Assert.assertEquals(1, pool.hits());
+
+        // 线程本地2个 + 共享2个，第5个丢弃
+        List<PooledBuffer> buffers = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            buffers.add(pool.acquire(4096));
+        }
+        for (PooledBuffer pooled : buffers) {
+            pooled.release();
+        }
+        Assert.assertEquals(2 * 4096, pool.sharedBytes());
+        Assert.assertEquals(0, pool.leaks());
+    }
+
+    /**
+     * 其它线程归还的buffer通过共享池回到本线程
+     */
+    @Test
+    public void testSharedOverflow() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4096, 0, 8, false);
+        PooledBuffer pooled = pool.acquire(100);
+        ByteBuffer buffer = pooled.buffer();
+        Thread thread = new Thread(pooled::release);
+        thread.start();
+        thread.join();
+        Assert.assertEquals(4096, pool.sharedBytes());
+        try (PooledBuffer again = pool.acquire(100)) {
+            Assert.assertSame(buffer, again.buffer());
+        }
+    }
+
+    @Test
+    public void testLeakDetection() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool(4096, 4096, 4, 4, true);
+        leak(pool);
+        try (PooledBuffer kept = pool.acquire(10)) {
+            for (int i = 0; i < 100 && pool.leaks() == 0; i++) {
+                System.gc();
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(1, pool.leaks());
+            // 泄漏的buffer不再计入借出量
+            Assert.assertEquals(kept.buffer().capacity(), pool.outstandingBytes());
+            Assert.assertEquals(1, pool.outstandingBuffers());
+        }
+        Assert.assertEquals(0, pool.outstandingBytes());
+    }
+
+    private static void leak(DirectBufferPool pool) {
+        pool.acquire(10).buffer().put((byte) 1);
+    }
+
+    @Test
+    public void testConcurrent() throws Exception {
+        DirectBufferPool pool = new DirectBufferPool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        int size = ThreadLocalRandom.current().nextInt(1, 100_000);
+                        try (PooledBuffer pooled = pool.acquire(size)) {
+                            ByteBuffer buffer = pooled.buffer();
+                            Assert.assertEquals(size, buffer.remaining());
+                            buffer.put(size - 1, (byte) 1);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assert.assertEquals(40_000, pool.hits() + pool.misses());
+        Assert.assertTrue(pool.hits() > pool.misses());
+        Assert.assertEquals(0, pool.outstandingBytes());
+        Assert.assertEquals(0, pool.leaks());
+    }
+}
@@ -0,0 +1,107 @@
+package com.tea.java.io.json;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class JsonLinesSplitterTest {
+
+    private static final byte[] ID = "id".getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSplitBuffer() throws Exception {
+        ByteBuffer data = JsonTokenizerTest.utf8(JsonTokenizerTest.jsonLines(5000, new Random(1)));
+        for (int chunks : new int[]{1, 2, 3, 8, 64}) {
+            List<ByteBuffer> parts = JsonLinesSplitter.split(data, chunks);
+            Assert.assertEquals(chunks, parts.size());
+            int total = 0;
+            for (ByteBuffer part : parts) {
+                total += part.remaining();
+                if (part.hasRemaining()) {
+                    Assert.assertEquals('{', part.get(0));
+                    Assert.assertEquals('\n', part.get(part.limit() - 1));
+                }
+            }
+            Assert.assertEquals(data.remaining(), total);
+            Assert.assertEquals(5000 * 4999L / 2, parallelSumIds(new ArrayList<>(parts)));
+        }
+        // 只有一行时所有切分点都落到末尾
+        List<ByteBuffer> parts = JsonLinesSplitter.split(JsonTokenizerTest.utf8("{\"id\": 1}\n"), 4);
+        Assert.assertEquals(10, parts.get(0).remaining());
+        Assert.assertEquals(0, parts.get(3).remaining());
+    }
+
+    @Test
+    public void testMapFile() throws Exception {
+        Path file = folder.newFile("lines.json").toPath();
+        Files.write(file, JsonTokenizerTest.jsonLines(20_000, new Random(2)).getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int chunks : new int[]{1, 4, 7}) {
+                long[] boundaries = JsonLinesSplitter.boundaries(channel, chunks);
+                Assert.assertEquals(0, boundaries[0]);
+                Assert.assertEquals(channel.size(), boundaries[chunks]);
+                List<MappedByteBuffer> mapped = JsonLinesSplitter.map(channel, chunks);
+                Assert.assertEquals(chunks, mapped.size());
+                Assert.assertEquals(20_000 * 19_999L / 2, parallelSumIds(new ArrayList<>(mapped)));
+            }
+        }
+    }
+
+    /**
+     * 每段一个线程，累加所有"id"字段，其余字段跳过
+     */
+    private static long parallelSumIds(List<ByteBuffer> parts) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (ByteBuffer part : parts) {
+                futures.add(executor.submit(() -> {
+                    JsonTokenizer tokenizer = new JsonTokenizer(part);
+                    long sum = 0;
+                    JsonToken token;
+                    while ((token = tokenizer.next()) != JsonToken.END_DOCUMENT) {
+                        if (token == JsonToken.NAME) {
+                            if (tokenizer.contentEquals(ID)) {
+                                tokenizer.next();
+                                sum += tokenizer.longValue();
+                            } else {
+                                tokenizer.skipValue();
+                            }
+                        }
+                    }
+                    return sum;
+                }));
+            }
+            long sum = 0;
+            for (Future<Long> future : futures) {
+                sum += future.get();
+            }
+            return sum;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
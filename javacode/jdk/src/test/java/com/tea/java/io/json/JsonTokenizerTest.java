@@ -0,0 +1,162 @@
+package com.tea.java.io.json;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class JsonTokenizerTest {
+
+    @Test
+    public void testMappedFile() throws IOException, URISyntaxException {
+        try (FileChannel channel = FileChannel.open(Paths.get(getClass().getResource("/test.json").toURI()),
+            StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            JsonTokenizer tokenizer = new JsonTokenizer(mapped);
+            Assert.assertEquals(JsonToken.BEGIN_OBJECT, tokenizer.next());
+            Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+            Assert.assertTrue(tokenizer.contentEquals("error".getBytes(StandardCharsets.UTF_8)));
+            Assert.assertEquals(JsonToken.NUMBER, tokenizer.next());
+            Assert.assertEquals(0, tokenizer.longValue());
+            Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+            Assert.assertEquals("status", tokenizer.stringValue());
+            tokenizer.skipValue();
+            Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+            Assert.assertEquals(JsonToken.STRING, tokenizer.next());
+            Assert.assertEquals("2030-12-31", tokenizer.stringValue());
+            Assert.assertEquals(JsonToken.END_OBJECT, tokenizer.next());
+            Assert.assertEquals(JsonToken.END_DOCUMENT, tokenizer.next());
+        }
+    }
+
+    @Test
+    public void testTokens() throws IOException {
+        String json = "{\"a\": [1, -2.5e3, true, false, null, \"x\\\"y\\\\z\\n\\u4e2d\\ud83d\\ude00\"],"
+            + " \"中文\": {\"n\": 12345678901234567890, \"m\": -9223372036854775808}, \"e\": [], \"o\": {}}";
+        JsonTokenizer tokenizer = new JsonTokenizer(utf8(json));
+        Assert.assertEquals(JsonToken.BEGIN_OBJECT, tokenizer.next());
+        Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+        Assert.assertEquals(JsonToken.BEGIN_ARRAY, tokenizer.next());
+        Assert.assertEquals(JsonToken.NUMBER, tokenizer.next());
+        Assert.assertEquals(1, tokenizer.longValue());
+        Assert.assertEquals(JsonToken.NUMBER, tokenizer.next());
+        Assert.assertEquals(-2500.0, tokenizer.doubleValue(), 0);
+        Assert.assertEquals(-2500, tokenizer.longValue());
+        Assert.assertEquals(JsonToken.TRUE, tokenizer.next());
+        Assert.assertTrue(tokenizer.booleanValue());
+        Assert.assertEquals(JsonToken.FALSE, tokenizer.next());
+        Assert.assertEquals(JsonToken.NULL, tokenizer.next());
+        Assert.assertEquals(JsonToken.STRING, tokenizer.next());
+        Assert.assertEquals("x\"y\\z\n中\uD83D\uDE00", tokenizer.stringValue());
+        Assert.assertTrue(tokenizer.contentEquals("x\"y\\z\n中\uD83D\uDE00".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(JsonToken.END_ARRAY, tokenizer.next());
+        Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+        Assert.assertTrue(tokenizer.contentEquals("中文".getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(JsonToken.BEGIN_OBJECT, tokenizer.next());
+        Assert.assertEquals(2, tokenizer.depth());
+        Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+        Assert.assertEquals(JsonToken.NUMBER, tokenizer.next());
+        Assert.assertEquals("12345678901234567890", tokenizer.stringValue());
+        Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+        Assert.assertEquals(JsonToken.NUMBER, tokenizer.next());
+        Assert.assertEquals(Long.MIN_VALUE, tokenizer.longValue());
+        Assert.assertEquals(JsonToken.END_OBJECT, tokenizer.next());
+        // 跳过"e"的值和"o"整个字段
+        Assert.assertEquals(JsonToken.NAME, tokenizer.next());
+        tokenizer.skipValue();
+        tokenizer.skipValue();
+        Assert.assertEquals(JsonToken.END_OBJECT, tokenizer.next());
+        Assert.assertEquals(JsonToken.END_DOCUMENT, tokenizer.next());
+        Assert.assertEquals(json.getBytes(StandardCharsets.UTF_8).length, tokenizer.position());
+    }
+
+    /**
+     * 通过channel读取，buffer只有7字节：token跨越buffer边界、单个token比buffer大，结果与整块buffer相同
+     */
+    @Test
+    public void testRefill() throws IOException {
+        String lines = jsonLines(2000, new Random(2026));
+        List<String> expected = tokens(new JsonTokenizer(utf8(lines)));
+        for (int size : new int[]{1, 7, 64, 4096}) {
+            for (boolean direct : new boolean[]{true, false}) {
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+                JsonTokenizer tokenizer = new JsonTokenizer(
+                    Channels.newChannel(new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8))), buffer);
+                Assert.assertEquals(expected, tokens(tokenizer));
+            }
+        }
+    }
+
+    @Test
+    public void testSyntaxError() {
+        for (String json : Arrays.asList("{\"a\": \"unterminated", "[1, 2}", "{\"a\": tru}", "]", "{\"a\": 1", "@")) {
+            try {
+                tokens(new JsonTokenizer(utf8(json)));
+                Assert.fail(json);
+            } catch (JsonSyntaxException expected) {
+                Assert.assertTrue(expected.getOffset() >= 0);
+            } catch (IOException e) {
+                Assert.fail(e.toString());
+            }
+        }
+    }
+
+    static String jsonLines(int lines, Random random) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append("{\"id\": ").append(i)
+                .append(", \"name\": \"user-").append(random.nextInt(1000)).append("\\t名字\"")
+                .append(", \"score\": ").append(random.nextDouble() * 100)
+                .append(", \"tags\": [\"a\", \"b\", null, ").append(random.nextBoolean()).append("]")
+                .append(", \"payload\": \"");
+            int length = random.nextInt(50);
+            for (int j = 0; j < length; j++) {
+                sb.append((char) ('a' + random.nextInt(26)));
+            }
+            sb.append("\"}\n");
+        }
+        return sb.toString();
+    }
+
+    static ByteBuffer utf8(String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+        return buffer;
+    }
+
+    private static List<String> tokens(JsonTokenizer tokenizer) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        JsonToken token;
+        while ((token = tokenizer.next()) != JsonToken.END_DOCUMENT) {
+            switch (token) {
+                case NAME:
+                case STRING:
+                case NUMBER:
+                    tokens.add(token + ":" + tokenizer.stringValue());
+                    break;
+                default:
+                    tokens.add(token.name());
+                    break;
+            }
+        }
+        return tokens;
+    }
+}
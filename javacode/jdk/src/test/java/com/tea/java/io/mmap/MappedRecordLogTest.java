@@ -0,0 +1,231 @@
+package com.tea.java.io.mmap;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class MappedRecordLogTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testAppendAndRead() throws IOException {
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log1"), 1024, 0)) {
+            List<Long> offsets = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                offsets.add(log.append(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            // 空记录
+            long empty = log.append(new byte[0]);
+            for (int i = 0; i < 200; i++) {
+                Assert.assertEquals("record-" + i, string(log.read(offsets.get(i))));
+                Assert.assertEquals(0, offsets.get(i) % MappedRecordLog.ALIGNMENT);
+            }
+            Assert.assertEquals(0, log.read(empty).remaining());
+
+            MappedRecordLog.Cursor cursor = log.cursor();
+            for (int i = 0; i < 200; i++) {
+                Assert.assertEquals("record-" + i, string(cursor.next()));
+                Assert.assertEquals("record-" + i, string(log.cursor(offsets.get(i)).next()));
+            }
+            Assert.assertEquals(0, cursor.next().remaining());
+            Assert.assertNull(cursor.next());
+
+            log.append("later".getBytes(StandardCharsets.UTF_8));
+            Assert.assertEquals("later", string(cursor.next()));
+        }
+    }
+
+    @Test
+    public void testReadOnlySlice() throws IOException {
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log2"), 1024, 0)) {
+            ByteBuffer record = ByteBuffer.wrap("abc".getBytes(StandardCharsets.UTF_8));
+            long offset = log.append(record);
+            Assert.assertEquals(0, record.position());
+            ByteBuffer slice = log.read(offset);
+            Assert.assertTrue(slice.isReadOnly());
+            Assert.assertTrue(slice.isDirect());
+            Assert.assertEquals(3, slice.remaining());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRecordTooLarge() throws IOException {
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log3"), 64, 0)) {
+            log.append(new byte[64 - MappedRecordLog.HEADER_SIZE + 1]);
+        }
+    }
+
+    /**
+     * 多个线程并发追加，segment很小，频繁滚动；同时一个读者边写边读，只会读到完整的记录
+     */
+    @Test
+    public void testConcurrentAppend() throws Exception {
+        int writers = 4;
+        int perWriter = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(writers + 1);
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log4"), 4096, 0)) {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perWriter; i++) {
+                        // 长度不一，覆盖不同的对齐和填充
+                        byte[] payload = new byte[8 + (i % 37)];
+                        ByteBuffer.wrap(payload).putInt(writer).putInt(i);
+                        log.append(payload);
+                    }
+                    return null;
+                }));
+            }
+            Future<int[]> reader = executor.submit(() -> {
+                int[] next = new int[writers];
+                MappedRecordLog.Cursor cursor = log.cursor();
+                int total = 0;
+                start.await();
+                while (total < writers * perWriter) {
+                    ByteBuffer record = cursor.next();
+                    if (record == null) {
+                        Thread.yield();
+                        continue;
+                    }
+                    int writer = record.getInt();
+                    int seq = record.getInt();
+                    // 同一个写入线程的记录按写入顺序出现
+                    Assert.assertEquals(next[writer]++, seq);
+                    Assert.assertEquals(8 + (seq % 37), record.limit());
+                    total++;
+                }
+                return next;
+            });
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            int[] counts = reader.get(60, TimeUnit.SECONDS);
+            int[] expected = new int[writers];
+            Arrays.fill(expected, perWriter);
+            Assert.assertArrayEquals(expected, counts);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRecover() throws IOException {
+        File directory = folder.newFolder("log5");
+        List<Long> offsets = new ArrayList<>();
+        try (MappedRecordLog log = new MappedRecordLog(directory, 256, 0)) {
+            for (int i = 0; i < 50; i++) {
+                offsets.add(log.append(("record-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+
+        // 模拟写了一半的记录：在最后一条之后写一个长度，但内容和crc不对
+        File[] files = directory.listFiles();
+        Arrays.sort(files);
+        File last = files[files.length - 1];
+        long lastOffset = offsets.get(offsets.size() - 1);
+        try (RandomAccessFile raf = new RandomAccessFile(last, "rw")) {
+            long base = Long.parseLong(last.getName().substring(0, 20));
+            raf.seek(lastOffset - base + MappedRecordLog.align(MappedRecordLog.HEADER_SIZE + "record-49".length()));
+            raf.writeInt(10);
+            raf.writeInt(12345);
+        }
+
+        try (MappedRecordLog log = new MappedRecordLog(directory, 256, 0)) {
+            for (int i = 0; i < 50; i++) {
+                Assert.assertEquals("record-" + i, string(log.read(offsets.get(i))));
+            }
+            long offset = log.append("after-restart".getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(offset > lastOffset);
+
+            MappedRecordLog.Cursor cursor = log.cursor();
+            for (int i = 0; i < 50; i++) {
+                Assert.assertEquals("record-" + i, string(cursor.next()));
+            }
+            Assert.assertEquals("after-restart", string(cursor.next()));
+            Assert.assertNull(cursor.next());
+        }
+    }
+
+    @Test
+    public void testFlush() throws Exception {
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log6"), 4096, 10)) {
+            List<ByteBuffer> batch = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                batch.add(ByteBuffer.wrap(("batch-" + i).getBytes(StandardCharsets.UTF_8)));
+            }
+            long[] offsets = log.appendBatch(batch);
+            Assert.assertEquals(100, offsets.length);
+            Assert.assertEquals("batch-99", string(log.read(offsets[99])));
+            for (long offset : offsets) {
+                Assert.assertTrue(log.isFlushed(offset));
+            }
+            // 后台线程把flushed推进到单独追加的记录之后
+            long timer = log.append("timer".getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < 200 && !log.isFlushed(timer); i++) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(log.isFlushed(timer));
+        }
+    }
+
+    /**
+     * 后台线程频繁刷盘的同时多个线程appendBatch，每批返回时都已刷盘
+     */
+    @Test
+    public void testConcurrentAppendBatch() throws Exception {
+        try (MappedRecordLog log = new MappedRecordLog(folder.newFolder("log7"), 4096, 1)) {
+            ExecutorService es = Executors.newFixedThreadPool(4);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int thread = t;
+                futures.add(es.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        List<ByteBuffer> batch = new ArrayList<>();
+                        for (int j = 0; j < 5; j++) {
+                            batch.add(ByteBuffer.wrap((thread + "-" + i + "-" + j).getBytes(StandardCharsets.UTF_8)));
+                        }
+                        for (long offset : log.appendBatch(batch)) {
+                            Assert.assertTrue(log.isFlushed(offset));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+            es.shutdown();
+        }
+    }
+
+    private static String string(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,128 @@
+package com.tea.java.io.zerocopy;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class FileTransferTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testChoose() {
+        FileTransfer transfer = new FileTransfer();
+        Assert.assertEquals(FileTransfer.Strategy.HEAP, transfer.choose(0));
+        Assert.assertEquals(FileTransfer.Strategy.HEAP, transfer.choose(FileTransfer.DEFAULT_DIRECT_THRESHOLD - 1));
+        Assert.assertEquals(FileTransfer.Strategy.DIRECT, transfer.choose(FileTransfer.DEFAULT_DIRECT_THRESHOLD));
+        Assert.assertEquals(FileTransfer.Strategy.TRANSFER_TO, transfer.choose(FileTransfer.DEFAULT_TRANSFER_TO_THRESHOLD));
+        Assert.assertEquals(FileTransfer.Strategy.TRANSFER_TO, transfer.choose(3L << 30));
+    }
+
+    @Test
+    public void testCopy() throws IOException {
+        FileTransfer transfer = new FileTransfer();
+        for (int size : new int[]{0, 1, 1000, 100_000, 10 * 1024 * 1024}) {
+            Path source = randomFile(size);
+            for (FileTransfer.Strategy strategy : FileTransfer.Strategy.values()) {
+                Path target = folder.getRoot().toPath().resolve("copy-" + strategy + "-" + size);
+                Assert.assertEquals(size, transfer.copy(source, target, strategy));
+                Assert.assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(target));
+            }
+            Path target = folder.getRoot().toPath().resolve("copy-" + size);
+            Assert.assertEquals(size, transfer.copy(source, target));
+            Assert.assertArrayEquals(Files.readAllBytes(source), Files.readAllBytes(target));
+        }
+        for (FileTransfer.Strategy strategy : FileTransfer.Strategy.values()) {
+            FileTransfer.Stats stats = transfer.stats(strategy);
+            Assert.assertTrue(stats.bytes() > 0);
+            Assert.assertTrue(stats.bytesPerSecond() > 0);
+        }
+        // 按大小选择：0、1、1000为HEAP，100000为DIRECT，10M为TRANSFER_TO
+        Assert.assertEquals(5 + 3, transfer.stats(FileTransfer.Strategy.HEAP).transfers());
+        // DIRECT方式的6次复制共用一个池中的buffer
+        Assert.assertEquals(6, transfer.stats(FileTransfer.Strategy.DIRECT).transfers());
+        Assert.assertEquals(1, transfer.bufferPool().misses());
+        Assert.assertEquals(5, transfer.bufferPool().hits());
+        Assert.assertEquals(0, transfer.bufferPool().outstandingBytes());
+    }
+
+    /**
+     * 目标通道每次最多接受7字节，单次请求最多100字节，transferTo必须循环直到传完
+     */
+    @Test
+    public void testPartialTransfer() throws IOException {
+        FileTransfer transfer = new FileTransfer(16, 32, 16, 100);
+        Path source = randomFile(10_000);
+        byte[] expected = Files.readAllBytes(source);
+        for (FileTransfer.Strategy strategy : FileTransfer.Strategy.values()) {
+            TrickleChannel out = new TrickleChannel(expected.length, 7);
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+                Assert.assertEquals(9000, transfer.transfer(in, 1000, 9000, out, strategy));
+            }
+            byte[] actual = new byte[9000];
+            out.buffer.flip();
+            out.buffer.get(actual);
+            byte[] target = new byte[9000];
+            System.arraycopy(expected, 1000, target, 0, 9000);
+            Assert.assertArrayEquals(target, actual);
+        }
+
+        // 请求超过文件末尾时返回实际传输的字节数
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            Assert.assertEquals(500, transfer.transfer(in, 9500, 1000, new TrickleChannel(1000, 7), FileTransfer.Strategy.TRANSFER_TO));
+            Assert.assertEquals(500, transfer.transfer(in, 9500, 1000, new TrickleChannel(1000, 7), FileTransfer.Strategy.DIRECT));
+        }
+    }
+
+    private Path randomFile(int size) throws IOException {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        Path path = folder.newFile("source-" + size).toPath();
+        Files.write(path, data);
+        return path;
+    }
+
+    private static final class TrickleChannel implements WritableByteChannel {
+
+        private final ByteBuffer buffer;
+        private final int maxPerWrite;
+
+        TrickleChannel(int capacity, int maxPerWrite) {
+            this.buffer = ByteBuffer.allocate(capacity);
+            this.maxPerWrite = maxPerWrite;
+        }
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = Math.min(src.remaining(), maxPerWrite);
+            for (int i = 0; i < n; i++) {
+                buffer.put(src.get());
+            }
+            return n;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
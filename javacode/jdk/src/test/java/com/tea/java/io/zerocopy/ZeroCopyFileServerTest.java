@@ -0,0 +1,238 @@
+package com.tea.java.io.zerocopy;
+
+import com.tea.java.io.buffer.DirectBufferPool;
+import com.tea.java.io.buffer.PooledBuffer;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author teaho2015@gmail.com
+ * @date 2026-10
+ */
+public class ZeroCopyFileServerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFetch() throws IOException {
+        Path root = folder.newFolder("root").toPath();
+        byte[] data = new byte[3 * 1024 * 1024 + 17];
+        new Random(2026).nextBytes(data);
+        Files.write(root.resolve("blob"), data);
+
+        for (FileTransfer.Strategy strategy : FileTransfer.Strategy.values()) {
+            try (ZeroCopyFileServer server = newServer(root, strategy);
+                 FileRangeClient client = new FileRangeClient(address(server))) {
+                // 同一连接上的多个请求
+                Assert.assertArrayEquals(data, fetch(client, "blob", 0, data.length));
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, 1000, 5000), fetch(client, "blob", 1000, 4000));
+                // 超出末尾截断
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, data.length - 10, data.length),
+                    fetch(client, "blob", data.length - 10, 100));
+                Assert.assertEquals(0, fetch(client, "blob", data.length + 10, 100).length);
+                Assert.assertEquals(0, fetch(client, "blob", 0, 0).length);
+
+                try {
+                    client.fetch("missing", 0, 10, null);
+                    Assert.fail();
+                } catch (FileNotFoundException expected) {
+                    // 连接仍可继续使用
+                }
+                try {
+                    client.fetch("../" + root.getFileName() + "/blob", 0, 10, null);
+                } catch (FileNotFoundException e) {
+                    Assert.fail("path inside root after normalize");
+                }
+                try {
+                    client.fetch("../outside", 0, 10, null);
+                    Assert.fail();
+                } catch (FileNotFoundException expected) {
+                    // root之外的路径
+                }
+                try {
+                    client.fetch("blob", -1, 10, null);
+                    Assert.fail();
+                } catch (IOException expected) {
+                    // 非法区间
+                }
+                Assert.assertArrayEquals(Arrays.copyOf(data, 10), fetch(client, "blob", 0, 10));
+                Assert.assertEquals(10, server.requests());
+            }
+        }
+    }
+
+    /**
+     * root内指向root外的符号链接不能访问，指向root内的可以
+     */
+    @Test
+    public void testSymlink() throws IOException {
+        Path root = folder.newFolder("root").toPath();
+        Path outside = folder.newFolder("outside").toPath();
+        Files.write(outside.resolve("secret"), "secret".getBytes(StandardCharsets.US_ASCII));
+        Files.write(root.resolve("blob"), "blob".getBytes(StandardCharsets.US_ASCII));
+        try {
+            Files.createSymbolicLink(root.resolve("secret-link"), outside.resolve("secret"));
+            Files.createSymbolicLink(root.resolve("dir-link"), outside);
+            Files.createSymbolicLink(root.resolve("blob-link"), root.resolve("blob"));
+        } catch (UnsupportedOperationException | IOException e) {
+            Assume.assumeNoException(e);
+        }
+
+        try (ZeroCopyFileServer server = newServer(root, FileTransfer.Strategy.TRANSFER_TO);
+             FileRangeClient client = new FileRangeClient(address(server))) {
+            for (String path : new String[]{"secret-link", "dir-link/secret"}) {
+                try {
+                    client.fetch(path, 0, 10, null);
+                    Assert.fail(path);
+                } catch (FileNotFoundException expected) {
+                    // 链接指向root之外
+                }
+            }
+            Assert.assertArrayEquals("blob".getBytes(StandardCharsets.US_ASCII), fetch(client, "blob-link", 0, 10));
+        }
+    }
+
+    /**
+     * 接受新连接失败（这里是申请发送缓冲失败）只关闭这个连接，服务端继续接受之后的连接
+     */
+    @Test
+    public void testAcceptFailure() throws Exception {
+        Path root = folder.newFolder("root").toPath();
+        Files.write(root.resolve("blob"), "blob".getBytes(StandardCharsets.US_ASCII));
+        AtomicInteger failures = new AtomicInteger(1);
+        DirectBufferPool pool = new DirectBufferPool() {
+            @Override
+            public PooledBuffer acquire(int size) {
+                if (failures.getAndDecrement() > 0) {
+                    throw new IllegalStateException("no buffer");
+                }
+                return super.acquire(size);
+            }
+        };
+
+        try (ZeroCopyFileServer server = new ZeroCopyFileServer(root,
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), FileTransfer.Strategy.DIRECT, 16 * 1024, pool)
+            .start()) {
+            try (SocketChannel rejected = SocketChannel.open(address(server))) {
+                // 服务端关闭了这个连接
+                Assert.assertEquals(-1, rejected.read(ByteBuffer.allocate(64)));
+            }
+            Assert.assertEquals(1, server.acceptFailures());
+            try (FileRangeClient client = new FileRangeClient(address(server))) {
+                Assert.assertArrayEquals("blob".getBytes(StandardCharsets.US_ASCII), fetch(client, "blob", 0, 4));
+            }
+        }
+        Assert.assertEquals(0, pool.outstandingBuffers());
+    }
+
+    /**
+     * 客户端先发出多个请求、很久之后才开始读：服务端socket缓冲区写满，需要等OP_WRITE后从断点继续
+     */
+    @Test
+    public void testBackpressure() throws Exception {
+        Path root = folder.newFolder("root").toPath();
+        byte[] data = new byte[8 * 1024 * 1024];
+        new Random(1).nextBytes(data);
+        Files.write(root.resolve("blob"), data);
+
+        for (FileTransfer.Strategy strategy : FileTransfer.Strategy.values()) {
+            try (ZeroCopyFileServer server = newServer(root, strategy);
+                 SocketChannel channel = SocketChannel.open()) {
+                channel.socket().setReceiveBufferSize(4096);
+                channel.connect(address(server));
+                channel.write(ByteBuffer.wrap("blob 0 8388608\nblob 100 10\n".getBytes(StandardCharsets.US_ASCII)));
+                Thread.sleep(200);
+
+                ByteBuffer response = ByteBuffer.allocate(2 * ZeroCopyFileServer.HEADER_SIZE + data.length + 10);
+                while (response.hasRemaining()) {
+                    ByteBuffer chunk = ByteBuffer.allocate(Math.min(1000, response.remaining()));
+                    if (channel.read(chunk) < 0) {
+                        break;
+                    }
+                    chunk.flip();
+                    response.put(chunk);
+                }
+                response.flip();
+                Assert.assertEquals(ZeroCopyFileServer.OK, response.getInt());
+                Assert.assertEquals(data.length, response.getLong());
+                byte[] body = new byte[data.length];
+                response.get(body);
+                Assert.assertArrayEquals(data, body);
+                Assert.assertEquals(ZeroCopyFileServer.OK, response.getInt());
+                Assert.assertEquals(10, response.getLong());
+                byte[] second = new byte[10];
+                response.get(second);
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, 100, 110), second);
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentClients() throws Exception {
+        Path root = folder.newFolder("root").toPath();
+        byte[] data = new byte[1024 * 1024];
+        new Random(2).nextBytes(data);
+        Files.write(root.resolve("blob"), data);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (ZeroCopyFileServer server = newServer(root, FileTransfer.Strategy.TRANSFER_TO)) {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int offset = i * 1000;
+                futures.add(executor.submit(() -> {
+                    try (FileRangeClient client = new FileRangeClient(address(server))) {
+                        return fetch(client, "blob", offset, data.length);
+                    }
+                }));
+            }
+            for (int i = 0; i < 8; i++) {
+                Assert.assertArrayEquals(Arrays.copyOfRange(data, i * 1000, data.length),
+                    futures.get(i).get(30, TimeUnit.SECONDS));
+            }
+            Assert.assertTrue(server.bytesSent() > 0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ZeroCopyFileServer newServer(Path root, FileTransfer.Strategy strategy) throws IOException {
+        return new ZeroCopyFileServer(root, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), strategy, 16 * 1024)
+            .start();
+    }
+
+    private static InetSocketAddress address(ZeroCopyFileServer server) throws IOException {
+        return new InetSocketAddress(InetAddress.getLoopbackAddress(), server.port());
+    }
+
+    private static byte[] fetch(FileRangeClient client, String path, long offset, long length) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        client.fetch(path, offset, length, Channels.newChannel(out));
+        return out.toByteArray();
+    }
+}
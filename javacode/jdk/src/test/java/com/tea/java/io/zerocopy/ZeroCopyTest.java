@@ -1,12 +1,19 @@
 package com.tea.java.io.zerocopy;
 
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.*;
+import java.net.URISyntaxException;
 import java.nio.ByteBuffer;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 
 /**
  * @author teaho2015@gmail.com
@@ -14,11 +21,20 @@ import java.nio.charset.StandardCharsets;
  */
 public class ZeroCopyTest {
 
-    @Test
-    public void testNormalIO() {
-        String sourceFile = "/home/teaho/IdeaProjects/bookspace/java-api-learning/javacode/jdk/src/test/resources/test.json";
-        String targetFile = "/home/teaho/IdeaProjects/bookspace/java-api-learning/javacode/jdk/src/test/resources/test_copy.json";
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private String sourceFile;
+    private String targetFile;
+
+    @Before
+    public void setUp() throws URISyntaxException, IOException {
+        sourceFile = Paths.get(getClass().getResource("/test.json").toURI()).toString();
+        targetFile = new File(folder.getRoot(), "test_copy.json").getPath();
+    }
 
+    @Test
+    public void testNormalIO() throws IOException {
         try (FileReader reader = new FileReader(sourceFile);
             FileWriter writer = new FileWriter(targetFile)) {
 
@@ -33,20 +49,18 @@ public class ZeroCopyTest {
         } catch (IOException e) {
             e.printStackTrace();
         }
-
+        Assert.assertArrayEquals(Files.readAllBytes(Paths.get(sourceFile)), Files.readAllBytes(Paths.get(targetFile)));
     }
 
 
     @Test
-    public void sendFile() {
-        String sourceFile = "/home/teaho/IdeaProjects/bookspace/java-api-learning/javacode/jdk/src/test/resources/test.json";
-        String targetFile = "/home/teaho/IdeaProjects/bookspace/java-api-learning/javacode/jdk/src/test/resources/test_copy.json";
+    public void sendFile() throws IOException {
         try (FileInputStream fis = new FileInputStream(sourceFile);
             FileOutputStream fos = new FileOutputStream(targetFile);
             FileChannel inChannel = fis.getChannel();
             FileChannel outChannel = fos.getChannel()) {
 
-            // 零拷贝传输
+            // 零拷贝传输，一次调用不一定传完，完整的循环见FileTransfer
             inChannel.transferTo(0, inChannel.size(), outChannel);
 
             // 或者使用transferFrom
@@ -54,15 +68,15 @@ public class ZeroCopyTest {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
-
+        Assert.assertArrayEquals(Files.readAllBytes(Paths.get(sourceFile)), Files.readAllBytes(Paths.get(targetFile)));
     }
 
 
     @Test
-    public void mmap() throws FileNotFoundException {
-
-        String sourceFile = "/home/teaho/IdeaProjects/bookspace/java-api-learning/javacode/jdk/src/test/resources/test.json";
-        try (FileChannel fileChannel = new RandomAccessFile(new File(sourceFile), "rw").getChannel();) {
+    public void mmap() throws IOException {
+        // 映射的是副本，不修改测试资源
+        Files.copy(Paths.get(sourceFile), Paths.get(targetFile));
+        try (FileChannel fileChannel = new RandomAccessFile(new File(targetFile), "rw").getChannel();) {
             MappedByteBuffer mappedByteBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, fileChannel.size());
 
             byte[] data = "test".getBytes(StandardCharsets.UTF_8);
@@ -74,6 +88,7 @@ public class ZeroCopyTest {
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
+        Assert.assertTrue(new String(Files.readAllBytes(Paths.get(targetFile)), StandardCharsets.UTF_8).startsWith("test"));
     }
 
 